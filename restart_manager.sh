@@ -14,6 +14,14 @@ ACTION="$2"
 
 APPROVAL_TIMEOUT=30
 
+# Agentul rezident (restart-agent.jar) — cand ruleaza, el detine starea de restart
+AGENT_JAR="$SCRIPT_DIR/restart-agent.jar"
+AGENT_PID_FILE="$SCRIPT_DIR/restart-agent.pid"
+
+# watch: heartbeat (detecteaza clientii deconectati prin SIGPIPE) si durata maxima a unui stream
+WATCH_HEARTBEAT=15
+WATCH_MAX_SECONDS=3600
+
 # ============================================================================
 # ATOMIC LOCK
 # ============================================================================
@@ -140,6 +148,38 @@ active_restart_json_block() {
 # Status management
 # ============================================================================
 
+# Versiunea curenta din STATUS_FILE (doar bash, fara grep/sed); 0 daca lipseste
+current_version() {
+    local content=""
+    [ -f "$STATUS_FILE" ] && content=$(< "$STATUS_FILE")
+    if [[ "$content" =~ \"version\":[[:space:]]*([0-9]+) ]]; then
+        echo "${BASH_REMATCH[1]}"
+    else
+        echo 0
+    fi
+}
+
+# Versiune strict crescatoare: timestamp-ul curent, sau precedenta + 1 daca doua
+# scrieri cad in aceeasi secunda (clientii compara versiunea la "get <version>")
+next_version() {
+    local now=$(date +%s)
+    local previous=$(current_version)
+    if [ "$now" -le "$previous" ]; then
+        echo $((previous + 1))
+    else
+        echo "$now"
+    fi
+}
+
+# Scriere atomica: continutul complet intr-un fisier temporar din acelasi director,
+# apoi mv (rename) peste STATUS_FILE — cititorii vad fie versiunea veche, fie pe cea noua,
+# niciodata un fisier pe jumatate scris
+commit_status_file() {
+    local tmp_file="$1"
+    chmod 666 "$tmp_file"
+    mv -f "$tmp_file" "$STATUS_FILE"
+}
+
 write_status() {
     local status="$1"
     local requester="$2"
@@ -168,12 +208,14 @@ write_status() {
         rejections="[]"
     fi
 
-    # Construieste blocul active_restart INAINTE de heredoc
+    # Construieste blocul active_restart si versiunea INAINTE de heredoc
     local ar_block=$(active_restart_json_block)
+    local version=$(next_version)
 
-    cat > "$STATUS_FILE" <<EOF
+    local tmp_file="$STATUS_FILE.tmp.$$"
+    cat > "$tmp_file" <<EOF
 {
-    "version": $(date +%s),
+    "version": $version,
     "in_progress": $in_progress,
     "requester": "$requester",
     "project": $project_val,
@@ -185,16 +227,18 @@ write_status() {
     "last_update": $(date +%s)
 }
 EOF
-    chmod 666 "$STATUS_FILE"
+    commit_status_file "$tmp_file"
 }
 
 init_status() {
     # active_restart.dat ramane neatins daca exista
     local ar_block=$(active_restart_json_block)
+    local version=$(next_version)
 
-    cat > "$STATUS_FILE" <<EOF
+    local tmp_file="$STATUS_FILE.tmp.$$"
+    cat > "$tmp_file" <<EOF
 {
-    "version": $(date +%s),
+    "version": $version,
     "in_progress": false,
     "requester": "null",
     "project": null,
@@ -206,7 +250,7 @@ init_status() {
     "last_update": $(date +%s)
 }
 EOF
-    chmod 666 "$STATUS_FILE"
+    commit_status_file "$tmp_file"
 }
 
 # ============================================================================
@@ -365,6 +409,7 @@ start_background_watcher() {
     nohup "$0" "$user" "background_watcher" "$wait_until" "$now" "$project" > /dev/null 2>&1 &
 
     echo "OK:Restart requested for project '$project'. Proceeding in background."
+    cat "$STATUS_FILE"
 }
 
 # ============================================================================
@@ -408,6 +453,7 @@ add_rejection() {
 
         release_lock
         echo "OK:Rejected by $user. Previous restart for '$prev_project' continues."
+        cat "$STATUS_FILE"
 
         # Dupa 5s, restauram executing
         (
@@ -429,6 +475,7 @@ add_rejection() {
 
         release_lock
         echo "OK:Rejected by $user"
+        cat "$STATUS_FILE"
 
         (
             sleep 5
@@ -443,6 +490,76 @@ add_rejection() {
     fi
 }
 
+# ============================================================================
+# WATCH — stream NDJSON: o linie la fiecare schimbare a STATUS_FILE
+#
+# Prima linie e statusul curent. Fara schimbari, la fiecare WATCH_HEARTBEAT
+# secunde se trimite {"heartbeat": <ts>} — un client deconectat e detectat
+# la scriere (SIGPIPE) si procesul se termina. Dupa WATCH_MAX_SECONDS
+# stream-ul se inchide, clientul il redeschide.
+#
+# Cu inotifywait disponibil, asteptarea e pe evenimente; altfel STATUS_FILE
+# e recitit la 0.5s (citire builtin, fara grep/sed per iteratie).
+# ============================================================================
+
+watch_status() {
+    if [ ! -f "$STATUS_FILE" ]; then
+        init_status
+    fi
+
+    local use_inotify=0
+    if command -v inotifywait > /dev/null 2>&1; then
+        use_inotify=1
+    fi
+
+    local started=$SECONDS
+    local last_sent=$SECONDS
+    local last_content=""
+    local content
+
+    while [ $((SECONDS - started)) -lt $WATCH_MAX_SECONDS ]; do
+        content=""
+        [ -f "$STATUS_FILE" ] && content=$(< "$STATUS_FILE")
+
+        # Continut incomplet (scriere in curs) — asteptam urmatoarea iteratie
+        if [ -n "$content" ] && [[ "$content" == *"}" ]] && [ "$content" != "$last_content" ]; then
+            printf '%s\n' "${content//$'\n'/}" || exit 0
+            last_content="$content"
+            last_sent=$SECONDS
+        elif [ $((SECONDS - last_sent)) -ge $WATCH_HEARTBEAT ]; then
+            printf '{"heartbeat": %s}\n' "$(date +%s)" || exit 0
+            last_sent=$SECONDS
+        fi
+
+        if [ $use_inotify -eq 1 ]; then
+            inotifywait -qq -t "$WATCH_HEARTBEAT" -e close_write,moved_to,create "$SCRIPT_DIR" > /dev/null 2>&1
+            # 0 = eveniment, 2 = timeout; 1 = eroare (ex: limita de watch-uri) → fallback pe polling
+            [ $? -eq 1 ] && use_inotify=0 && sleep 0.5
+        else
+            sleep 0.5
+        fi
+    done
+}
+
+# ============================================================================
+# AGENT — request/reject sunt delegate agentului cand ruleaza, altfel starea
+# din memorie a agentului si cea scrisa de script ar diverge. get/watch citesc
+# STATUS_FILE, pe care agentul il tine la zi.
+# ============================================================================
+
+agent_running() {
+    [ -f "$AGENT_JAR" ] && [ -f "$AGENT_PID_FILE" ] && kill -0 "$(cat "$AGENT_PID_FILE" 2>/dev/null)" 2>/dev/null
+}
+
+# Exit 2 = agentul nu a raspuns → continuam cu logica scriptului
+delegate_to_agent() {
+    agent_running || return 0
+    java -jar "$AGENT_JAR" call --dir "$SCRIPT_DIR" "$APP_USERNAME" "$ACTION" "$1"
+    local rc=$?
+    [ $rc -ne 2 ] && exit $rc
+    echo "[$(date)] Agent did not answer, handling $ACTION in script" >> "$SCRIPT_DIR/restart.log"
+}
+
 # ============================================================================
 # MAIN
 # ============================================================================
@@ -462,10 +579,17 @@ case "$ACTION" in
         if [ ! -f "$STATUS_FILE" ]; then
             init_status
         fi
-        cat "$STATUS_FILE"
+        # get <version>: NOT_MODIFIED daca clientul are deja versiunea curenta
+        if [ -n "$3" ] && [ "$3" = "$(current_version)" ]; then
+            echo "NOT_MODIFIED"
+        else
+            cat "$STATUS_FILE"
+        fi
         ;;
 
     request)
+        delegate_to_agent "$3"
+
         if ! acquire_lock; then
             echo "ERROR:Could not acquire lock"
             exit 1
@@ -493,11 +617,16 @@ case "$ACTION" in
         ;;
 
     reject)
+        delegate_to_agent
         add_rejection "$APP_USERNAME"
         ;;
 
+    watch)
+        watch_status
+        ;;
+
     *)
-        echo "Usage: $0 <username> {get|check|request [project]|reject}"
+        echo "Usage: $0 <username> {get [version]|check|watch|request [project]|reject}"
         exit 1
         ;;
 esac
\ No newline at end of file
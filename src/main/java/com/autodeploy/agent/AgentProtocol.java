@@ -0,0 +1,46 @@
+package com.autodeploy.agent;
+
+/**
+ * Protocolul text al agentului de restart — linii UTF-8, câte o cerere per linie.
+ * <pre>
+ * → &lt;id&gt; GET [versiune]            ← &lt;id&gt; {json} | &lt;id&gt; NOT_MODIFIED
+ * → &lt;id&gt; REQUEST &lt;user&gt; [proiect]   ← &lt;id&gt; OK:...\t{json} | &lt;id&gt; ERROR:...
+ * → &lt;id&gt; REJECT &lt;user&gt;             ← &lt;id&gt; OK:...\t{json} | &lt;id&gt; ERROR:...
+ * → &lt;id&gt; WATCH                     ← &lt;id&gt; OK:watching, apoi "* {json}" la fiecare schimbare
+ * → &lt;id&gt; PING                      ← &lt;id&gt; PONG
+ * </pre>
+ * La conectare agentul trimite {@link #HELLO}. Răspunsurile au aceleași forme ca cele ale
+ * {@code restart_manager.sh} (JSON, {@code OK:}, {@code ERROR:}, {@code NOT_MODIFIED}), deci
+ * clientul le interpretează la fel indiferent de cine a răspuns. Scriptul trimite statusul nou
+ * pe linia de după {@code OK:}; aici, unde un răspuns e o singură linie, îl separă {@link #STATUS_SEPARATOR}.
+ * <p>
+ * Fără dependențe în afara JDK-ului — clasa e folosită și de agent, și de aplicația desktop.
+ */
+public final class AgentProtocol {
+
+    public static final String HELLO = "HELLO restart-agent 1";
+
+    public static final String GET = "GET";
+    public static final String REQUEST = "REQUEST";
+    public static final String REJECT = "REJECT";
+    public static final String WATCH = "WATCH";
+    public static final String PING = "PING";
+
+    public static final String PONG = "PONG";
+    public static final String NOT_MODIFIED = "NOT_MODIFIED";
+    public static final String WATCHING = "OK:watching";
+
+    /** Între mesajul {@code OK:} și statusul nou, în răspunsurile la REQUEST/REJECT. */
+    public static final char STATUS_SEPARATOR = '\t';
+
+    /** Prefixul liniilor de eveniment (status nou), trimise doar conexiunilor cu WATCH. */
+    public static final String EVENT_PREFIX = "* ";
+
+    /** Numele fișierelor agentului, în directorul scriptului de restart. */
+    public static final String JAR_NAME = "restart-agent.jar";
+    public static final String SOCKET_NAME = "restart-agent.sock";
+    public static final String PID_NAME = "restart-agent.pid";
+    public static final String CONFIG_NAME = "restart-agent.properties";
+
+    private AgentProtocol() {}
+}
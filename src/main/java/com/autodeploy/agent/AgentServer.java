@@ -0,0 +1,182 @@
+package com.autodeploy.agent;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Procesul rezident: ascultă pe un socket Unix din directorul scriptului și servește
+ * protocolul {@link AgentProtocol} fiecărei conexiuni, peste aceeași {@link AgentState}.
+ * <p>
+ * Clienții nu vorbesc direct cu socket-ul — {@code RestartAgent connect} face puntea
+ * stdin/stdout ↔ socket, deci un singur canal exec SSH ajunge la starea din memorie.
+ * Un thread per conexiune (sunt puține: câte una per client desktop).
+ */
+final class AgentServer {
+
+    private final AgentState state;
+    private final Path socketPath;
+    private final Path pidFile;
+
+    AgentServer(AgentState state, Path dir) {
+        this.state = state;
+        this.socketPath = dir.resolve(AgentProtocol.SOCKET_NAME);
+        this.pidFile = dir.resolve(AgentProtocol.PID_NAME);
+    }
+
+    /**
+     * Blochează până la oprirea procesului. Întoarce imediat dacă un alt agent ascultă deja
+     * sau dacă scriptul are încă o cerere/un restart în lucru ({@link ScriptActivity}).
+     * <p>
+     * Verificarea scriptului se repetă după scrierea pid-ului: din acel moment scriptul
+     * deleagă agentului, dar o invocare pornită chiar înainte poate fi încă în lucru.
+     * Starea scriptului e preluată ({@link AgentState#adoptPersistedState()}) abia după.
+     */
+    void serve() throws IOException, InterruptedException {
+        if (isAlreadyRunning()) {
+            state.log("Another agent is already listening on " + socketPath + ", exiting");
+            return;
+        }
+        if (refuseWhileScriptBusy()) return;
+
+        // Un socket rămas de la o instanță oprită brusc blochează bind-ul
+        Files.deleteIfExists(socketPath);
+
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+            Files.writeString(pidFile, ProcessHandle.current().pid() + "\n");
+            Runtime.getRuntime().addShutdownHook(new Thread(this::cleanup));
+            if (refuseWhileScriptBusy()) return;
+
+            state.adoptPersistedState();
+            state.log("Agent listening on " + socketPath);
+
+            while (true) {
+                SocketChannel client = server.accept();
+                Thread thread = new Thread(() -> handle(client), "RestartAgent-Client");
+                thread.setDaemon(true);
+                thread.start();
+            }
+        } finally {
+            cleanup();
+        }
+    }
+
+    private boolean refuseWhileScriptBusy() throws InterruptedException {
+        String activity = ScriptActivity.describe(socketPath.getParent());
+        if (activity == null) return false;
+        state.log("Script still owns the restart state (" + activity + "), not starting");
+        return true;
+    }
+
+    private boolean isAlreadyRunning() {
+        if (!Files.exists(socketPath)) return false;
+        try (SocketChannel probe = SocketChannel.open(StandardProtocolFamily.UNIX)) {
+            return probe.connect(UnixDomainSocketAddress.of(socketPath));
+        } catch (IOException stale) {
+            return false;
+        }
+    }
+
+    private void handle(SocketChannel channel) {
+        Consumer<String> watcher = null;
+        try (channel;
+             BufferedReader in = new BufferedReader(new InputStreamReader(
+                     Channels.newInputStream(channel), StandardCharsets.UTF_8))) {
+
+            Writer out = new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8);
+            send(out, AgentProtocol.HELLO);
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty()) continue;
+
+                String[] parts = line.split(" ", 3);
+                String id = parts[0];
+                String command = parts.length > 1 ? parts[1] : "";
+                String args = parts.length > 2 ? parts[2] : "";
+
+                if (AgentProtocol.WATCH.equals(command)) {
+                    if (watcher == null) {
+                        watcher = json -> sendQuietly(out, AgentProtocol.EVENT_PREFIX + json);
+                        state.addListener(watcher);
+                    }
+                    send(out, id + " " + AgentProtocol.WATCHING);
+                    send(out, AgentProtocol.EVENT_PREFIX + state.currentJson());
+                } else {
+                    send(out, id + " " + dispatch(command, args));
+                }
+            }
+        } catch (IOException e) {
+            // Client deconectat
+        } finally {
+            if (watcher != null) state.removeListener(watcher);
+        }
+    }
+
+    private String dispatch(String command, String args) {
+        return switch (command) {
+            case AgentProtocol.GET -> state.get(args.isBlank() ? null : args.strip());
+            case AgentProtocol.REQUEST -> {
+                String[] userAndProject = args.split(" ", 2);
+                if (userAndProject[0].isBlank()) yield "ERROR:Missing username";
+                yield state.request(userAndProject[0], userAndProject.length > 1 ? userAndProject[1] : null);
+            }
+            case AgentProtocol.REJECT -> args.isBlank()
+                    ? "ERROR:Missing username"
+                    : state.reject(args.split(" ", 2)[0]);
+            case AgentProtocol.PING -> AgentProtocol.PONG;
+            default -> "ERROR:Unknown command '" + command + "'";
+        };
+    }
+
+    /** Răspunsurile și evenimentele pot veni din thread-uri diferite — scrierea e serializată. */
+    private static void send(Writer out, String line) throws IOException {
+        synchronized (out) {
+            out.write(line);
+            out.write('\n');
+            out.flush();
+        }
+    }
+
+    private static void sendQuietly(Writer out, String line) {
+        try {
+            send(out, line);
+        } catch (IOException ignored) {
+            // Conexiunea se închide — thread-ul ei scoate listener-ul
+        }
+    }
+
+    private void cleanup() {
+        try {
+            Files.deleteIfExists(socketPath);
+            Files.deleteIfExists(pidFile);
+        } catch (IOException ignored) {
+            // Best-effort la oprire
+        }
+    }
+
+    /** Bridge-ul {@code connect}: copiază un stream în altul până la EOF. */
+    static void pump(InputStream from, OutputStream to) throws IOException {
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = from.read(buffer)) != -1) {
+            to.write(buffer, 0, n);
+            to.flush();
+        }
+    }
+}
@@ -0,0 +1,472 @@
+package com.autodeploy.agent;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starea de restart ținută în memorie — aceeași mașină de stări ca {@code restart_manager.sh}.
+ * <ul>
+ *   <li>{@code request} → pending; după timeout-ul de aprobare fără reject → executing,
+ *       iar comanda reală de restart rulează ca proces copil</li>
+ *   <li>La terminare → completed, apoi idle după {@value #SETTLE_SECONDS}s</li>
+ *   <li>{@code reject} pe pending → rejected; după {@value #SETTLE_SECONDS}s revine la idle,
+ *       sau la executing dacă un restart anterior rulează încă</li>
+ *   <li>Un request nou peste pending îl înlocuiește; peste executing pornește un restart nou,
+ *       iar cel vechi nu mai marchează completed când se termină</li>
+ * </ul>
+ * Fiecare tranziție scrie și {@code restart_status.json} / {@code active_restart.dat}, atomic
+ * (fișier temporar + rename) — clienții vechi, care citesc direct prin script, văd aceeași stare.
+ * <p>
+ * Starea lăsată de script e preluată abia din {@link #adoptPersistedState()}, după ce
+ * {@link AgentServer} a verificat că scriptul nu mai are procese active ({@link ScriptActivity}).
+ * <p>
+ * Toate metodele publice sunt sincronizate pe instanță; ascultătorii primesc JSON-ul
+ * nou în afara lock-ului, pe thread-ul care a produs tranziția.
+ */
+final class AgentState {
+
+    static final int SETTLE_SECONDS = 5;
+
+    private static final Pattern VERSION_FIELD = Pattern.compile("\"version\"\\s*:\\s*(\\d+)");
+    private static final Pattern REJECTED_BY = Pattern.compile(
+            "\"rejections\"\\s*:\\s*\\[\\s*\\{\\s*\"user\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    private final Path dir;
+    private final Path statusFile;
+    private final Path activeRestartFile;
+    private final Path logFile;
+    private final String restartCommand;
+    private final int approvalTimeoutSeconds;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "RestartAgent-Timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+    private String status = "idle";
+    private boolean inProgress;
+    private String requester = "null";
+    private String project;
+    private long requestedAt;
+    private long waitUntil;
+    private String rejectedBy;
+    private long rejectedAt;
+    private ActiveRestart active;
+
+    private long version;
+    private String json;
+    private ScheduledFuture<?> approvalTimer;
+
+    /** Restartul fizic în curs (echivalentul {@code active_restart.dat}). */
+    private record ActiveRestart(String requester, String project, long startedAt, long requestedAt) {}
+
+    AgentState(Path dir, String restartCommand, int approvalTimeoutSeconds) {
+        this.dir = dir;
+        this.statusFile = dir.resolve("restart_status.json");
+        this.activeRestartFile = dir.resolve("active_restart.dat");
+        this.logFile = dir.resolve("restart.log");
+        this.restartCommand = restartCommand;
+        this.approvalTimeoutSeconds = approvalTimeoutSeconds;
+    }
+
+    // ==================== COMENZI ====================
+
+    /** {@code get [versiune]}: JSON-ul curent, sau NOT_MODIFIED dacă clientul îl are deja. */
+    synchronized String get(String knownVersion) {
+        if (knownVersion != null && knownVersion.equals(Long.toString(version))) {
+            return AgentProtocol.NOT_MODIFIED;
+        }
+        return json;
+    }
+
+    /**
+     * {@code request}/{@code reject} răspund cu mesajul și statusul rezultat
+     * ({@link AgentProtocol#STATUS_SEPARATOR}) — clientul nu mai face un {@code get} separat.
+     */
+    String request(String user, String newProject) {
+        String projectName = newProject == null || newProject.isBlank() ? null : newProject;
+        String message;
+        synchronized (this) {
+            if ("pending".equals(status)) {
+                log("Overriding pending request, new request from " + user + " for " + projectName);
+            } else if ("executing".equals(status)) {
+                log("New request over executing restart, from " + user + " for " + projectName);
+            }
+            cancelApprovalTimer();
+
+            long now = nowSeconds();
+            long deadline = now + approvalTimeoutSeconds;
+            setStatus("pending", user, projectName, now, deadline, true);
+            approvalTimer = timer.schedule(() -> approve(now), approvalTimeoutSeconds, TimeUnit.SECONDS);
+            message = "OK:Restart requested for project '" + (projectName == null ? "" : projectName)
+                    + "'. Proceeding in background." + AgentProtocol.STATUS_SEPARATOR + json;
+        }
+        publish();
+        return message;
+    }
+
+    String reject(String user) {
+        String message;
+        synchronized (this) {
+            if (!"pending".equals(status)) {
+                return "ERROR:Restart is not pending (status: " + status + ")";
+            }
+            cancelApprovalTimer();
+
+            String pendingRequester = requester;
+            String pendingProject = project;
+            setStatus("rejected", pendingRequester, pendingProject, 0, 0, false, user);
+
+            if (active != null) {
+                ActiveRestart previous = active;
+                message = "OK:Rejected by " + user + ". Previous restart for '" + previous.project() + "' continues."
+                        + AgentProtocol.STATUS_SEPARATOR + json;
+                timer.schedule(() -> restoreAfterReject(previous), SETTLE_SECONDS, TimeUnit.SECONDS);
+            } else {
+                message = "OK:Rejected by " + user + AgentProtocol.STATUS_SEPARATOR + json;
+                timer.schedule(() -> settle("rejected"), SETTLE_SECONDS, TimeUnit.SECONDS);
+            }
+        }
+        publish();
+        return message;
+    }
+
+    void addListener(Consumer<String> listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(Consumer<String> listener) {
+        listeners.remove(listener);
+    }
+
+    synchronized String currentJson() {
+        return json;
+    }
+
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    // ==================== TRANZIȚII ====================
+
+    /** Timeout-ul de aprobare a expirat fără reject — pornește restartul. */
+    private void approve(long originalRequestedAt) {
+        ActiveRestart started;
+        synchronized (this) {
+            if (!"pending".equals(status) || requestedAt != originalRequestedAt) {
+                return;
+            }
+            started = new ActiveRestart(requester, project, nowSeconds(), requestedAt);
+            active = started;
+            writeActiveRestart();
+            setStatus("executing", requester, project, requestedAt, waitUntil, true);
+        }
+        publish();
+
+        Thread executor = new Thread(() -> execute(started), "RestartAgent-Executor");
+        executor.setDaemon(true);
+        executor.start();
+    }
+
+    private void execute(ActiveRestart restart) {
+        log("---------------------------------------------------");
+        log("EXECUTOR: Starting restart for project=" + restart.project() + " user=" + restart.requester()
+                + " req_at=" + restart.requestedAt());
+        log("Executing: " + restartCommand);
+        try {
+            Process process = new ProcessBuilder("/bin/sh", "-c", restartCommand)
+                    .directory(dir.toFile())
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile.toFile()))
+                    .redirectInput(ProcessBuilder.Redirect.from(new File("/dev/null")))
+                    .start();
+            log("Restart finished with exit code: " + process.waitFor());
+        } catch (IOException e) {
+            log("ERROR: Could not run restart command: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        synchronized (this) {
+            if (active == null || active.requestedAt() != restart.requestedAt()) {
+                log("EXECUTOR: A newer restart took over. Skipping completion.");
+                return;
+            }
+            active = null;
+            writeActiveRestart();
+            setStatus("completed", restart.requester(), restart.project(), restart.requestedAt(), 0, false);
+            log("EXECUTOR: Marked as completed for project=" + restart.project());
+            timer.schedule(() -> settle("completed"), SETTLE_SECONDS, TimeUnit.SECONDS);
+        }
+        publish();
+    }
+
+    /** Revine la idle dacă statusul e încă cel așteptat (nimic nou între timp). */
+    private void settle(String expectedStatus) {
+        synchronized (this) {
+            if (!expectedStatus.equals(status)) return;
+            setStatus("idle", "null", null, 0, 0, false);
+        }
+        publish();
+    }
+
+    private void restoreAfterReject(ActiveRestart previous) {
+        synchronized (this) {
+            if (!"rejected".equals(status) || active == null) return;
+            setStatus("executing", previous.requester(), previous.project(), previous.requestedAt(), 0, true);
+            log("Restored status to executing for active restart");
+        }
+        publish();
+    }
+
+    private void cancelApprovalTimer() {
+        if (approvalTimer != null) {
+            approvalTimer.cancel(false);
+            approvalTimer = null;
+        }
+    }
+
+    /** Schimbă statusul și îl persistă; apelat cu lock-ul ținut, urmat de {@link #publish()}. */
+    private void setStatus(String newStatus, String newRequester, String newProject,
+                           long newRequestedAt, long newWaitUntil, boolean newInProgress) {
+        setStatus(newStatus, newRequester, newProject, newRequestedAt, newWaitUntil, newInProgress, null);
+    }
+
+    private void setStatus(String newStatus, String newRequester, String newProject,
+                           long newRequestedAt, long newWaitUntil, boolean newInProgress, String rejectingUser) {
+        status = newStatus;
+        requester = newRequester;
+        project = newProject;
+        requestedAt = newRequestedAt;
+        waitUntil = newWaitUntil;
+        inProgress = newInProgress;
+        rejectedBy = rejectingUser;
+        rejectedAt = rejectingUser != null ? nowSeconds() : 0;
+        persist();
+    }
+
+    private void publish() {
+        String current = currentJson();
+        for (Consumer<String> listener : listeners) {
+            try {
+                listener.accept(current);
+            } catch (RuntimeException e) {
+                log("Listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // ==================== PERSISTENȚĂ ====================
+
+    /** Reconstruiește JSON-ul cu o versiune nouă și îl scrie pe disc. */
+    private void persist() {
+        long now = nowSeconds();
+        version = Math.max(now, version + 1);
+        json = toJson(now);
+        writeAtomically(statusFile, json + "\n");
+    }
+
+    private String toJson(long now) {
+        StringBuilder out = new StringBuilder(256);
+        out.append("{\"version\": ").append(version)
+                .append(", \"in_progress\": ").append(inProgress)
+                .append(", \"requester\": ").append(quote(requester))
+                .append(", \"project\": ").append(quoteOrNull(project))
+                .append(", \"requested_at\": ").append(numberOrNull(requestedAt))
+                .append(", \"wait_until\": ").append(numberOrNull(waitUntil))
+                .append(", \"status\": ").append(quote(status))
+                .append(", \"rejections\": [");
+        if (rejectedBy != null) {
+            out.append("{\"user\": ").append(quote(rejectedBy)).append(", \"timestamp\": ").append(rejectedAt).append('}');
+        }
+        out.append("], \"active_restart\": ");
+        if (active != null) {
+            out.append("{\"requester\": ").append(quote(active.requester()))
+                    .append(", \"project\": ").append(quoteOrNull(active.project()))
+                    .append(", \"started_at\": ").append(active.startedAt())
+                    .append(", \"requested_at\": ").append(active.requestedAt())
+                    .append('}');
+        } else {
+            out.append("null");
+        }
+        return out.append(", \"last_update\": ").append(now).append('}').toString();
+    }
+
+    private void writeActiveRestart() {
+        if (active == null) {
+            try {
+                Files.deleteIfExists(activeRestartFile);
+            } catch (IOException e) {
+                log("Could not delete " + activeRestartFile + ": " + e.getMessage());
+            }
+            return;
+        }
+        writeAtomically(activeRestartFile, active.requester() + "\n" + nullToEmpty(active.project()) + "\n"
+                + active.startedAt() + "\n" + active.requestedAt() + "\n");
+    }
+
+    private void writeAtomically(Path target, String content) {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.writeString(temp, content, StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log("Could not write " + target + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Preia starea lăsată de script (sau de o instanță anterioară). Apelat o singură dată,
+     * când niciun watcher/executor al scriptului nu mai rulează — deci nimic altceva nu va
+     * termina ce găsim:
+     * <ul>
+     *   <li>o cerere pending rămasă fără watcher e preluată, cu timer-ul de aprobare re-armat
+     *       pentru timpul rămas (aprobare imediată dacă termenul a trecut)</li>
+     *   <li>completed/rejected rămân vizibile și revin la idle după {@value #SETTLE_SECONDS}s</li>
+     *   <li>un {@code active_restart.dat} fără executor e orfan (executor oprit brusc) și e șters</li>
+     * </ul>
+     * Versiunile rămân strict crescătoare față de ce a scris scriptul.
+     */
+    void adoptPersistedState() {
+        String previous = "";
+        ActiveRestart leftover = null;
+        try {
+            if (Files.isRegularFile(statusFile)) {
+                previous = Files.readString(statusFile, StandardCharsets.UTF_8);
+            }
+            if (Files.isRegularFile(activeRestartFile)) {
+                List<String> lines = Files.readAllLines(activeRestartFile, StandardCharsets.UTF_8);
+                if (lines.size() >= 4 && !lines.get(2).isBlank() && !"0".equals(lines.get(2))) {
+                    leftover = new ActiveRestart(lines.get(0), emptyToNull(lines.get(1)),
+                            Long.parseLong(lines.get(2).trim()), Long.parseLong(lines.get(3).trim()));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            log("Could not load previous state: " + e.getMessage());
+        }
+
+        synchronized (this) {
+            Matcher versionMatcher = VERSION_FIELD.matcher(previous);
+            if (versionMatcher.find()) version = Long.parseLong(versionMatcher.group(1));
+
+            if (leftover != null) {
+                log("Clearing orphaned active restart for project=" + leftover.project()
+                        + " started_at=" + leftover.startedAt() + " (no executor running)");
+                writeActiveRestart();
+            }
+
+            // Câmpurile cererii; active_restart repetă requester/project/requested_at
+            int activeBlock = previous.indexOf("\"active_restart\"");
+            String request = activeBlock >= 0 ? previous.substring(0, activeBlock) : previous;
+            String previousStatus = stringField(request, "status");
+            String previousRequester = stringField(request, "requester");
+            String previousProject = emptyToNull(stringField(request, "project"));
+            long previousRequestedAt = longField(request, "requested_at");
+            long previousWaitUntil = longField(request, "wait_until");
+
+            if ("pending".equals(previousStatus) && previousRequestedAt > 0 && previousRequester != null) {
+                long delay = Math.max(0, previousWaitUntil - nowSeconds());
+                setStatus("pending", previousRequester, previousProject, previousRequestedAt,
+                        previousWaitUntil, true);
+                approvalTimer = timer.schedule(() -> approve(previousRequestedAt), delay, TimeUnit.SECONDS);
+                log("Adopted pending request from " + previousRequester + " for " + previousProject
+                        + ", approval in " + delay + "s");
+            } else if ("completed".equals(previousStatus) || "rejected".equals(previousStatus)) {
+                Matcher rejectedBy = REJECTED_BY.matcher(request);
+                setStatus(previousStatus, previousRequester != null ? previousRequester : "null", previousProject,
+                        previousRequestedAt, 0, false, rejectedBy.find() ? unescape(rejectedBy.group(1)) : null);
+                timer.schedule(() -> settle(previousStatus), SETTLE_SECONDS, TimeUnit.SECONDS);
+            } else {
+                setStatus("idle", "null", null, 0, 0, false);
+            }
+        }
+    }
+
+    /** Valoarea unui câmp string, {@code null} pentru null sau lipsă. */
+    private static String stringField(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\"\\s*:\\s*\"((?:[^\"\\\\]|\\\\.)*)\"").matcher(json);
+        return matcher.find() ? unescape(matcher.group(1)) : null;
+    }
+
+    /** Valoarea unui câmp numeric; 0 pentru null sau lipsă. */
+    private static long longField(String json, String name) {
+        Matcher matcher = Pattern.compile("\"" + name + "\"\\s*:\\s*(\\d+)").matcher(json);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private static String unescape(String value) {
+        return value.replace("\\\"", "\"").replace("\\\\", "\\");
+    }
+
+    void log(String message) {
+        try {
+            Files.writeString(logFile, "[" + LocalDateTime.now() + "] AGENT: " + message + "\n",
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ignored) {
+            // Log-ul e best-effort — starea contează, nu jurnalul
+        }
+    }
+
+    // ==================== JSON ====================
+
+    private static String quote(String value) {
+        StringBuilder out = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+                    else out.append(c);
+                }
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    private static String quoteOrNull(String value) {
+        return value == null ? "null" : quote(value);
+    }
+
+    private static String numberOrNull(long value) {
+        return value == 0 ? "null" : Long.toString(value);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() || "null".equals(value) ? null : value;
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
@@ -0,0 +1,237 @@
+package com.autodeploy.agent;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.StandardProtocolFamily;
+import java.net.URISyntaxException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Agentul rezident de coordonare a restarturilor — rulează pe server, lângă {@code restart_manager.sh}.
+ * <pre>
+ * java -jar restart-agent.jar serve   [--dir DIR]   procesul rezident (socket Unix în DIR)
+ * java -jar restart-agent.jar connect [--dir DIR]   punte stdin/stdout ↔ agent; îl pornește dacă lipsește
+ * java -jar restart-agent.jar call    [--dir DIR] &lt;user&gt; &lt;get|request|reject&gt; [arg]
+ * </pre>
+ * {@code DIR} implicit e directorul jar-ului. Setările opționale stau în
+ * {@value AgentProtocol#CONFIG_NAME} din același director: {@code restart.command} (implicit
+ * același script real ca {@code restart_manager.sh}) și {@code approval.timeout.seconds} (30).
+ * <p>
+ * Local, agentul se testează ca proces obișnuit, cu o comandă de restart falsă:
+ * <pre>
+ * echo 'restart.command=sleep 3' &gt; /tmp/agent/restart-agent.properties
+ * java -cp target/classes com.autodeploy.agent.RestartAgent connect --dir /tmp/agent
+ * 1 REQUEST alice demo
+ * 2 WATCH
+ * </pre>
+ */
+public final class RestartAgent {
+
+    static final String DEFAULT_RESTART_COMMAND =
+            "/beaadm/domain/h2o/12d/system/dINdomain/restartINServer.sh serverdIN1";
+    static final int DEFAULT_APPROVAL_TIMEOUT_SECONDS = 30;
+
+    /** Cât așteaptă {@code connect} ca un agent proaspăt pornit să deschidă socket-ul. */
+    private static final long SPAWN_WAIT_MS = 10_000;
+    private static final long SPAWN_POLL_MS = 100;
+    private static final String SETSID = "/usr/bin/setsid";
+
+    private RestartAgent() {}
+
+    public static void main(String[] args) throws Exception {
+        List<String> rest = new ArrayList<>(List.of(args));
+        if (rest.isEmpty()) usage();
+        String mode = rest.remove(0);
+
+        Path dir = defaultDir();
+        int dirIndex = rest.indexOf("--dir");
+        if (dirIndex >= 0 && dirIndex + 1 < rest.size()) {
+            dir = Path.of(rest.get(dirIndex + 1));
+            rest.remove(dirIndex + 1);
+            rest.remove(dirIndex);
+        }
+        dir = dir.toAbsolutePath().normalize();
+        Files.createDirectories(dir);
+
+        switch (mode) {
+            case "serve" -> serve(dir);
+            case "connect" -> connect(dir);
+            case "call" -> System.exit(call(dir, rest));
+            default -> usage();
+        }
+    }
+
+    private static void serve(Path dir) throws IOException, InterruptedException {
+        Properties config = loadConfig(dir);
+        String command = config.getProperty("restart.command", DEFAULT_RESTART_COMMAND);
+        int timeout = Integer.parseInt(config.getProperty("approval.timeout.seconds",
+                Integer.toString(DEFAULT_APPROVAL_TIMEOUT_SECONDS)).trim());
+
+        AgentState state = new AgentState(dir, command, timeout);
+        new AgentServer(state, dir).serve();
+    }
+
+    /**
+     * Puntea folosită de aplicația desktop: stdin → agent, agent → stdout.
+     * Se termină când oricare capăt închide conexiunea.
+     */
+    private static void connect(Path dir) throws Exception {
+        try (SocketChannel channel = openOrSpawn(dir)) {
+            InputStream fromAgent = Channels.newInputStream(channel);
+            OutputStream toAgent = Channels.newOutputStream(channel);
+
+            Thread upstream = new Thread(() -> {
+                try {
+                    AgentServer.pump(System.in, toAgent);
+                } catch (IOException ignored) {
+                    // Agentul a închis conexiunea
+                } finally {
+                    // EOF pe stdin (canalul SSH închis) — half-close: agentul trimite răspunsurile
+                    // rămase și închide conexiunea, iar bucla de jos se termină
+                    try {
+                        channel.shutdownOutput();
+                    } catch (IOException ignored) {
+                        // deja închis
+                    }
+                }
+            }, "RestartAgent-Upstream");
+            upstream.setDaemon(true);
+            upstream.start();
+
+            try {
+                AgentServer.pump(fromAgent, System.out);
+            } catch (IOException ignored) {
+                // Conexiune închisă de upstream
+            }
+        }
+    }
+
+    /** Un singur apel, pentru scripturi: tipărește răspunsul fără id. Cod de ieșire 2 = agent indisponibil. */
+    private static int call(Path dir, List<String> args) throws IOException {
+        if (args.size() < 2) usage();
+        String user = args.get(0);
+        String action = args.get(1);
+        String arg = args.size() > 2 ? String.join(" ", args.subList(2, args.size())) : "";
+
+        String request = switch (action) {
+            case "get", "check" -> AgentProtocol.GET + (arg.isEmpty() ? "" : " " + arg);
+            case "request" -> AgentProtocol.REQUEST + " " + user + (arg.isEmpty() ? "" : " " + arg);
+            case "reject" -> AgentProtocol.REJECT + " " + user;
+            default -> null;
+        };
+        if (request == null) usage();
+
+        SocketChannel channel;
+        try {
+            channel = open(dir);
+        } catch (IOException e) {
+            return 2;
+        }
+        try (channel;
+             Reader reader = Channels.newReader(channel, StandardCharsets.UTF_8);
+             BufferedReader in = new BufferedReader(reader)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            out.write(("1 " + request + "\n").getBytes(StandardCharsets.UTF_8));
+            out.flush();
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("1 ")) {
+                    // Ca scriptul: statusul pe linia de după mesaj
+                    System.out.println(line.substring(2).replace(AgentProtocol.STATUS_SEPARATOR, '\n'));
+                    return line.startsWith("1 ERROR:") ? 1 : 0;
+                }
+            }
+            return 2;
+        }
+    }
+
+    private static SocketChannel openOrSpawn(Path dir) throws IOException, InterruptedException {
+        try {
+            return open(dir);
+        } catch (IOException notRunning) {
+            spawn(dir);
+        }
+
+        long deadline = System.currentTimeMillis() + SPAWN_WAIT_MS;
+        while (true) {
+            try {
+                return open(dir);
+            } catch (IOException e) {
+                if (System.currentTimeMillis() > deadline) throw e;
+                Thread.sleep(SPAWN_POLL_MS);
+            }
+        }
+    }
+
+    private static SocketChannel open(Path dir) throws IOException {
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(dir.resolve(AgentProtocol.SOCKET_NAME)));
+            return channel;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Pornește {@code serve} detașat, cu același JVM și același classpath. Cu {@code setsid},
+     * agentul iese din grupul de procese al sesiunii SSH și supraviețuiește închiderii ei.
+     */
+    private static void spawn(Path dir) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>();
+        if (Files.isExecutable(Path.of(SETSID))) command.add(SETSID);
+        command.addAll(List.of(java, "-cp", classpath(), RestartAgent.class.getName(), "serve", "--dir", dir.toString()));
+
+        new ProcessBuilder(command)
+                .directory(dir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(dir.resolve("restart-agent.log").toFile()))
+                .redirectInput(ProcessBuilder.Redirect.from(new File("/dev/null")))
+                .start();
+    }
+
+    private static String classpath() {
+        try {
+            return Path.of(RestartAgent.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (URISyntaxException | SecurityException e) {
+            return System.getProperty("java.class.path");
+        }
+    }
+
+    private static Path defaultDir() {
+        Path location = Path.of(classpath());
+        return Files.isDirectory(location) ? location : location.toAbsolutePath().getParent();
+    }
+
+    private static Properties loadConfig(Path dir) throws IOException {
+        Properties config = new Properties();
+        Path file = dir.resolve(AgentProtocol.CONFIG_NAME);
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                config.load(reader);
+            }
+        }
+        return config;
+    }
+
+    private static void usage() {
+        System.err.println("Usage: java -jar " + AgentProtocol.JAR_NAME
+                + " {serve|connect|call <user> <get|request|reject> [arg]} [--dir DIR]");
+        System.exit(64);
+    }
+}
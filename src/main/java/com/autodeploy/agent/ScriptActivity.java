@@ -0,0 +1,88 @@
+package com.autodeploy.agent;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Detectează dacă {@code restart_manager.sh} lucrează încă în director: lock-ul ținut de un
+ * proces viu sau un watcher/executor {@code nohup} în viață.
+ * <p>
+ * Cât timp scriptul deține o cerere sau un restart, agentul nu pornește — starea lui din
+ * memorie ar concura cu procesele scriptului (aprobare dublă, "completed" suprascris).
+ * Clientul rămâne pe script și reîncearcă agentul mai târziu.
+ */
+final class ScriptActivity {
+
+    static final String LOCK_NAME = "restart_status.lock";
+
+    /** Lock-ul scriptului e ținut doar câteva zeci de ms — merită așteptat. */
+    private static final long LOCK_WAIT_MS = 5_000;
+    private static final long LOCK_POLL_MS = 100;
+
+    private static final List<String> BACKGROUND_ACTIONS = List.of("background_watcher", "background_executor");
+
+    private ScriptActivity() {}
+
+    /**
+     * @return descrierea activității găsite (pentru log), sau {@code null} dacă scriptul e inactiv
+     */
+    static String describe(Path dir) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + LOCK_WAIT_MS;
+        Long lockOwner;
+        while ((lockOwner = liveLockOwner(dir)) != null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(LOCK_POLL_MS);
+        }
+        if (lockOwner != null) {
+            return "script lock held by pid " + lockOwner;
+        }
+
+        return ProcessHandle.allProcesses()
+                .filter(process -> process.pid() != ProcessHandle.current().pid())
+                .map(process -> backgroundAction(process, dir))
+                .flatMap(Optional::stream)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static Long liveLockOwner(Path dir) {
+        Path lock = dir.resolve(LOCK_NAME);
+        try {
+            long pid = Long.parseLong(Files.readString(lock, StandardCharsets.UTF_8).trim());
+            return ProcessHandle.of(pid).filter(ProcessHandle::isAlive).isPresent() ? pid : null;
+        } catch (IOException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** "background_watcher pid 1234" dacă procesul e un watcher/executor al scriptului din {@code dir}. */
+    private static Optional<String> backgroundAction(ProcessHandle process, Path dir) {
+        String[] arguments = process.info().arguments().orElse(new String[0]);
+        for (int i = 0; i < arguments.length; i++) {
+            if (!BACKGROUND_ACTIONS.contains(arguments[i])) continue;
+            // nohup "$0" <user> <acțiune> — scriptul e cu două poziții înainte
+            if (i >= 2 && belongsTo(process, arguments[i - 2], dir)) {
+                return Optional.of(arguments[i] + " pid " + process.pid());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /** Un {@code $0} relativ e rezolvat față de directorul curent al procesului; necunoscut = da. */
+    private static boolean belongsTo(ProcessHandle process, String script, Path dir) {
+        Path scriptPath = Path.of(script);
+        if (!scriptPath.isAbsolute()) {
+            try {
+                scriptPath = Files.readSymbolicLink(Path.of("/proc", Long.toString(process.pid()), "cwd"))
+                        .resolve(scriptPath);
+            } catch (IOException | UnsupportedOperationException | SecurityException e) {
+                return true;
+            }
+        }
+        Path parent = scriptPath.toAbsolutePath().normalize().getParent();
+        return dir.equals(parent);
+    }
+}
@@ -1,6 +1,9 @@
 package com.autodeploy.core.config;
 
+import com.autodeploy.domain.model.UploadOrder;
+
 import java.io.*;
+import java.net.URI;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -45,6 +48,15 @@ public class ApplicationConfig {
         }
     }
 
+    private int getIntProperty(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            LOGGER.warning("Invalid value for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
     public void save() {
         try (OutputStream output = new FileOutputStream(CONFIG_FILE)) {
             properties.store(output, "Application Configuration");
@@ -83,6 +95,100 @@ public class ApplicationConfig {
         return "http://" + serverIp + (suffix.startsWith("/") ? suffix : "/" + suffix);
     }
 
+    /**
+     * Calea verificată după restart pentru a detecta când aplicația servește din nou
+     * (ex: un endpoint de health). Goală = URL-ul de browser ({@link #getFullBrowserUrl}).
+     */
+    public String getReadinessPath() {
+        return properties.getProperty("restart.readiness.path", "");
+    }
+
+    public void setReadinessPath(String path) {
+        properties.setProperty("restart.readiness.path", path);
+    }
+
+    public String getReadinessUrl(String serverIp) {
+        String path = getReadinessPath().trim();
+        if (path.isEmpty()) {
+            return getFullBrowserUrl(serverIp);
+        }
+        if (path.startsWith("http://") || path.startsWith("https://")) {
+            return path;
+        }
+        return "http://" + serverIp + (path.startsWith("/") ? path : "/" + path);
+    }
+
+    /** Probarea HTTP a aplicației după restart. Activată implicit. */
+    public boolean isReadinessProbeEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("restart.readiness.enabled", "true"));
+    }
+
+    public void setReadinessProbeEnabled(boolean enabled) {
+        properties.setProperty("restart.readiness.enabled", String.valueOf(enabled));
+    }
+
+    /**
+     * Deploy-urile doar cu JSP-uri nu mai propun restart (serverul le preia la cald), iar
+     * un restart cerut după ele trebuie confirmat explicit. Activat implicit.
+     */
+    public boolean isSkipRestartForJspOnly() {
+        return Boolean.parseBoolean(properties.getProperty("restart.skip.jsp.only", "true"));
+    }
+
+    public void setSkipRestartForJspOnly(boolean enabled) {
+        properties.setProperty("restart.skip.jsp.only", String.valueOf(enabled));
+    }
+
+    /**
+     * După un deploy doar cu JSP-uri, paginile uploadate sunt cerute prin HTTP ca serverul
+     * să le compileze înainte de prima deschidere în browser. Dezactivat implicit.
+     */
+    public boolean isJspWarmupEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("jsp.warmup.enabled", "false"));
+    }
+
+    public void setJspWarmupEnabled(boolean enabled) {
+        properties.setProperty("jsp.warmup.enabled", String.valueOf(enabled));
+    }
+
+    /**
+     * URL-ul care corespunde directorului remote al JSP-urilor (ex: "http://host:8080/app").
+     * Gol = directorul URL-ului aplicației ({@link #getReadinessUrl}, același pe care îl probează
+     * restartul): "http://host:8080/app/main?x" → "http://host:8080/app/" — păstrează portul
+     * și context path-ul.
+     */
+    public String getJspWarmupBaseUrl(String serverIp) {
+        String url = properties.getProperty("jsp.warmup.base.url", "").trim();
+        return url.isEmpty() ? parentUrl(getReadinessUrl(serverIp), serverIp) : url;
+    }
+
+    /** Scheme + host[:port] + calea până la ultimul '/' inclusiv; fără query. */
+    private static String parentUrl(String url, String serverIp) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getScheme() == null || uri.getRawAuthority() == null) {
+                return "http://" + serverIp;
+            }
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            return uri.getScheme() + "://" + uri.getRawAuthority() + path.substring(0, path.lastIndexOf('/') + 1);
+        } catch (IllegalArgumentException e) {
+            return "http://" + serverIp;
+        }
+    }
+
+    public void setJspWarmupBaseUrl(String url) {
+        properties.setProperty("jsp.warmup.base.url", url);
+    }
+
+    /** Câte pagini sunt cerute în paralel la warm-up. */
+    public int getJspWarmupConcurrency() {
+        return getIntProperty("jsp.warmup.concurrency", 4);
+    }
+
+    public void setJspWarmupConcurrency(int concurrency) {
+        properties.setProperty("jsp.warmup.concurrency", String.valueOf(concurrency));
+    }
+
     public String getLocalDownloadDir() {
         return properties.getProperty("download.local.dir",
                 System.getProperty("user.home") + "/Downloads");
@@ -100,6 +206,122 @@ public class ApplicationConfig {
         properties.setProperty("download.remote.log.path", path);
     }
 
+    /**
+     * Skip pentru fișierele identice cu cele de pe server (size + SHA-256 din manifestul remote).
+     * Activ implicit; se poate dezactiva dacă serverul nu are {@code sha256sum}.
+     */
+    public boolean isSkipUnchangedUploads() {
+        return Boolean.parseBoolean(properties.getProperty("upload.skip.unchanged", "true"));
+    }
+
+    public void setSkipUnchangedUploads(boolean enabled) {
+        properties.setProperty("upload.skip.unchanged", String.valueOf(enabled));
+    }
+
+    /**
+     * Upload diferențial pentru JAR-uri (doar intrările zip modificate, JAR-ul e reconstruit pe server).
+     * Dezactivat implicit — necesită {@code zip}/{@code unzip} pe server.
+     */
+    public boolean isJarDeltaUploads() {
+        return Boolean.parseBoolean(properties.getProperty("upload.jar.delta", "false"));
+    }
+
+    public void setJarDeltaUploads(boolean enabled) {
+        properties.setProperty("upload.jar.delta", String.valueOf(enabled));
+    }
+
+    /**
+     * Numărul minim de JSP-uri de la care upload-ul trece pe un singur stream tar
+     * (un exec în loc de un put per fișier). 0 = dezactivat.
+     */
+    public int getJspTarThreshold() {
+        return getIntProperty("upload.jsp.tar.threshold", 20);
+    }
+
+    public void setJspTarThreshold(int threshold) {
+        properties.setProperty("upload.jsp.tar.threshold", String.valueOf(threshold));
+    }
+
+    /**
+     * Upload în doi pași: toate fișierele într-un director de staging, apoi un singur
+     * commit (mv) în locul final. Dezactivat implicit.
+     */
+    public boolean isStagedUploads() {
+        return Boolean.parseBoolean(properties.getProperty("upload.staged", "false"));
+    }
+
+    public void setStagedUploads(boolean enabled) {
+        properties.setProperty("upload.staged", String.valueOf(enabled));
+    }
+
+    /**
+     * Directorul remote în care se creează staging-urile. Gol = directorul părinte al
+     * root-ului de upload (același filesystem, deci commit-ul e un rename). De setat când
+     * părintele e el însuși servit de serverul web (ex: appBase-ul Tomcat).
+     */
+    public String getUploadStagingDir() {
+        return properties.getProperty("upload.staging.dir", "").trim();
+    }
+
+    public void setUploadStagingDir(String dir) {
+        properties.setProperty("upload.staging.dir", dir);
+    }
+
+    /**
+     * Ordinea în care pornesc transferurile dintr-un batch (fișierele fixate sunt mereu primele).
+     * Implicit cele mai mici primele — JSP-urile nu mai așteaptă după JAR-uri mari.
+     */
+    public UploadOrder getUploadOrder() {
+        String value = properties.getProperty("upload.order", UploadOrder.SMALLEST_FIRST.name());
+        try {
+            return UploadOrder.valueOf(value.trim());
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning("Invalid value for upload.order, using " + UploadOrder.SMALLEST_FIRST.name());
+            return UploadOrder.SMALLEST_FIRST;
+        }
+    }
+
+    public void setUploadOrder(UploadOrder order) {
+        properties.setProperty("upload.order", order.name());
+    }
+
+    /**
+     * Build + deploy suprapuse: JAR-urile terminate de Ant sunt uploadate cât timp
+     * build-ul încă rulează. Dezactivat implicit.
+     */
+    public boolean isPipelinedBuildUpload() {
+        return Boolean.parseBoolean(properties.getProperty("build.pipelined.upload", "false"));
+    }
+
+    public void setPipelinedBuildUpload(boolean enabled) {
+        properties.setProperty("build.pipelined.upload", String.valueOf(enabled));
+    }
+
+    /**
+     * Comenzile SSH secvențiale rulează pe un shell de durată în loc de un canal exec
+     * per comandă. Dezactivat implicit; la orice problemă se revine automat la exec.
+     */
+    public boolean isPersistentShellEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("ssh.persistent.shell.enabled", "false"));
+    }
+
+    public void setPersistentShellEnabled(boolean enabled) {
+        properties.setProperty("ssh.persistent.shell.enabled", String.valueOf(enabled));
+    }
+
+    /**
+     * Comenzile și statusul de restart trec prin agentul rezident de pe server
+     * ({@code restart-agent.jar} lângă scriptul de restart). Dezactivat implicit;
+     * fără agent se folosește scriptul.
+     */
+    public boolean isRestartAgentEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("restart.agent.enabled", "false"));
+    }
+
+    public void setRestartAgentEnabled(boolean enabled) {
+        properties.setProperty("restart.agent.enabled", String.valueOf(enabled));
+    }
+
     public String getUsername() {
         return properties.getProperty("username", "");
     }
@@ -28,4 +28,13 @@ public final class StringUtils {
     public static String defaultIfEmpty(String value, String defaultValue) {
         return isEmpty(value) ? defaultValue : value;
     }
-}
\ No newline at end of file
+
+    /**
+     * Quote-uiește un argument pentru shell POSIX: {@code it's} → {@code 'it'\''s'}.
+     * Folosit la construirea comenzilor exec cu căi remote arbitrare.
+     */
+    public static String shellQuote(String value) {
+        if (value == null) return "''";
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+}
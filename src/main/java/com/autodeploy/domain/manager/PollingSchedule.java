@@ -0,0 +1,77 @@
+package com.autodeploy.domain.manager;
+
+import com.autodeploy.domain.model.RestartStatus;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Intervalul de polling al statusului de restart, în funcție de stare.
+ * <ul>
+ *   <li><b>Activ</b> (cerere pending/executing sau restart fizic în curs) — {@value #BUSY_INTERVAL_MS}ms;
+ *       {@value #BACKGROUND_BUSY_INTERVAL_MS}ms cu fereastra minimizată (notificările contează și atunci)</li>
+ *   <li><b>Idle</b> — pornește de la intervalul de bază și se dublează la fiecare poll fără schimbare,
+ *       până la {@value #IDLE_MAX_INTERVAL_MS}ms; o schimbare de status resetează back-off-ul</li>
+ *   <li><b>Idle + minimizat</b> — {@value #BACKGROUND_IDLE_INTERVAL_MS}ms</li>
+ * </ul>
+ * Fiecare interval primește un jitter aleator de ±{@value #JITTER_PERCENT}%: clienții unei echipe
+ * întregi, porniți aproape simultan, nu mai lovesc serverul în același moment.
+ * <p>
+ * Folosit dintr-un singur thread (bucla de polling); starea de fundal e volatilă.
+ */
+final class PollingSchedule {
+
+    static final long BUSY_INTERVAL_MS = 1_000;
+    static final long BACKGROUND_BUSY_INTERVAL_MS = 5_000;
+    static final long IDLE_MAX_INTERVAL_MS = 30_000;
+    static final long BACKGROUND_IDLE_INTERVAL_MS = 60_000;
+    static final int JITTER_PERCENT = 20;
+
+    private final long baseIntervalMs;
+    private long idleIntervalMs;
+    private volatile boolean background;
+
+    PollingSchedule(long baseIntervalMs) {
+        this.baseIntervalMs = baseIntervalMs;
+        this.idleIntervalMs = baseIntervalMs;
+    }
+
+    /**
+     * Intervalul până la următorul poll, cu jitter.
+     *
+     * @param status  ultimul status cunoscut (null = necunoscut, tratat ca idle)
+     * @param changed true dacă ultimul poll a adus o schimbare
+     */
+    long next(RestartStatus status, boolean changed) {
+        boolean busy = status != null && (status.isBusy() || status.hasActiveRestart());
+
+        long interval;
+        if (busy) {
+            idleIntervalMs = baseIntervalMs;
+            interval = background ? BACKGROUND_BUSY_INTERVAL_MS : BUSY_INTERVAL_MS;
+        } else if (background) {
+            interval = BACKGROUND_IDLE_INTERVAL_MS;
+        } else {
+            idleIntervalMs = changed ? baseIntervalMs : Math.min(idleIntervalMs * 2, IDLE_MAX_INTERVAL_MS);
+            interval = idleIntervalMs;
+        }
+        return withJitter(interval);
+    }
+
+    /** Intervalul de bază, cu jitter — după erori, unde starea nu e cunoscută. */
+    long afterError() {
+        return withJitter(baseIntervalMs);
+    }
+
+    void setBackground(boolean background) {
+        this.background = background;
+    }
+
+    boolean isBackground() {
+        return background;
+    }
+
+    private static long withJitter(long interval) {
+        long spread = interval * JITTER_PERCENT / 100;
+        return interval + ThreadLocalRandom.current().nextLong(-spread, spread + 1);
+    }
+}
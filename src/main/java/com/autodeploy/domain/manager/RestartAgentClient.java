@@ -0,0 +1,183 @@
+package com.autodeploy.domain.manager;
+
+import com.autodeploy.agent.AgentProtocol;
+import com.autodeploy.infrastructure.sftp.InteractiveCommand;
+import com.autodeploy.infrastructure.sftp.SftpManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.autodeploy.core.util.StringUtils.shellQuote;
+
+/**
+ * Clientul agentului de restart ({@link com.autodeploy.agent.RestartAgent}) — un singur canal
+ * exec de durată, peste care cererile circulă ca linii ({@link AgentProtocol}).
+ * <p>
+ * Canalul rulează {@code java -jar restart-agent.jar connect} în directorul scriptului de
+ * restart; puntea pornește agentul rezident dacă nu rulează. Lipsa jar-ului, un Java prea
+ * vechi pe server sau orice alt eșec se vede ca lipsa salutului {@link AgentProtocol#HELLO}
+ * — {@link #open} aruncă, iar {@link RestartManager} rămâne pe {@code restart_manager.sh}.
+ * <p>
+ * Răspunsurile sunt corelate prin id; evenimentele ({@code * {json}}, după {@code WATCH})
+ * ajung la {@code events} pe thread-ul de citire.
+ */
+final class RestartAgentClient implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(RestartAgentClient.class.getName());
+
+    /** Pornirea JVM-ului agentului (și, la nevoie, a procesului rezident) poate dura câteva secunde. */
+    private static final long HELLO_TIMEOUT_MS = 15_000;
+
+    private final InteractiveCommand channel;
+    private final BufferedReader in;
+    private final OutputStream out;
+    private final Consumer<String> events;
+
+    private final AtomicLong nextId = new AtomicLong();
+    private final Map<Long, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    /** Cererea nu a ajuns la agent — sigur de repetat prin script. */
+    static final class NotSentException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        NotSentException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private RestartAgentClient(InteractiveCommand channel, BufferedReader in, Consumer<String> events) {
+        this.channel = channel;
+        this.in = in;
+        this.out = channel.getOutputStream();
+        this.events = events;
+    }
+
+    /**
+     * Deschide canalul și așteaptă salutul agentului.
+     *
+     * @param agentDir directorul cu {@value AgentProtocol#JAR_NAME} (cel al scriptului de restart)
+     * @param events   primește JSON-ul fiecărui eveniment de status
+     * @throws IOException dacă agentul nu răspunde în {@value #HELLO_TIMEOUT_MS}ms
+     */
+    static RestartAgentClient open(SftpManager sftpManager, String agentDir, Consumer<String> events) throws Exception {
+        String command = "cd " + shellQuote(agentDir) + " && exec java -jar " + AgentProtocol.JAR_NAME + " connect";
+        InteractiveCommand channel = sftpManager.openInteractiveCommand(command);
+        BufferedReader in = new BufferedReader(new InputStreamReader(channel.getInputStream(), StandardCharsets.UTF_8));
+
+        CompletableFuture<String> hello = CompletableFuture.supplyAsync(() -> {
+            try {
+                return in.readLine();
+            } catch (IOException e) {
+                return null;
+            }
+        });
+        String greeting;
+        try {
+            greeting = hello.get(HELLO_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            greeting = null;
+        }
+        if (!AgentProtocol.HELLO.equals(greeting)) {
+            channel.close();
+            throw new IOException("Restart agent unavailable in " + agentDir
+                    + (greeting != null ? " (got: " + greeting + ")" : ""));
+        }
+
+        RestartAgentClient client = new RestartAgentClient(channel, in, events);
+        Thread reader = new Thread(client::readLoop, "RestartAgent-Reader");
+        reader.setDaemon(true);
+        reader.start();
+        return client;
+    }
+
+    /**
+     * Trimite o cerere și așteaptă răspunsul (fără id). Statusul atașat unui {@code OK:} e
+     * întors pe linia următoare, exact ca în output-ul scriptului.
+     *
+     * @throws NotSentException dacă cererea nu a putut fi scrisă
+     * @throws TimeoutException dacă agentul nu răspunde la timp (cererea poate să fi rulat)
+     */
+    String call(String request, long timeoutMs) throws Exception {
+        long id = nextId.incrementAndGet();
+        CompletableFuture<String> response = new CompletableFuture<>();
+        pending.put(id, response);
+        try {
+            try {
+                synchronized (out) {
+                    out.write((id + " " + request + "\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+            } catch (IOException e) {
+                close();
+                throw new NotSentException("Could not send to restart agent: " + e.getMessage(), e);
+            }
+
+            try {
+                return response.get(timeoutMs, TimeUnit.MILLISECONDS).replace(AgentProtocol.STATUS_SEPARATOR, '\n');
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        } finally {
+            pending.remove(id);
+        }
+    }
+
+    private void readLoop() {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith(AgentProtocol.EVENT_PREFIX)) {
+                    events.accept(line.substring(AgentProtocol.EVENT_PREFIX.length()));
+                    continue;
+                }
+                int space = line.indexOf(' ');
+                if (space <= 0) continue;
+                try {
+                    CompletableFuture<String> response = pending.get(Long.parseLong(line.substring(0, space)));
+                    if (response != null) response.complete(line.substring(space + 1));
+                } catch (NumberFormatException e) {
+                    LOGGER.fine("Unexpected line from restart agent: " + line);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Restart agent channel closed", e);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Error handling restart agent event", e);
+        } finally {
+            close();
+        }
+    }
+
+    boolean isOpen() {
+        return closed.getCount() > 0 && channel.isOpen();
+    }
+
+    /** Blochează până la închiderea canalului (agent oprit, sesiune pierdută, {@link #close()}). */
+    void awaitClosed() throws InterruptedException {
+        closed.await();
+    }
+
+    @Override
+    public void close() {
+        if (closed.getCount() == 0) return;
+        closed.countDown();
+        channel.close();
+        IOException error = new IOException("Restart agent connection closed");
+        pending.values().forEach(response -> response.completeExceptionally(error));
+    }
+}
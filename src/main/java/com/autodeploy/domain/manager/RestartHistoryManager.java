@@ -0,0 +1,131 @@
+package com.autodeploy.domain.manager;
+
+import com.autodeploy.domain.model.RestartRecord;
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * Istoricul local al restarturilor terminate și estimarea duratei următorului restart.
+ * <p>
+ * Estimarea = mediana ultimelor {@value #WINDOW_SIZE} restarturi pentru același server + proiect;
+ * cu mai puțin de {@value #MIN_SAMPLES} restarturi se folosesc toate restarturile serverului.
+ * Timpul până la "aplicația servește" are prioritate; durata scriptului e folosită doar când
+ * nu există destule restarturi cu probare HTTP.
+ * <p>
+ * Un restart e o regresie dacă durează cu peste {@value #REGRESSION_PERCENT}% mai mult decât estimarea.
+ */
+public class RestartHistoryManager extends JsonFileManager<RestartRecord> {
+
+    private static final String HISTORY_FILE = "restart-history.json";
+    private static RestartHistoryManager instance;
+
+    static final int MAX_RECORDS = 500;
+    static final int WINDOW_SIZE = 10;
+    static final int MIN_SAMPLES = 3;
+    public static final int REGRESSION_PERCENT = 30;
+
+    private RestartHistoryManager() {
+        super(HISTORY_FILE, new TypeReference<List<RestartRecord>>() {}, "restart record");
+    }
+
+    public static synchronized RestartHistoryManager getInstance() {
+        if (instance == null) {
+            instance = new RestartHistoryManager();
+        }
+        return instance;
+    }
+
+    @Override
+    protected boolean isValid(RestartRecord record) {
+        return record.isValid();
+    }
+
+    @Override
+    protected String getDisplayName(RestartRecord record) {
+        return record.toString();
+    }
+
+    @Override
+    protected void preserveId(RestartRecord oldRecord, RestartRecord newRecord) {
+        newRecord.setId(oldRecord.getId());
+    }
+
+    /**
+     * Salvează un restart terminat; același restart raportat a doua oară (altă fereastră
+     * a aceluiași server) e ignorat. Cele mai vechi intrări peste {@value #MAX_RECORDS} se șterg.
+     *
+     * @return false dacă restartul era deja în istoric
+     */
+    public synchronized boolean record(RestartRecord record) {
+        List<RestartRecord> records = getAll();
+        if (records.stream().anyMatch(record::isSameRestart)) {
+            return false;
+        }
+        for (int i = 0; i <= records.size() - MAX_RECORDS; i++) {
+            delete(records.get(i));
+        }
+        add(record);
+        return true;
+    }
+
+    /**
+     * Durata așteptată a unui restart (până la "aplicația servește", altfel durata scriptului).
+     *
+     * @return millis, -1 dacă istoricul nu are destule restarturi
+     */
+    public synchronized long getExpectedDurationMs(String serverHost, String project) {
+        long toReady = getMedianDurationMs(serverHost, project, true);
+        return toReady >= 0 ? toReady : getMedianDurationMs(serverHost, project, false);
+    }
+
+    /**
+     * Mediana ultimelor {@value #WINDOW_SIZE} durate cunoscute pentru server + proiect,
+     * cu fallback pe tot serverul.
+     *
+     * @param toReady true = timpul până la "aplicația servește", false = durata scriptului
+     * @return millis, -1 dacă nu există {@value #MIN_SAMPLES} durate
+     */
+    public synchronized long getMedianDurationMs(String serverHost, String project, boolean toReady) {
+        ToLongFunction<RestartRecord> metric = toReady
+                ? RestartRecord::getReadyDurationMs
+                : RestartRecord::getScriptDurationMs;
+
+        List<RestartRecord> records = getAll();
+        long median = median(recentDurations(records, serverHost, project, metric));
+        return median >= 0 ? median : median(recentDurations(records, serverHost, null, metric));
+    }
+
+    /** true dacă durata depășește estimarea cu peste {@value #REGRESSION_PERCENT}%. */
+    public static boolean isRegression(long durationMs, long expectedMs) {
+        return expectedMs > 0 && durationMs * 100 > expectedMs * (100L + REGRESSION_PERCENT);
+    }
+
+    /** Ultimele durate cunoscute, de la cel mai recent; {@code project == null} = orice proiect. */
+    private static List<Long> recentDurations(List<RestartRecord> records, String serverHost,
+                                              String project, ToLongFunction<RestartRecord> metric) {
+        List<Long> durations = new ArrayList<>();
+        for (int i = records.size() - 1; i >= 0 && durations.size() < WINDOW_SIZE; i--) {
+            RestartRecord record = records.get(i);
+            long duration = metric.applyAsLong(record);
+            if (duration < 0 || !Objects.equals(serverHost, record.getServerHost())) continue;
+            if (project != null && !project.equals(record.getProject())) continue;
+            durations.add(duration);
+        }
+        return durations;
+    }
+
+    private static long median(List<Long> durations) {
+        if (durations.size() < MIN_SAMPLES) return -1;
+        List<Long> sorted = new ArrayList<>(durations);
+        Collections.sort(sorted);
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1
+                ? sorted.get(middle)
+                : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+}
@@ -1,15 +1,25 @@
 package com.autodeploy.domain.manager;
 
+import com.autodeploy.agent.AgentProtocol;
 import com.autodeploy.domain.model.RestartStatus;
 import com.autodeploy.domain.model.Server;
 import com.autodeploy.infrastructure.connection.ConnectionManager;
+import com.autodeploy.infrastructure.sftp.CommandOptions;
+import com.autodeploy.infrastructure.sftp.CommandResult;
+import com.autodeploy.infrastructure.sftp.SftpManager;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import javafx.application.Platform;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -19,7 +29,14 @@ import java.util.logging.Logger;
  * Funcționalitate:
  * <ul>
  *   <li>Execută comenzi remote (request, reject, get status)</li>
- *   <li>Polling periodic cu circuit-breaker (se oprește după N erori consecutive)</li>
+ *   <li>Urmărește statusul prin stream-ul {@code watch} al scriptului (NDJSON, o linie per
+ *       schimbare) — un singur canal exec deschis, latență sub o secundă</li>
+ *   <li>Fallback automat pe polling adaptiv ({@link PollingSchedule}: rapid cât o cerere e activă,
+ *       back-off când e idle sau fereastra e minimizată, cu jitter) și circuit-breaker
+ *       (se oprește după N erori consecutive) dacă scriptul nu suportă {@code watch}</li>
+ *   <li>Cu agentul de restart activ ({@link #setAgentEnabled}), comenzile și stream-ul de status
+ *       trec printr-un singur canal spre agentul rezident de pe server ({@link RestartAgentClient});
+ *       scriptul rămâne fallback când agentul lipsește sau cade</li>
  *   <li>Notifică listener-ii pe JavaFX Application Thread la schimbări de status</li>
  * </ul>
  */
@@ -30,36 +47,99 @@ public class RestartManager {
     private static final ObjectMapper MAPPER = new ObjectMapper()
             .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
-    /**
-     * Delay între scrierea fișierului de status pe server și citirea lui.
-     * Necesar deoarece scriptul bash scrie asincron pe filesystem.
-     */
-    private static final int STATUS_FETCH_DELAY_MS = 200;
-
     /**
      * Numărul maxim de erori consecutive de polling înainte de oprire automată.
      * Previne logging infinit pe o conexiune moartă.
      */
     private static final int MAX_CONSECUTIVE_ERRORS = 5;
 
+    /** Pauza înainte de redeschiderea unui stream {@code watch} închis (durată maximă, reconectare). */
+    private static final int WATCH_RETRY_DELAY_MS = 1_000;
+
+    /** Stream-uri {@code watch} consecutive fără niciun status primit, după care trecem pe polling. */
+    private static final int MAX_WATCH_FAILURES = 3;
+
+    /** Răspunsul la {@code get <versiune>} când statusul nu s-a schimbat. */
+    private static final String NOT_MODIFIED = "NOT_MODIFIED";
+
+    /** Linia de heartbeat a stream-ului {@code watch} — nu e un status. */
+    private static final String HEARTBEAT_PREFIX = "{\"heartbeat\"";
+
+    /** Cât așteptăm răspunsul agentului la o cerere. */
+    private static final long AGENT_CALL_TIMEOUT_MS = 10_000;
+
+    /** După ce agentul nu a putut fi pornit/contactat, scriptul e folosit cel puțin atât. */
+    private static final long AGENT_RETRY_DELAY_MS = 5 * 60_000;
+
+    /** Rezultatul unui stream de status (script sau agent). */
+    private enum WatchOutcome { RECEIVED, FAILED, UNSUPPORTED, INTERRUPTED }
+
     private final Server server;
-    private final ConnectionManager connectionManager;
+    /** Sesiunea pe care rulează comenzile — cerută la fiecare comandă (se schimbă la reconectare). */
+    private final Supplier<SftpManager> sftpManagerSupplier;
     private final String currentUsername;
+    /** Trezește poller-ul extern (ex: {@link RestartStatusHub}) după request/reject. */
+    private volatile Runnable pollTrigger;
 
-    private RestartStatus lastStatus;
+    private volatile RestartStatus lastStatus;
     private Thread pollingThread;
     private volatile boolean polling = false;
+    private volatile CompletableFuture<CommandResult> watchStream;
+    /** false după ce scriptul s-a dovedit fără {@code watch} — restul sesiunii folosește polling. */
+    private volatile boolean watchSupported = true;
+
+    private volatile boolean agentEnabled;
+    private volatile RestartAgentClient agent;
+    private volatile long agentRetryAt;
+    /** true cât timp statusul vine prin {@code WATCH} pe canalul agentului. */
+    private volatile boolean agentWatching;
+
+    private volatile PollingSchedule schedule = new PollingSchedule(PollingSchedule.BUSY_INTERVAL_MS);
+    private volatile boolean background;
+    /** Trezește bucla de polling înainte de termen (fereastră restaurată, cerere trimisă). */
+    private final Semaphore wakeup = new Semaphore(0);
+
+    private volatile long currentIntervalMs = -1;
+    private volatile long lastPollRttMs = -1;
+    private volatile double averagePollRttMs = -1;
     private final List<Consumer<RestartStatus>> listeners = new CopyOnWriteArrayList<>();
 
     public RestartManager(Server server, ConnectionManager connectionManager, String currentUsername) {
+        this(server, connectionManager::getSftpManager, currentUsername);
+    }
+
+    /**
+     * @param sftpManagerSupplier apelat la fiecare comandă — permite rularea peste conexiunea
+     *                            oricărei ferestre conectate la server
+     */
+    public RestartManager(Server server, Supplier<SftpManager> sftpManagerSupplier, String currentUsername) {
         this.server = server;
-        this.connectionManager = connectionManager;
+        this.sftpManagerSupplier = sftpManagerSupplier;
         this.currentUsername = currentUsername;
     }
 
+    /**
+     * Statusul curent. Dacă serverul răspunde {@value #NOT_MODIFIED} (versiunea nu s-a
+     * schimbat de la ultimul status văzut), întoarce ultimul status fără să mai parseze nimic.
+     */
     public RestartStatus getStatus() throws Exception {
-        String command = buildCommand("get");
-        String output = executeCommand(command);
+        RestartStatus known = lastStatus;
+        RestartStatus fetched = fetchStatusIfModified(known);
+        return fetched != null ? fetched : known;
+    }
+
+    /**
+     * {@code get <versiune>}: serverul trimite JSON-ul complet doar dacă versiunea s-a schimbat.
+     * Scripturile vechi ignoră argumentul și trimit mereu JSON — comportamentul de dinainte.
+     *
+     * @return statusul nou, sau null dacă e neschimbat față de {@code known} (sau răspuns invalid)
+     */
+    private RestartStatus fetchStatusIfModified(RestartStatus known) throws Exception {
+        String version = known != null && known.getVersion() > 0 ? " " + known.getVersion() : "";
+        String output = runAction(AgentProtocol.GET + version, buildCommand("get") + version, true);
+        if (output != null && NOT_MODIFIED.equals(output.trim())) {
+            return null;
+        }
         return parseStatusResponse(output);
     }
 
@@ -69,63 +149,315 @@ public class RestartManager {
                 server.getRestartManagerScript(), currentUsername, safeProjectName);
 
         LOGGER.info("Executing restart request command");
-        String output = executeCommand(command);
+        String output = runAction(AgentProtocol.REQUEST + " " + currentUsername + " " + safeProjectName, command, false);
 
-        return handleCommandResponse(output);
+        RestartStatus status = handleCommandResponse(output);
+        publishFromCommand(status);
+        pollNow();
+        return status;
     }
 
     public RestartStatus rejectRestart() throws Exception {
         String command = buildCommand("reject");
 
         LOGGER.info("Executing reject command");
-        String output = executeCommand(command);
+        String output = runAction(AgentProtocol.REJECT + " " + currentUsername, command, false);
 
-        if (output != null && output.startsWith("ERROR:")) {
-            throw new RuntimeException(output.replace("ERROR:", "").trim());
-        }
+        RestartStatus status = handleCommandResponse(output);
+        publishFromCommand(status);
+        pollNow();
+        return status;
+    }
 
-        LOGGER.info("Reject executed, refreshing status...");
-        Thread.sleep(STATUS_FETCH_DELAY_MS);
-        return getStatus();
+    /**
+     * Statusul din răspunsul unui request/reject e afișat imediat, fără să așteptăm poller-ul —
+     * doar dacă nu e mai vechi decât cel deja primit (stream-ul poate să fi livrat deja unul mai nou).
+     */
+    private void publishFromCommand(RestartStatus status) {
+        if (status == null) return;
+        RestartStatus known = lastStatus;
+        if (known != null && status.getVersion() > 0 && status.getVersion() < known.getVersion()) return;
+        publishIfChanged(status);
     }
 
+    /**
+     * Pornește urmărirea statusului: stream {@code watch} dacă scriptul îl suportă,
+     * altfel polling adaptiv cu {@code intervalMs} ca interval de bază când serverul e idle.
+     */
     public void startPolling(int intervalMs) {
         if (polling) return;
 
+        PollingSchedule newSchedule = new PollingSchedule(intervalMs);
+        newSchedule.setBackground(background);
+        schedule = newSchedule;
+        wakeup.drainPermits();
+
         polling = true;
-        pollingThread = new Thread(() -> pollLoop(intervalMs), "RestartManager-Polling");
+        pollingThread = new Thread(() -> {
+            if (watchSupported || agentEnabled) watchLoop();
+            if (polling) pollLoop();
+        }, "RestartManager-Polling");
         pollingThread.setDaemon(true);
         pollingThread.start();
     }
 
     public void stopPolling() {
         polling = false;
+        currentIntervalMs = -1;
+        CompletableFuture<CommandResult> stream = watchStream;
+        if (stream != null) {
+            stream.cancel(true);
+        }
+        closeAgent();
         if (pollingThread != null) {
             pollingThread.interrupt();
             pollingThread = null;
         }
     }
 
+    /**
+     * Consumă stream-ul de status: {@code WATCH} pe canalul agentului dacă e disponibil, altfel
+     * {@code watch} al scriptului. Fiecare linie e un status complet, emis doar la schimbare.
+     * Un stream închis după ce a livrat statusuri (durată maximă, reconectare) e redeschis.
+     * Un script fără {@code watch} → polling pentru restul sesiunii (dacă nici agentul nu e disponibil);
+     * {@value #MAX_WATCH_FAILURES} stream-uri consecutive eșuate → polling până la următorul start.
+     */
+    private void watchLoop() {
+        int failures = 0;
+
+        while (polling && failures < MAX_WATCH_FAILURES) {
+            RestartAgentClient client = agent();
+            WatchOutcome outcome;
+            if (client != null) {
+                outcome = watchOverAgent(client);
+            } else if (watchSupported) {
+                outcome = watchOverScript();
+            } else {
+                return;
+            }
+
+            switch (outcome) {
+                case RECEIVED -> failures = 0;
+                case FAILED -> failures++;
+                case UNSUPPORTED -> {
+                    watchSupported = false;
+                    LOGGER.info("Restart script has no 'watch' action, falling back to polling");
+                    continue;
+                }
+                case INTERRUPTED -> {
+                    return;
+                }
+            }
+            if (!sleepQuietly(WATCH_RETRY_DELAY_MS)) return;
+        }
+
+        if (polling) {
+            LOGGER.info("Status watch unavailable, falling back to polling until the next start");
+        }
+    }
+
+    private WatchOutcome watchOverScript() {
+        AtomicBoolean received = new AtomicBoolean(false);
+        CompletableFuture<CommandResult> stream;
+        try {
+            stream = sftpManagerSupplier.get().executeAsync(buildCommand("watch"),
+                    CommandOptions.defaults()
+                            .withTimeout(null)
+                            .withMaxOutputBytes(4096)
+                            .withStdoutLines(line -> {
+                                if (onWatchLine(line)) received.set(true);
+                            }));
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Could not open status watch", e);
+            return WatchOutcome.FAILED;
+        }
+
+        watchStream = stream;
+        try {
+            stream.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stream.cancel(true);
+            return WatchOutcome.INTERRUPTED;
+        } catch (ExecutionException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Status watch ended with error", e);
+        } finally {
+            watchStream = null;
+        }
+
+        if (received.get()) return WatchOutcome.RECEIVED;
+        return isUnsupportedWatch(stream) ? WatchOutcome.UNSUPPORTED : WatchOutcome.FAILED;
+    }
+
+    /**
+     * {@code WATCH} pe canalul agentului: statusul curent vine imediat, apoi câte un eveniment
+     * per schimbare ({@link #onAgentEvent}). Blochează până se închide canalul.
+     */
+    private WatchOutcome watchOverAgent(RestartAgentClient client) {
+        agentWatching = true;
+        try {
+            String response = client.call(AgentProtocol.WATCH, AGENT_CALL_TIMEOUT_MS);
+            if (!AgentProtocol.WATCHING.equals(response)) {
+                LOGGER.fine("Unexpected WATCH response from restart agent: " + response);
+                return WatchOutcome.FAILED;
+            }
+            client.awaitClosed();
+            return WatchOutcome.RECEIVED;
+        } catch (InterruptedException e) {
+            // stopPolling — canalul deschis chiar atunci nu mai are cine să-l închidă
+            Thread.currentThread().interrupt();
+            dropAgent(client);
+            return WatchOutcome.INTERRUPTED;
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Restart agent watch failed", e);
+            dropAgent(client);
+            return WatchOutcome.FAILED;
+        } finally {
+            agentWatching = false;
+        }
+    }
+
+    private void onAgentEvent(String json) {
+        onWatchLine(json);
+    }
+
+    /** @return true dacă linia a fost un mesaj valid al stream-ului (status sau heartbeat). */
+    private boolean onWatchLine(String line) {
+        String trimmed = line.trim();
+        if (trimmed.startsWith(HEARTBEAT_PREFIX)) return true;
+
+        RestartStatus status = parseStatusResponse(trimmed);
+        if (status == null) return false;
+
+        publishIfChanged(status);
+        return true;
+    }
+
+    /** Scriptul fără {@code watch} răspunde cu "Usage: ..." și exit code 1. */
+    private static boolean isUnsupportedWatch(CompletableFuture<CommandResult> stream) {
+        CommandResult result = stream.getNow(null);
+        return result != null && result.getExitCode() != 0;
+    }
+
+    /**
+     * Reține mereu ultimul status (și versiunea lui); notifică doar la schimbări efective.
+     *
+     * @return true dacă statusul s-a schimbat
+     */
+    private boolean publishIfChanged(RestartStatus newStatus) {
+        RestartStatus previous = lastStatus;
+        lastStatus = newStatus;
+        if (!newStatus.hasChangedFrom(previous)) return false;
+
+        Platform.runLater(() -> notifyListeners(newStatus));
+        return true;
+    }
+
+    /**
+     * Cere un poll imediat — bucla proprie și, dacă există, poller-ul extern
+     * ({@link #setPollTrigger}). Apelat după request/reject.
+     */
+    public void pollNow() {
+        wakeup.release();
+        Runnable trigger = pollTrigger;
+        if (trigger != null) trigger.run();
+    }
+
+    /** Pentru instanțele fără polling propriu, al căror status vine din {@link RestartStatusHub}. */
+    public void setPollTrigger(Runnable pollTrigger) {
+        this.pollTrigger = pollTrigger;
+    }
+
+    /**
+     * Primește un status obținut de altcineva (hub-ul partajat) și îl tratează ca pe unul
+     * propriu: îl reține (inclusiv versiunea) și notifică listener-ii dacă s-a schimbat.
+     * Apelat pe FX thread — listener-ii sunt notificați sincron.
+     */
+    public void acceptStatus(RestartStatus status) {
+        if (status == null) return;
+        RestartStatus previous = lastStatus;
+        lastStatus = status;
+        if (status.hasChangedFrom(previous)) {
+            notifyListeners(status);
+        }
+    }
+
+    /** Așteaptă intervalul sau o trezire explicită ({@link #setBackground}, request/reject). */
+    private void awaitNextPoll(long intervalMs) throws InterruptedException {
+        currentIntervalMs = intervalMs;
+        if (wakeup.tryAcquire(intervalMs, TimeUnit.MILLISECONDS)) {
+            wakeup.drainPermits();
+        }
+    }
+
+    /** Media exponențială (α = 0.2) a RTT-ului — netezește vârfurile izolate. */
+    private void recordPollRtt(long rttMs) {
+        lastPollRttMs = rttMs;
+        double average = averagePollRttMs;
+        averagePollRttMs = average < 0 ? rttMs : average * 0.8 + rttMs * 0.2;
+    }
+
+    /**
+     * Fereastra e minimizată: polling-ul idle trece la intervalul de fundal.
+     * La restaurare, următorul poll are loc imediat.
+     */
+    public void setBackground(boolean background) {
+        this.background = background;
+        schedule.setBackground(background);
+        if (!background) {
+            wakeup.release();
+        }
+    }
+
+    /** true cât timp statusul vine prin stream-ul {@code watch} (fără polling). */
+    public boolean isStreaming() {
+        return watchStream != null || agentWatching;
+    }
+
+    /** Intervalul curent de polling (cu jitter), -1 dacă nu se face polling. */
+    public long getCurrentPollIntervalMs() {
+        return isStreaming() ? -1 : currentIntervalMs;
+    }
+
+    /** Durata ultimului poll (comandă {@code get} completă), -1 dacă nu există. */
+    public long getLastPollRttMs() {
+        return lastPollRttMs;
+    }
+
+    /** RTT mediu al poll-urilor, -1 dacă nu există. */
+    public double getAveragePollRttMs() {
+        return averagePollRttMs;
+    }
+
+    private static boolean sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
     /**
      * Polling loop cu circuit-breaker: se oprește automat după
      * {@link #MAX_CONSECUTIVE_ERRORS} erori consecutive.
      * Notifică listener-ii doar la schimbări efective de status.
      */
-    private void pollLoop(int intervalMs) {
+    private void pollLoop() {
         int consecutiveErrors = 0;
 
         while (polling) {
             try {
-                RestartStatus newStatus = getStatus();
+                long start = System.nanoTime();
+                // NOT_MODIFIED → null: fără parsare și fără detecție de schimbări
+                RestartStatus newStatus = fetchStatusIfModified(lastStatus);
+                recordPollRtt(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
 
-                if (newStatus != null && newStatus.hasChangedFrom(lastStatus)) {
-                    final RestartStatus statusToNotify = newStatus;
-                    Platform.runLater(() -> notifyListeners(statusToNotify));
-                    lastStatus = newStatus;
-                }
+                boolean changed = newStatus != null && publishIfChanged(newStatus);
 
                 consecutiveErrors = 0;
-                Thread.sleep(intervalMs);
+                awaitNextPoll(schedule.next(lastStatus, changed));
 
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -143,7 +475,7 @@ public class RestartManager {
                         + "/" + MAX_CONSECUTIVE_ERRORS + ")", e);
 
                 try {
-                    Thread.sleep(intervalMs);
+                    awaitNextPoll(schedule.afterError());
                 } catch (InterruptedException ie) {
                     Thread.currentThread().interrupt();
                     break;
@@ -171,7 +503,80 @@ public class RestartManager {
     }
 
     private String executeCommand(String command) throws Exception {
-        return connectionManager.getSftpManager().executeCommand(command);
+        return sftpManagerSupplier.get().executeCommand(command);
+    }
+
+    /**
+     * Rulează o acțiune prin agent dacă e disponibil, altfel prin script. Răspunsurile au
+     * aceeași formă în ambele cazuri. O cerere care a ajuns la agent dar a eșuat (timeout,
+     * canal căzut) e repetată prin script doar dacă e {@code idempotent} — un request/reject
+     * poate să fi rulat deja.
+     */
+    private String runAction(String agentRequest, String scriptCommand, boolean idempotent) throws Exception {
+        RestartAgentClient client = agent();
+        if (client != null) {
+            try {
+                return client.call(agentRequest, AGENT_CALL_TIMEOUT_MS);
+            } catch (RestartAgentClient.NotSentException e) {
+                LOGGER.fine("Restart agent channel lost, using script: " + e.getMessage());
+                dropAgent(client);
+            } catch (Exception e) {
+                dropAgent(client);
+                if (!idempotent) throw e;
+                LOGGER.log(Level.FINE, "Restart agent call failed, using script", e);
+            }
+        }
+        return executeCommand(scriptCommand);
+    }
+
+    /**
+     * Agentul de restart rezident (dezactivat implicit). Fără jar-ul agentului pe server,
+     * sau cu un Java prea vechi acolo, managerul rămâne pe script și reîncearcă rar.
+     */
+    public void setAgentEnabled(boolean enabled) {
+        this.agentEnabled = enabled;
+        if (!enabled) closeAgent();
+    }
+
+    /** Canalul spre agent, deschis la nevoie; null dacă agentul e dezactivat sau indisponibil. */
+    private synchronized RestartAgentClient agent() {
+        if (!agentEnabled) return null;
+
+        RestartAgentClient current = agent;
+        if (current != null && current.isOpen()) return current;
+        agent = null;
+        if (System.currentTimeMillis() < agentRetryAt) return null;
+
+        try {
+            current = RestartAgentClient.open(sftpManagerSupplier.get(), agentDirectory(), this::onAgentEvent);
+            agent = current;
+            LOGGER.info("Connected to restart agent on " + server.getHost());
+            return current;
+        } catch (Exception e) {
+            agentRetryAt = System.currentTimeMillis() + AGENT_RETRY_DELAY_MS;
+            LOGGER.info("Restart agent unavailable on " + server.getHost() + ", using restart script: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Nesincronizate: pot fi apelate de pe FX thread cât {@link #agent()} așteaptă un agent lent. */
+    private void dropAgent(RestartAgentClient client) {
+        client.close();
+        if (agent == client) agent = null;
+    }
+
+    private void closeAgent() {
+        RestartAgentClient current = agent;
+        agent = null;
+        if (current != null) current.close();
+    }
+
+    /** Agentul stă lângă scriptul de restart ({@value AgentProtocol#JAR_NAME} în același director). */
+    private String agentDirectory() {
+        String script = server.getRestartManagerScript();
+        int slash = script.lastIndexOf('/');
+        if (slash > 0) return script.substring(0, slash);
+        return slash == 0 ? "/" : ".";
     }
 
     private String buildCommand(String action) {
@@ -205,18 +610,20 @@ public class RestartManager {
 
     /**
      * Procesează răspunsul de la comenzile request/reject.
-     * Protocolul cu scriptul bash:
+     * Protocolul cu scriptul bash (și cu agentul):
      * <ul>
      *   <li>"ERROR: ..." → excepție</li>
-     *   <li>"OK: ..." → comandă acceptată, fetch status actualizat</li>
+     *   <li>"OK: ..." urmat, pe liniile următoare, de statusul nou (JSON) → parsare directă;
+     *       scripturile vechi trimit doar linia OK → un {@code get}</li>
      *   <li>JSON → parsare directă</li>
      *   <li>Altceva / gol → fallback pe getStatus()</li>
      * </ul>
+     * Scriptul scrie statusul atomic (fișier temporar + mv) și răspunde abia după scriere,
+     * deci nu mai e nevoie de nicio pauză înainte de citire.
      */
     private RestartStatus handleCommandResponse(String output) throws Exception {
         if (output == null || output.trim().isEmpty()) {
-            LOGGER.info("Empty response from request, fetching status...");
-            Thread.sleep(STATUS_FETCH_DELAY_MS);
+            LOGGER.info("Empty response from restart script, fetching status...");
             return getStatus();
         }
 
@@ -227,9 +634,12 @@ public class RestartManager {
         }
 
         if (trimmed.startsWith("OK:")) {
-            LOGGER.info("Request acknowledged: " + trimmed);
-            Thread.sleep(STATUS_FETCH_DELAY_MS);
-            return getStatus();
+            int lineEnd = trimmed.indexOf('\n');
+            String message = lineEnd < 0 ? trimmed : trimmed.substring(0, lineEnd).trim();
+            LOGGER.info("Command acknowledged: " + message);
+
+            RestartStatus attached = lineEnd < 0 ? null : parseStatusResponse(trimmed.substring(lineEnd + 1));
+            return attached != null ? attached : getStatus();
         }
 
         if (trimmed.startsWith("{")) {
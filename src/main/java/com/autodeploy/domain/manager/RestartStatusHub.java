@@ -0,0 +1,165 @@
+package com.autodeploy.domain.manager;
+
+import com.autodeploy.domain.model.RestartStatus;
+import com.autodeploy.domain.model.Server;
+import com.autodeploy.infrastructure.connection.ConnectionManager;
+import com.autodeploy.infrastructure.sftp.SftpManager;
+import javafx.application.Platform;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Un singur poller de status de restart per server, partajat de toate ferestrele din proces.
+ * <p>
+ * Fiecare fereastră conectată se abonează ({@link #subscribe}) și primește statusurile pe
+ * JavaFX Application Thread; hub-ul rulează un singur {@link RestartManager} (stream {@code watch}
+ * sau polling) indiferent câte ferestre sunt deschise pe același host.
+ * <ul>
+ *   <li>Referințe numărate: primul abonat pornește poller-ul, ultimul {@link Subscription#close()}
+ *       îl oprește și scoate hub-ul din registru</li>
+ *   <li>Comenzile rulează peste conexiunea primei ferestre conectate — închiderea ei nu
+ *       oprește poller-ul cât timp există alte ferestre</li>
+ *   <li>Un abonat nou primește imediat ultimul status cunoscut</li>
+ *   <li>Polling-ul trece în modul de fundal doar când <b>toate</b> ferestrele sunt minimizate</li>
+ * </ul>
+ */
+public final class RestartStatusHub {
+
+    private static final Logger LOGGER = Logger.getLogger(RestartStatusHub.class.getName());
+
+    /** Intervalul de bază al polling-ului când serverul e idle (ajustat de {@link PollingSchedule}). */
+    private static final int BASE_POLL_INTERVAL_MS = 2_000;
+
+    /** Hub-urile active, după host. Accesul (inclusiv abonarea/dezabonarea) e sincronizat pe map. */
+    private static final Map<String, RestartStatusHub> HUBS = new HashMap<>();
+
+    private final String host;
+    private final RestartManager poller;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile RestartStatus latestStatus;
+
+    private RestartStatusHub(Server server, String username, boolean agentEnabled) {
+        this.host = server.getHost();
+        this.poller = new RestartManager(server, this::currentSftpManager, username);
+        this.poller.setAgentEnabled(agentEnabled);
+        this.poller.addListener(this::dispatch);
+    }
+
+    /**
+     * Abonează o fereastră la statusul serverului. Pornește poller-ul dacă e primul abonat.
+     *
+     * @param connection   conexiunea ferestrei — folosită de poller cât timp e conectată
+     * @param agentEnabled statusul vine prin agentul de restart; contează doar pentru primul abonat
+     * @param listener     apelat pe FX thread la fiecare schimbare de status
+     */
+    public static Subscription subscribe(Server server, String username, ConnectionManager connection,
+                                         boolean agentEnabled, Consumer<RestartStatus> listener) {
+        synchronized (HUBS) {
+            RestartStatusHub hub = HUBS.computeIfAbsent(server.getHost(),
+                    host -> new RestartStatusHub(server, username, agentEnabled));
+            Subscription subscription = hub.new Subscription(connection, listener);
+            hub.subscriptions.add(subscription);
+
+            if (hub.subscriptions.size() == 1) {
+                LOGGER.info("Restart status hub started for " + hub.host);
+                hub.poller.startPolling(BASE_POLL_INTERVAL_MS);
+            } else {
+                RestartStatus latest = hub.latestStatus;
+                if (latest != null) {
+                    Platform.runLater(() -> listener.accept(latest));
+                }
+            }
+            hub.updateBackground();
+            return subscription;
+        }
+    }
+
+    /** Distribuie statusul tuturor abonaților (pe FX thread — poller-ul notifică prin runLater). */
+    private void dispatch(RestartStatus status) {
+        latestStatus = status;
+        for (Subscription subscription : subscriptions) {
+            try {
+                subscription.listener.accept(status);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Error in restart status subscriber", e);
+            }
+        }
+    }
+
+    /** Sesiunea primei ferestre conectate; dacă niciuna nu e conectată, comanda va eșua. */
+    private SftpManager currentSftpManager() {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.connection.isConnected()) {
+                return subscription.connection.getSftpManager();
+            }
+        }
+        if (subscriptions.isEmpty()) {
+            throw new IllegalStateException("No subscribers for restart status of " + host);
+        }
+        return subscriptions.get(0).connection.getSftpManager();
+    }
+
+    private void updateBackground() {
+        boolean allBackground = !subscriptions.isEmpty()
+                && subscriptions.stream().allMatch(subscription -> subscription.background);
+        poller.setBackground(allBackground);
+    }
+
+    public int getSubscriberCount() { return subscriptions.size(); }
+    public long getCurrentPollIntervalMs() { return poller.getCurrentPollIntervalMs(); }
+    public long getLastPollRttMs() { return poller.getLastPollRttMs(); }
+    public double getAveragePollRttMs() { return poller.getAveragePollRttMs(); }
+
+    /** Abonamentul unei ferestre. {@link #close()} e idempotent. */
+    public final class Subscription implements AutoCloseable {
+        private final ConnectionManager connection;
+        private final Consumer<RestartStatus> listener;
+        private volatile boolean background;
+        private boolean closed;
+
+        private Subscription(ConnectionManager connection, Consumer<RestartStatus> listener) {
+            this.connection = connection;
+            this.listener = listener;
+        }
+
+        /** Fereastra abonatului e minimizată / restaurată. */
+        public void setBackground(boolean background) {
+            this.background = background;
+            synchronized (HUBS) {
+                updateBackground();
+            }
+        }
+
+        /** Poll imediat (după request/reject trimis din fereastra abonatului). */
+        public void pollNow() {
+            poller.pollNow();
+        }
+
+        public RestartStatusHub getHub() {
+            return RestartStatusHub.this;
+        }
+
+        @Override
+        public void close() {
+            synchronized (HUBS) {
+                if (closed) return;
+                closed = true;
+                subscriptions.remove(this);
+
+                if (subscriptions.isEmpty()) {
+                    poller.stopPolling();
+                    HUBS.remove(host, RestartStatusHub.this);
+                    LOGGER.info("Restart status hub stopped for " + host);
+                } else {
+                    updateBackground();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.autodeploy.domain.model;
+
+/**
+ * Compresia SSH (zlib) folosită pentru sesiunea unui server.
+ * <p>
+ * JSP-urile și resursele text se comprimă foarte bine, JAR-urile (deja zip) deloc —
+ * pe ele compresia doar consumă CPU. {@link #AUTO} măsoară la conectare ambele variante
+ * și o alege pe cea mai rapidă.
+ */
+public enum CompressionMode {
+    NONE("Off"),
+    ZLIB("zlib"),
+    AUTO("Auto (measure at connect)");
+
+    private final String label;
+
+    CompressionMode(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() { return label; }
+}
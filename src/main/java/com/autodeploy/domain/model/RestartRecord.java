@@ -0,0 +1,85 @@
+package com.autodeploy.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Un restart terminat, văzut de aplicație: cine l-a cerut, pentru ce proiect și cât a durat.
+ * <p>
+ * Duratele sunt măsurate de la {@code active_restart.started_at}:
+ * <ul>
+ *   <li><b>scriptDurationMs</b> — până la dispariția {@code active_restart} (scriptul s-a terminat)</li>
+ *   <li><b>readyDurationMs</b> — până când aplicația a răspuns din nou
+ *       ({@link com.autodeploy.service.restart.ReadinessProber})</li>
+ * </ul>
+ * -1 = necunoscut (probarea dezactivată, aplicația nu a răspuns, scriptul nu a fost văzut terminându-se).
+ * Persistat în restart-history.json prin {@link com.autodeploy.domain.manager.RestartHistoryManager}.
+ */
+public class RestartRecord {
+
+    private String id;
+    private final String serverHost;
+    private final String project;
+    private final String requester;
+    private final long startedAt;
+    private final long scriptDurationMs;
+    private final long readyDurationMs;
+
+    public RestartRecord(String serverHost, String project, String requester,
+                         long startedAt, long scriptDurationMs, long readyDurationMs) {
+        this(null, serverHost, project, requester, startedAt, scriptDurationMs, readyDurationMs);
+    }
+
+    @JsonCreator
+    public RestartRecord(
+            @JsonProperty("id") String id,
+            @JsonProperty("serverHost") String serverHost,
+            @JsonProperty("project") String project,
+            @JsonProperty("requester") String requester,
+            @JsonProperty("startedAt") long startedAt,
+            @JsonProperty("scriptDurationMs") long scriptDurationMs,
+            @JsonProperty("readyDurationMs") long readyDurationMs
+    ) {
+        this.id = (id != null) ? id : UUID.randomUUID().toString();
+        this.serverHost = serverHost;
+        this.project = project;
+        this.requester = requester;
+        this.startedAt = startedAt;
+        this.scriptDurationMs = scriptDurationMs;
+        this.readyDurationMs = readyDurationMs;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getServerHost() { return serverHost; }
+    public String getProject() { return project; }
+    public String getRequester() { return requester; }
+
+    /** Epoch millis, de pe server. */
+    public long getStartedAt() { return startedAt; }
+
+    public long getScriptDurationMs() { return scriptDurationMs; }
+    public long getReadyDurationMs() { return readyDurationMs; }
+
+    @JsonIgnore
+    public boolean isValid() {
+        return serverHost != null && !serverHost.isBlank() && startedAt > 0
+                && (scriptDurationMs >= 0 || readyDurationMs >= 0);
+    }
+
+    /** Același restart fizic — o fereastră per proiect îl poate raporta de mai multe ori. */
+    @JsonIgnore
+    public boolean isSameRestart(RestartRecord other) {
+        return other != null && startedAt == other.startedAt && Objects.equals(serverHost, other.serverHost);
+    }
+
+    @Override
+    public String toString() {
+        return serverHost + " @" + startedAt + " (" + project + ", " + requester + ")";
+    }
+}
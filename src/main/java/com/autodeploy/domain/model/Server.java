@@ -22,6 +22,14 @@ public class Server {
     private static final String DEFAULT_RESTART_MANAGER_SCRIPT = "/nodel/testeUpload/restart_manager.sh";
     private static final int DEFAULT_PORT = 22;
 
+    /**
+     * Numărul implicit de canale SFTP paralele folosite la upload.
+     * Limitat la {@value #MAX_SFTP_CHANNELS} — OpenSSH acceptă implicit 10 canale
+     * per sesiune (MaxSessions), iar restul sunt necesare pentru exec și canalul principal.
+     */
+    public static final int DEFAULT_SFTP_CHANNELS = 4;
+    public static final int MAX_SFTP_CHANNELS = 8;
+
     private String id;
     private String name;
     private String host;
@@ -29,10 +37,14 @@ public class Server {
     private String password;
     private String restartManagerScript;
     private int port;
+    private int sftpChannels;
+    private CompressionMode compression;
 
     public Server() {
         this.id = UUID.randomUUID().toString();
         this.port = DEFAULT_PORT;
+        this.sftpChannels = DEFAULT_SFTP_CHANNELS;
+        this.compression = CompressionMode.NONE;
     }
 
     public Server(String name, String host, int port, String username, String password) {
@@ -52,7 +64,9 @@ public class Server {
             @JsonProperty("port") int port,
             @JsonProperty("username") String username,
             @JsonProperty("password") String password,
-            @JsonProperty("restartManagerScript") String restartManagerScript
+            @JsonProperty("restartManagerScript") String restartManagerScript,
+            @JsonProperty("sftpChannels") int sftpChannels,
+            @JsonProperty("compression") CompressionMode compression
     ) {
         this.id = (id != null) ? id : UUID.randomUUID().toString();
         this.name = name;
@@ -61,6 +75,8 @@ public class Server {
         this.username = username;
         this.password = password;
         this.restartManagerScript = restartManagerScript;
+        this.sftpChannels = (sftpChannels > 0) ? sftpChannels : DEFAULT_SFTP_CHANNELS;
+        this.compression = (compression != null) ? compression : CompressionMode.NONE;
     }
 
     // --- Getters / Setters ---
@@ -92,6 +108,22 @@ public class Server {
         this.restartManagerScript = restartManagerScript;
     }
 
+    /**
+     * Numărul de canale SFTP deschise pentru upload paralel, limitat la
+     * intervalul [1, {@value #MAX_SFTP_CHANNELS}].
+     */
+    public int getSftpChannels() {
+        return Math.max(1, Math.min(sftpChannels, MAX_SFTP_CHANNELS));
+    }
+
+    public void setSftpChannels(int sftpChannels) { this.sftpChannels = sftpChannels; }
+
+    public CompressionMode getCompression() { return compression; }
+
+    public void setCompression(CompressionMode compression) {
+        this.compression = (compression != null) ? compression : CompressionMode.NONE;
+    }
+
     @JsonIgnore
     public boolean isValid() {
         return StringUtils.isNotEmpty(name)
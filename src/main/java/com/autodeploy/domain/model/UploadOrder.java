@@ -0,0 +1,22 @@
+package com.autodeploy.domain.model;
+
+/**
+ * Ordinea în care fișierele selectate sunt trimise pe server.
+ * <p>
+ * Fișierele fixate de utilizator (pinned) sunt trimise întotdeauna primele, indiferent
+ * de politică — politica ordonează doar în interiorul celor două grupuri.
+ */
+public enum UploadOrder {
+    SELECTION("Selection order"),
+    SMALLEST_FIRST("Smallest first"),
+    RECENTLY_MODIFIED_FIRST("Most recently modified first");
+
+    private final String label;
+
+    UploadOrder(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() { return label; }
+}
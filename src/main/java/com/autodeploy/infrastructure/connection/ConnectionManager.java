@@ -1,7 +1,11 @@
 package com.autodeploy.infrastructure.connection;
 
+import com.autodeploy.core.config.ApplicationConfig;
+import com.autodeploy.domain.model.CompressionMode;
 import com.autodeploy.domain.model.Server;
+import com.autodeploy.infrastructure.sftp.CompressionProbe;
 import com.autodeploy.infrastructure.sftp.SftpManager;
+import com.autodeploy.infrastructure.sftp.TransferListener;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 
@@ -39,6 +43,7 @@ public class ConnectionManager {
      */
     private volatile SftpManager sftpManager;
     private volatile boolean isConnected = false;
+    private volatile TransferListener transferListener;
 
     private Runnable onConnectionEstablished;
     private Runnable onConnectionLost;
@@ -64,7 +69,8 @@ public class ConnectionManager {
     /**
      * Reconectare asincronă: deconectează sesiunea curentă, așteaptă un delay
      * (pentru cleanup la nivel de socket), creează un SftpManager complet nou
-     * și reconectează. SftpManager-ul vechi este abandonat.
+     * și reconectează. SftpManager-ul vechi este abandonat — împreună cu cache-ul
+     * lui de metadate remote, deci noua sesiune pornește fără presupuneri.
      */
     public Task<Void> reconnectAsync() {
         return new Task<>() {
@@ -79,6 +85,7 @@ public class ConnectionManager {
                 Thread.sleep(RECONNECT_DELAY_MS);
 
                 sftpManager = new SftpManager(server);
+                sftpManager.setTransferListener(transferListener);
 
                 connectWithRetries();
                 return null;
@@ -102,6 +109,15 @@ public class ConnectionManager {
         }
     }
 
+    /**
+     * Listener pentru progresul transferurilor. Se aplică SftpManager-ului curent
+     * și fiecărui SftpManager creat la reconectare.
+     */
+    public void setTransferListener(TransferListener listener) {
+        this.transferListener = listener;
+        sftpManager.setTransferListener(listener);
+    }
+
     public boolean isConnected() {
         return isConnected && sftpManager != null && sftpManager.isConnected();
     }
@@ -119,6 +135,12 @@ public class ConnectionManager {
             log("⚠ Connection lost to server!");
             isConnected = false;
 
+            // Cât timp suntem deconectați, starea serverului poate fi modificată de alții
+            SftpManager current = sftpManager;
+            if (current != null) {
+                current.getMetadataCache().invalidateAll();
+            }
+
             if (onConnectionLost != null) {
                 onConnectionLost.run();
             }
@@ -135,6 +157,10 @@ public class ConnectionManager {
         return sftpManager;
     }
 
+    public Server getServer() {
+        return server;
+    }
+
     public void setOnConnectionEstablished(Runnable callback) { this.onConnectionEstablished = callback; }
     public void setOnConnectionLost(Runnable callback) { this.onConnectionLost = callback; }
     public void setOnReconnectStarted(Runnable callback) { this.onReconnectStarted = callback; }
@@ -173,12 +199,14 @@ public class ConnectionManager {
     }
 
     /**
-     * Conectare efectivă: setează listener-ul de monitoring pe SftpManager,
-     * deschide conexiunea, și notifică UI-ul prin callback.
+     * Conectare efectivă: alege compresia SSH ({@link CompressionProbe}), setează
+     * listener-ul de monitoring pe SftpManager, deschide conexiunea, și notifică UI-ul prin callback.
      */
     private void doConnect() throws Exception {
         log("🔌 Connecting to server: " + server.getHost() + ":" + server.getPort());
 
+        configureCompression();
+        sftpManager.setPersistentShellEnabled(ApplicationConfig.getInstance().isPersistentShellEnabled());
         sftpManager.setConnectionStatusListener(this::notifyConnectionLost);
         sftpManager.connect();
 
@@ -193,6 +221,34 @@ public class ConnectionManager {
         });
     }
 
+    /**
+     * Aplică decizia de compresie pe SftpManager și o raportează în log.
+     * În modul AUTO prima conectare la server durează ~2 sesiuni de test în plus.
+     */
+    private void configureCompression() {
+        if (server.getCompression() == CompressionMode.AUTO) {
+            log("🗜 Measuring SSH throughput with and without compression...");
+        }
+
+        CompressionProbe.Decision decision = CompressionProbe.decide(server);
+        sftpManager.setCompressionEnabled(decision.isCompression());
+
+        String mode = decision.isCompression() ? "zlib" : "off";
+        if (decision.isMeasured()) {
+            log("🗜 SSH compression: " + mode + " (auto" + (decision.isCached() ? ", cached" : "")
+                    + " — plain " + formatThroughput(decision.getPlainBytesPerSecond())
+                    + ", zlib " + formatThroughput(decision.getZlibBytesPerSecond()) + ")");
+        } else if (server.getCompression() == CompressionMode.AUTO) {
+            log("⚠ SSH compression: off (auto measurement failed)");
+        } else {
+            log("🗜 SSH compression: " + mode);
+        }
+    }
+
+    private static String formatThroughput(double bytesPerSecond) {
+        return String.format("%.1f MB/s", bytesPerSecond / (1024 * 1024));
+    }
+
     private void log(String message) {
         logger.accept(message);
     }
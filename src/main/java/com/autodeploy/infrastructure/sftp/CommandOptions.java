@@ -0,0 +1,56 @@
+package com.autodeploy.infrastructure.sftp;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Opțiunile unei comenzi remote asincrone ({@link SftpManager#executeAsync}).
+ * <p>
+ * Imutabil — fiecare {@code with...} întoarce o copie:
+ * <pre>
+ * CommandOptions.defaults()
+ *         .withTimeout(Duration.ofMinutes(5))
+ *         .withStdoutLines(line -&gt; log(line))
+ * </pre>
+ * Callback-urile de linie sunt apelate pe thread-ul de citire al comenzii, în ordinea
+ * liniilor — nu pe FX thread. Output-ul păstrat în {@link CommandResult} e limitat la
+ * ultimii {@code maxOutputBytes} bytes per stream (coada output-ului, unde apar erorile).
+ *
+ * @param timeout        durata maximă; {@code null} sau zero = fără timeout
+ * @param stdoutLines    callback per linie de stdout, sau null
+ * @param stderrLines    callback per linie de stderr, sau null
+ * @param maxOutputBytes câți bytes din fiecare stream rămân în rezultat
+ */
+public record CommandOptions(Duration timeout,
+                             Consumer<String> stdoutLines,
+                             Consumer<String> stderrLines,
+                             int maxOutputBytes) {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAX_OUTPUT_BYTES = 4 * 1024 * 1024;
+
+    /** Timeout de 30s, fără callback-uri, maxim 4 MB reținuți per stream. */
+    public static CommandOptions defaults() {
+        return new CommandOptions(DEFAULT_TIMEOUT, null, null, DEFAULT_MAX_OUTPUT_BYTES);
+    }
+
+    public CommandOptions withTimeout(Duration timeout) {
+        return new CommandOptions(timeout, stdoutLines, stderrLines, maxOutputBytes);
+    }
+
+    public CommandOptions withStdoutLines(Consumer<String> callback) {
+        return new CommandOptions(timeout, callback, stderrLines, maxOutputBytes);
+    }
+
+    public CommandOptions withStderrLines(Consumer<String> callback) {
+        return new CommandOptions(timeout, stdoutLines, callback, maxOutputBytes);
+    }
+
+    public CommandOptions withMaxOutputBytes(int maxOutputBytes) {
+        return new CommandOptions(timeout, stdoutLines, stderrLines, maxOutputBytes);
+    }
+
+    boolean hasTimeout() {
+        return timeout != null && !timeout.isZero() && !timeout.isNegative();
+    }
+}
@@ -0,0 +1,32 @@
+package com.autodeploy.infrastructure.sftp;
+
+/**
+ * Rezultatul complet al unei comenzi SSH: exit code + stdout + stderr.
+ * Folosit când apelantul interpretează singur eșecul (ex: output parțial util și la exit != 0).
+ */
+public class CommandResult {
+
+    private final int exitCode;
+    private final String output;
+    private final String error;
+    private final boolean truncated;
+
+    public CommandResult(int exitCode, String output, String error) {
+        this(exitCode, output, error, false);
+    }
+
+    public CommandResult(int exitCode, String output, String error, boolean truncated) {
+        this.exitCode = exitCode;
+        this.output = output;
+        this.error = error;
+        this.truncated = truncated;
+    }
+
+    public int getExitCode() { return exitCode; }
+    public String getOutput() { return output; }
+    public String getError() { return error; }
+    public boolean isSuccess() { return exitCode == 0; }
+
+    /** true dacă output-ul sau erorile au depășit limita și s-a păstrat doar finalul lor. */
+    public boolean isTruncated() { return truncated; }
+}
@@ -0,0 +1,156 @@
+package com.autodeploy.infrastructure.sftp;
+
+import com.autodeploy.domain.model.CompressionMode;
+import com.autodeploy.domain.model.Server;
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Decide dacă sesiunea SSH a unui server folosește compresie zlib.
+ * <p>
+ * Pentru {@link CompressionMode#AUTO}, deschide două sesiuni scurte (fără și cu zlib)
+ * și trimite prin fiecare același payload de test în {@code cat > /dev/null}.
+ * Payload-ul e jumătate text (cuvinte tipice din JSP) și jumătate bytes aleatori
+ * (ca un JAR deja comprimat), deci măsurătoarea reflectă un deploy mixt.
+ * Câștigă varianta cu throughput efectiv (bytes necomprimați / secundă) mai mare.
+ * <p>
+ * Rezultatul e cache-uit per host:port pe durata aplicației — reconectările nu re-măsoară.
+ */
+public final class CompressionProbe {
+
+    private static final Logger LOGGER = Logger.getLogger(CompressionProbe.class.getName());
+
+    private static final int PAYLOAD_SIZE = 1024 * 1024;
+    private static final long PROBE_TIMEOUT_MS = 15_000;
+
+    /** Zlib trebuie să fie cel puțin atât de rapid cât să merite CPU-ul în plus. */
+    private static final double MIN_GAIN = 1.10;
+
+    private static final Map<String, Decision> CACHE = new ConcurrentHashMap<>();
+    private static final byte[] PAYLOAD = buildPayload();
+
+    private CompressionProbe() {}
+
+    /** Decizia pentru server: directă pentru NONE/ZLIB, măsurată (o singură dată) pentru AUTO. */
+    public static Decision decide(Server server) {
+        return switch (server.getCompression()) {
+            case NONE -> Decision.fixed(false);
+            case ZLIB -> Decision.fixed(true);
+            case AUTO -> {
+                String key = server.getHost() + ":" + server.getPort();
+                Decision cached = CACHE.get(key);
+                if (cached != null) yield cached.asCached();
+
+                Decision measured = measure(server);
+                if (measured.isMeasured()) CACHE.put(key, measured);
+                yield measured;
+            }
+        };
+    }
+
+    private static Decision measure(Server server) {
+        try {
+            double plainBps = measureThroughput(server, false);
+            double zlibBps = measureThroughput(server, true);
+            return Decision.measured(zlibBps > plainBps * MIN_GAIN, plainBps, zlibBps);
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Compression probe failed for " + server.getHost(), e);
+            return Decision.fixed(false);
+        }
+    }
+
+    /** Bytes necomprimați pe secundă prin {@code cat > /dev/null}, pe o sesiune nouă. */
+    private static double measureThroughput(Server server, boolean compression) throws Exception {
+        Session session = SftpManager.createSession(server, compression);
+        ChannelExec channel = null;
+        try {
+            session.connect();
+            channel = (ChannelExec) session.openChannel("exec");
+            channel.setCommand("cat > /dev/null");
+            OutputStream stdin = channel.getOutputStream();
+            channel.connect();
+
+            long start = System.nanoTime();
+            try (stdin) {
+                stdin.write(PAYLOAD);
+            }
+
+            long deadline = System.currentTimeMillis() + PROBE_TIMEOUT_MS;
+            while (!channel.isClosed()) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException("Compression probe timed out");
+                }
+                Thread.sleep(10);
+            }
+
+            double seconds = Math.max((System.nanoTime() - start) / 1e9, 0.001);
+            return PAYLOAD.length / seconds;
+        } finally {
+            if (channel != null) channel.disconnect();
+            session.disconnect();
+        }
+    }
+
+    private static byte[] buildPayload() {
+        Random random = new Random(42);
+        byte[] payload = new byte[PAYLOAD_SIZE];
+
+        String[] words = {"<%@", "page", "import=", "<c:if", "test=", "${", "}", "</div>", "<div",
+                "class=\"", "request.getParameter(", "\"", ">", "\n", "    ", "String", "=", ";"};
+        StringBuilder text = new StringBuilder(PAYLOAD_SIZE / 2);
+        while (text.length() < PAYLOAD_SIZE / 2) {
+            text.append(words[random.nextInt(words.length)]).append(' ');
+        }
+        byte[] textBytes = text.toString().getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(textBytes, 0, payload, 0, PAYLOAD_SIZE / 2);
+
+        byte[] noise = new byte[PAYLOAD_SIZE - PAYLOAD_SIZE / 2];
+        random.nextBytes(noise);
+        System.arraycopy(noise, 0, payload, PAYLOAD_SIZE / 2, noise.length);
+        return payload;
+    }
+
+    /** Rezultatul: compresie da/nu, plus măsurătorile dacă au existat. */
+    public static final class Decision {
+        private final boolean compression;
+        private final boolean measured;
+        private final boolean cached;
+        private final double plainBytesPerSecond;
+        private final double zlibBytesPerSecond;
+
+        private Decision(boolean compression, boolean measured, boolean cached,
+                         double plainBytesPerSecond, double zlibBytesPerSecond) {
+            this.compression = compression;
+            this.measured = measured;
+            this.cached = cached;
+            this.plainBytesPerSecond = plainBytesPerSecond;
+            this.zlibBytesPerSecond = zlibBytesPerSecond;
+        }
+
+        static Decision fixed(boolean compression) {
+            return new Decision(compression, false, false, 0, 0);
+        }
+
+        static Decision measured(boolean compression, double plainBps, double zlibBps) {
+            return new Decision(compression, true, false, plainBps, zlibBps);
+        }
+
+        private Decision asCached() {
+            return new Decision(compression, measured, true, plainBytesPerSecond, zlibBytesPerSecond);
+        }
+
+        public boolean isCompression() { return compression; }
+        public boolean isMeasured() { return measured; }
+        public boolean isCached() { return cached; }
+        public double getPlainBytesPerSecond() { return plainBytesPerSecond; }
+        public double getZlibBytesPerSecond() { return zlibBytesPerSecond; }
+    }
+}
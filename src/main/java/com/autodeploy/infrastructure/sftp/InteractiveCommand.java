@@ -0,0 +1,49 @@
+package com.autodeploy.infrastructure.sftp;
+
+import com.jcraft.jsch.ChannelExec;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * O comandă remote de durată cu care se vorbește prin stdin/stdout
+ * ({@link SftpManager#openInteractiveCommand}) — ex: puntea spre agentul de restart.
+ * <p>
+ * Stream-urile sunt legate înainte de conectarea canalului, deci nu se pierde nimic din
+ * primul output. Apelantul citește stdout-ul continuu (fereastra SSH e limitată) și
+ * scrie pe stdin cu flush; {@link #close()} închide canalul, iar procesul remote primește EOF.
+ */
+public final class InteractiveCommand implements AutoCloseable {
+
+    private final ChannelExec channel;
+    private final InputStream stdout;
+    private final OutputStream stdin;
+
+    InteractiveCommand(ChannelExec channel, InputStream stdout, OutputStream stdin) {
+        this.channel = channel;
+        this.stdout = stdout;
+        this.stdin = stdin;
+    }
+
+    public InputStream getInputStream() {
+        return stdout;
+    }
+
+    public OutputStream getOutputStream() {
+        return stdin;
+    }
+
+    public boolean isOpen() {
+        return channel.isConnected() && !channel.isClosed();
+    }
+
+    /** Exit code-ul procesului remote, -1 cât timp rulează. */
+    public int getExitStatus() {
+        return channel.getExitStatus();
+    }
+
+    @Override
+    public void close() {
+        channel.disconnect();
+    }
+}
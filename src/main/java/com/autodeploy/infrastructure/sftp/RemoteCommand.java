@@ -0,0 +1,265 @@
+package com.autodeploy.infrastructure.sftp;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.Session;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * O comandă rulată asincron pe un canal exec dedicat.
+ * <p>
+ * Fluxul e condus de evenimente: stdout și stderr sunt citite blocant, fiecare pe thread-ul lui,
+ * iar comanda se termină când ambele stream-uri ajung la EOF (serverul închide canalul).
+ * Nu există polling pe {@code isClosed()} în timpul execuției — doar o scurtă așteptare
+ * după EOF, cât sosește exit status-ul.
+ * <p>
+ * Timeout-ul și {@link CompletableFuture#cancel anularea} deconectează canalul: citirile
+ * se deblochează, iar procesul remote primește EOF/SIGPIPE. Cu stdin, timeout-ul pornește
+ * doar după ce stdin-ul a fost scris complet — transferurile mari nu sunt întrerupte.
+ */
+final class RemoteCommand {
+
+    private static final Logger LOGGER = Logger.getLogger(RemoteCommand.class.getName());
+
+    /** Cât așteptăm exit status-ul după EOF pe ambele stream-uri. */
+    private static final long EXIT_STATUS_WAIT_MS = 2_000;
+    private static final long EXIT_STATUS_POLL_MS = 5;
+    /** O linie mai lungă de atât e livrată în bucăți — memoria rămâne limitată și fără newline. */
+    private static final int MAX_LINE_BYTES = 64 * 1024;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ExecutorService IO = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "SSH-Exec-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SSH-Exec-Timeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private RemoteCommand() {}
+
+    /**
+     * Pornește comanda și întoarce imediat.
+     *
+     * @param input producătorul stdin-ului, sau null (stdin închis imediat)
+     */
+    static CompletableFuture<CommandResult> start(Session session, String command, CommandOptions options,
+                                                  SftpManager.StdinWriter input) {
+        CompletableFuture<CommandResult> result = new CompletableFuture<>();
+        IO.execute(() -> run(session, command, options, input, result));
+        return result;
+    }
+
+    private static void run(Session session, String command, CommandOptions options,
+                            SftpManager.StdinWriter input, CompletableFuture<CommandResult> result) {
+        ChannelExec channel = null;
+        try {
+            channel = (ChannelExec) session.openChannel("exec");
+            channel.setCommand(command);
+
+            InputStream stdout = channel.getInputStream();
+            InputStream stderr = channel.getErrStream();
+            OutputStream stdin = channel.getOutputStream();
+
+            ChannelExec opened = channel;
+            result.whenComplete((value, error) -> {
+                if (error != null) opened.disconnect();
+            });
+            if (result.isDone()) return;
+
+            channel.connect();
+
+            TailBuffer out = new TailBuffer(options.maxOutputBytes());
+            TailBuffer err = new TailBuffer(options.maxOutputBytes());
+            CompletableFuture<Void> outDone = CompletableFuture.runAsync(
+                    () -> pump(stdout, out, options.stdoutLines()), IO);
+            CompletableFuture<Void> errDone = CompletableFuture.runAsync(
+                    () -> pump(stderr, err, options.stderrLines()), IO);
+
+            try (stdin) {
+                if (input != null) input.writeTo(stdin);
+            }
+
+            if (options.hasTimeout()) {
+                long timeoutMs = options.timeout().toMillis();
+                var timer = TIMER.schedule(() -> result.completeExceptionally(
+                        new TimeoutException("Command timed out after " + timeoutMs + "ms")),
+                        timeoutMs, TimeUnit.MILLISECONDS);
+                result.whenComplete((value, error) -> timer.cancel(false));
+            }
+
+            CompletableFuture.allOf(outDone, errDone).whenComplete((ignored, readError) -> {
+                if (result.isDone()) return;
+                if (readError != null) {
+                    result.completeExceptionally(unwrap(readError));
+                    return;
+                }
+                try {
+                    int exitCode = awaitExitStatus(opened);
+                    result.complete(new CommandResult(exitCode, out.toString(), err.toString(),
+                            out.isTruncated() || err.isTruncated()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    result.completeExceptionally(e);
+                } finally {
+                    opened.disconnect();
+                }
+            });
+
+        } catch (Exception e) {
+            if (channel != null) channel.disconnect();
+            result.completeExceptionally(e);
+        }
+    }
+
+    /** Citește stream-ul până la EOF; livrează liniile și păstrează coada output-ului. */
+    private static void pump(InputStream in, TailBuffer tail, Consumer<String> lines) {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                tail.write(buffer, 0, n);
+                if (lines == null) continue;
+
+                for (int i = 0; i < n; i++) {
+                    byte b = buffer[i];
+                    if (b == '\n') {
+                        emit(line, lines);
+                    } else {
+                        line.write(b);
+                        if (line.size() >= MAX_LINE_BYTES) emit(line, lines);
+                    }
+                }
+            }
+            if (lines != null && line.size() > 0) emit(line, lines);
+        } catch (IOException e) {
+            // Canal deconectat (timeout/cancel) — rezultatul e deja stabilit de cine a închis
+            throw new CompletionException(e);
+        }
+    }
+
+    private static void emit(ByteArrayOutputStream line, Consumer<String> lines) {
+        String text = line.toString(StandardCharsets.UTF_8);
+        line.reset();
+        if (text.endsWith("\r")) text = text.substring(0, text.length() - 1);
+        try {
+            lines.accept(text);
+        } catch (RuntimeException e) {
+            LOGGER.warning("Line callback failed: " + e.getMessage());
+        }
+    }
+
+    /** Exit status-ul sosește odată cu închiderea canalului, imediat după EOF. */
+    private static int awaitExitStatus(ChannelExec channel) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + EXIT_STATUS_WAIT_MS;
+        while (!channel.isClosed() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(EXIT_STATUS_POLL_MS);
+        }
+        return channel.getExitStatus();
+    }
+
+    /**
+     * Convertește eșecul unui future în excepția pe care o aruncau apelurile sincrone:
+     * timeout → RuntimeException cu mesajul vechi, restul neschimbat.
+     */
+    static Exception unwrapForCaller(Throwable error) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof TimeoutException) {
+            return new RuntimeException(cause.getMessage(), cause);
+        }
+        if (cause instanceof CancellationException cancelled) {
+            return cancelled;
+        }
+        return cause instanceof Exception exception ? exception : new RuntimeException(cause);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * Păstrează ultimii {@code capacity} bytes scriși. Bufferul crește la nevoie până la
+     * {@code capacity} — un output mic nu alocă tot plafonul — și devine circular abia
+     * după ce plafonul e depășit.
+     */
+    static final class TailBuffer {
+        private static final int INITIAL_SIZE = 8 * 1024;
+
+        private final int capacity;
+        private byte[] data;
+        private long written;
+
+        TailBuffer(int capacity) {
+            this.capacity = Math.max(capacity, 0);
+            this.data = new byte[Math.min(this.capacity, INITIAL_SIZE)];
+        }
+
+        synchronized void write(byte[] bytes, int offset, int length) {
+            if (capacity == 0) {
+                written += length;
+                return;
+            }
+            if (length > capacity) {
+                // Doar ultimii capacity bytes contează; restul sunt doar numărați
+                int skipped = length - capacity;
+                offset += skipped;
+                length = capacity;
+                written += skipped;
+            }
+            long end = written + length;
+            if (data.length < capacity && end > data.length) {
+                int size = (int) Math.min(capacity, Math.max(end, (long) data.length * 2));
+                data = Arrays.copyOf(data, size);
+            }
+            int position = (int) (written % capacity);
+            int first = Math.min(length, capacity - position);
+            System.arraycopy(bytes, offset, data, position, first);
+            System.arraycopy(bytes, offset + first, data, 0, length - first);
+            written = end;
+        }
+
+        synchronized boolean isTruncated() {
+            return written > capacity;
+        }
+
+        @Override
+        public synchronized String toString() {
+            if (written <= capacity) {
+                return new String(data, 0, (int) written, StandardCharsets.UTF_8);
+            }
+            if (capacity == 0) {
+                return "";
+            }
+            int start = (int) (written % capacity);
+            byte[] ordered = new byte[capacity];
+            System.arraycopy(data, start, ordered, 0, capacity - start);
+            System.arraycopy(data, 0, ordered, capacity - start, start);
+            return new String(ordered, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.autodeploy.infrastructure.sftp;
+
+import com.jcraft.jsch.SftpATTRS;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache de metadate remote pentru o sesiune SFTP: directoare cunoscute + rezultate stat.
+ * <p>
+ * Scopul e eliminarea round-trip-urilor repetate: un director confirmat (cd reușit sau
+ * mkdir) nu mai e verificat până la invalidare; un stat e reutilizat {@value #STAT_TTL_MS}ms.
+ * <p>
+ * <b>Invalidare:</b> explicită la fiecare modificare făcută prin {@link SftpManager}
+ * (put, mkdir, rm) și completă la deconectare/reconectare. Modificările făcute de
+ * comenzi exec sau de alți utilizatori nu sunt vizibile — de aceea stat-urile expiră,
+ * iar directoarele (care practic nu dispar în timpul unui deploy) nu. Dacă totuși dispar,
+ * put-ul eșuat cu {@code SSH_FX_NO_SUCH_FILE} le uită ({@link #forgetDirectory}) și le recreează.
+ * <p>
+ * Thread-safe: consultat concurent de worker-ii de upload.
+ */
+public class RemoteMetadataCache {
+
+    private static final long STAT_TTL_MS = 30_000;
+
+    private final Set<String> knownDirectories = ConcurrentHashMap.newKeySet();
+    private final Map<String, CachedStat> stats = new ConcurrentHashMap<>();
+
+    public boolean isKnownDirectory(String path) {
+        return knownDirectories.contains(normalize(path));
+    }
+
+    /** Marchează directorul și toți părinții lui ca existenți. */
+    public void markDirectory(String path) {
+        String current = normalize(path);
+        while (!current.isEmpty() && knownDirectories.add(current)) {
+            int slash = current.lastIndexOf('/');
+            current = slash > 0 ? current.substring(0, slash) : "";
+        }
+    }
+
+    /**
+     * Uită un director dispărut împreună cu părinții lui (doar ca directoare cunoscute) și tot
+     * ce e sub el — următorul mkdir recursiv îi verifică din nou pe toți.
+     */
+    public void forgetDirectory(String path) {
+        invalidate(path);
+        String current = normalize(path);
+        while (!current.isEmpty()) {
+            knownDirectories.remove(current);
+            int slash = current.lastIndexOf('/');
+            current = slash > 0 ? current.substring(0, slash) : "";
+        }
+    }
+
+    /**
+     * Stat-ul cache-uit, sau null dacă lipsește/a expirat.
+     * Un {@link CachedStat} cu {@code exists() == false} înseamnă "confirmat inexistent".
+     */
+    public CachedStat getStat(String path) {
+        CachedStat cached = stats.get(normalize(path));
+        if (cached == null) return null;
+
+        if (System.currentTimeMillis() - cached.fetchedAt > STAT_TTL_MS) {
+            stats.remove(normalize(path));
+            return null;
+        }
+        return cached;
+    }
+
+    /** Memorează rezultatul unui stat; {@code attrs == null} = fișierul nu există. */
+    public void putStat(String path, SftpATTRS attrs) {
+        stats.put(normalize(path), new CachedStat(attrs, System.currentTimeMillis()));
+        if (attrs != null && attrs.isDir()) {
+            markDirectory(path);
+        }
+    }
+
+    /** Invalidează calea și tot ce e sub ea (stat-uri și directoare). */
+    public void invalidate(String path) {
+        String normalized = normalize(path);
+        String childPrefix = normalized + "/";
+
+        stats.keySet().removeIf(key -> key.equals(normalized) || key.startsWith(childPrefix));
+        knownDirectories.removeIf(dir -> dir.equals(normalized) || dir.startsWith(childPrefix));
+    }
+
+    public void invalidateAll() {
+        stats.clear();
+        knownDirectories.clear();
+    }
+
+    private String normalize(String path) {
+        String normalized = path.replaceAll("/+", "/");
+        return normalized.length() > 1 && normalized.endsWith("/")
+                ? normalized.substring(0, normalized.length() - 1)
+                : normalized;
+    }
+
+    /** Rezultatul unui stat remote la momentul interogării. */
+    public static final class CachedStat {
+        private final SftpATTRS attrs;
+        private final long fetchedAt;
+
+        private CachedStat(SftpATTRS attrs, long fetchedAt) {
+            this.attrs = attrs;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public boolean exists() { return attrs != null; }
+        public SftpATTRS getAttrs() { return attrs; }
+    }
+}
@@ -0,0 +1,241 @@
+package com.autodeploy.infrastructure.sftp;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Shell remote de durată ({@code /bin/sh} pe un singur canal exec), refolosit pentru comenzi
+ * secvențiale — fără round-trip-ul de deschidere a unui canal la fiecare comandă.
+ * <p>
+ * Protocolul per comandă:
+ * <pre>
+ * ( &lt;comanda&gt;
+ * ) &lt;/dev/null
+ * printf '\n%s %d\n' TOKEN "$?"        → stdout: sfârșitul output-ului + exit code
+ * printf '\n%s\n' TOKEN &gt;&amp;2          → stderr: sfârșitul erorilor
+ * </pre>
+ * Comanda rulează într-un subshell cu stdin închis: un {@code exit} sau un {@code cd} nu afectează
+ * shell-ul, iar comanda nu poate consuma protocolul. Token-ul e unic per comandă.
+ * <p>
+ * Ca la {@link RemoteCommand}, stream-urile sunt citite blocant, fiecare pe thread-ul lui, iar
+ * marcajul e căutat doar în bytes-ii nou sosiți (plus o suprapunere cât marcajul). Din output
+ * se păstrează ultimii {@code maxOutputBytes} bytes per stream; restul e semnalat ca trunchiere.
+ * <p>
+ * NU e thread-safe — apelantul serializează comenzile. După orice eroare de I/O sau timeout
+ * shell-ul e marcat {@link #isBroken() broken} și trebuie închis.
+ */
+final class RemoteShell implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(RemoteShell.class.getName());
+
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    /** Linia cu exit code-ul are câțiva bytes; una mai lungă înseamnă protocol corupt. */
+    private static final int MAX_STATUS_BYTES = 64;
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final ExecutorService READERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "SSH-Shell-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ChannelExec channel;
+    private final OutputStream stdin;
+    private final InputStream stdout;
+    private final InputStream stderr;
+    private volatile boolean broken;
+
+    private RemoteShell(ChannelExec channel, OutputStream stdin, InputStream stdout, InputStream stderr) {
+        this.channel = channel;
+        this.stdin = stdin;
+        this.stdout = stdout;
+        this.stderr = stderr;
+    }
+
+    static RemoteShell open(Session session) throws JSchException, IOException {
+        ChannelExec channel = (ChannelExec) session.openChannel("exec");
+        channel.setCommand("exec /bin/sh");
+
+        // Stream-urile trebuie obținute înainte de connect (JSch le leagă la deschidere)
+        OutputStream stdin = channel.getOutputStream();
+        InputStream stdout = channel.getInputStream();
+        InputStream stderr = channel.getErrStream();
+        channel.connect(CONNECT_TIMEOUT_MS);
+
+        LOGGER.fine("Persistent shell opened");
+        return new RemoteShell(channel, stdin, stdout, stderr);
+    }
+
+    /**
+     * Execută comanda și așteaptă marcajele de final pe ambele stream-uri.
+     *
+     * @param maxOutputBytes câți bytes din fiecare stream rămân în rezultat
+     * @throws ShellBrokenException dacă shell-ul a căzut; {@link ShellBrokenException#isCommandSent()}
+     *                              spune dacă e sigur ca apelantul să reia comanda pe alt canal
+     * @throws RuntimeException     la depășirea timeout-ului (shell-ul e închis)
+     */
+    CommandResult execute(String command, long timeoutMs, int maxOutputBytes)
+            throws ShellBrokenException, InterruptedException {
+        if (broken || channel.isClosed()) {
+            broken = true;
+            throw new ShellBrokenException("Shell channel closed", false);
+        }
+
+        String token = "__AD_END_" + SEQUENCE.incrementAndGet() + "_" + UUID.randomUUID().toString().replace("-", "");
+        String script = "( " + command + "\n) </dev/null\n"
+                + "printf '\\n%s %d\\n' '" + token + "' \"$?\"\n"
+                + "printf '\\n%s\\n' '" + token + "' >&2\n";
+
+        try {
+            stdin.write(script.getBytes(StandardCharsets.UTF_8));
+            stdin.flush();
+        } catch (IOException e) {
+            // Shell-ul a murit înainte să primească o linie completă — comanda nu a rulat
+            broken = true;
+            throw new ShellBrokenException("Shell write failed: " + e.getMessage(), false);
+        }
+
+        byte[] outMarker = ("\n" + token + " ").getBytes(StandardCharsets.UTF_8);
+        byte[] errMarker = ("\n" + token + "\n").getBytes(StandardCharsets.UTF_8);
+        CompletableFuture<Capture> out = CompletableFuture.supplyAsync(
+                () -> readUntil(stdout, outMarker, true, maxOutputBytes), READERS);
+        CompletableFuture<Capture> err = CompletableFuture.supplyAsync(
+                () -> readUntil(stderr, errMarker, false, maxOutputBytes), READERS);
+
+        // Prima eroare de citire încheie așteptarea — nu mai așteptăm și celălalt stream
+        CompletableFuture<Void> done = CompletableFuture.allOf(out, err);
+        out.whenComplete((ignored, error) -> { if (error != null) done.completeExceptionally(error); });
+        err.whenComplete((ignored, error) -> { if (error != null) done.completeExceptionally(error); });
+
+        try {
+            done.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Deconectarea deblochează thread-urile de citire
+            close();
+            throw new RuntimeException("Command timed out after " + timeoutMs + "ms");
+        } catch (InterruptedException e) {
+            close();
+            throw e;
+        } catch (ExecutionException e) {
+            close();
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            throw new ShellBrokenException(cause instanceof EOFException
+                    ? cause.getMessage() : "Shell read failed: " + cause.getMessage(), true);
+        }
+
+        Capture output = out.join();
+        Capture error = err.join();
+        return new CommandResult(output.exitCode, output.data.toString(), error.data.toString(),
+                output.data.isTruncated() || error.data.isTruncated());
+    }
+
+    /** Output-ul unui stream până la marcaj și, pe stdout, exit code-ul de după el. */
+    private record Capture(RemoteCommand.TailBuffer data, int exitCode) {}
+
+    /**
+     * Citește blocant până la marcaj. Ultimii {@code marker.length - 1} bytes ai fiecărei citiri
+     * sunt reținuți (pot fi începutul marcajului) și căutați din nou împreună cu citirea următoare.
+     */
+    private static Capture readUntil(InputStream in, byte[] marker, boolean withStatus, int maxOutputBytes) {
+        RemoteCommand.TailBuffer data = new RemoteCommand.TailBuffer(maxOutputBytes);
+        byte[] buffer = new byte[8192 + marker.length];
+        int carried = 0;
+        try {
+            while (true) {
+                int n = in.read(buffer, carried, buffer.length - carried);
+                if (n == -1) throw new EOFException("Shell closed while running command");
+
+                int length = carried + n;
+                int found = indexOf(buffer, length, marker);
+                if (found >= 0) {
+                    data.write(buffer, 0, found);
+                    int exitCode = withStatus ? readExitCode(in, buffer, found + marker.length, length) : 0;
+                    return new Capture(data, exitCode);
+                }
+
+                carried = Math.min(length, marker.length - 1);
+                data.write(buffer, 0, length - carried);
+                System.arraycopy(buffer, length - carried, buffer, 0, carried);
+            }
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /** Exit code-ul de pe linia de după marcaj; bytes-ii {@code [from, length)} sunt deja citiți. */
+    private static int readExitCode(InputStream in, byte[] buffer, int from, int length) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        line.write(buffer, from, length - from);
+        int newline;
+        while ((newline = line.toString(StandardCharsets.US_ASCII).indexOf('\n')) < 0) {
+            if (line.size() > MAX_STATUS_BYTES) return 255;
+            int n = in.read(buffer);
+            if (n == -1) throw new EOFException("Shell closed while running command");
+            line.write(buffer, 0, n);
+        }
+        try {
+            return Integer.parseInt(line.toString(StandardCharsets.US_ASCII).substring(0, newline).trim());
+        } catch (NumberFormatException e) {
+            return 255;
+        }
+    }
+
+    private static int indexOf(byte[] data, int length, byte[] pattern) {
+        outer:
+        for (int i = 0; i <= length - pattern.length; i++) {
+            for (int j = 0; j < pattern.length; j++) {
+                if (data[i + j] != pattern[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    boolean isBroken() {
+        return broken || channel.isClosed();
+    }
+
+    @Override
+    public void close() {
+        broken = true;
+        channel.disconnect();
+    }
+
+    /** Shell-ul a căzut. {@code commandSent = false} → comanda sigur nu a rulat. */
+    static final class ShellBrokenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean commandSent;
+
+        ShellBrokenException(String message, boolean commandSent) {
+            super(message);
+            this.commandSent = commandSent;
+        }
+
+        boolean isCommandSent() {
+            return commandSent;
+        }
+    }
+}
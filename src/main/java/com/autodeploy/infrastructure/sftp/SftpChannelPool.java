@@ -0,0 +1,167 @@
+package com.autodeploy.infrastructure.sftp;
+
+import com.jcraft.jsch.Channel;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool de canale SFTP deschise peste aceeași sesiune SSH.
+ * <p>
+ * Fiecare canal e împrumutat exclusiv de un singur thread ({@link #borrow()} / {@link #release}),
+ * deci NU e nevoie de lock per operație — {@link ChannelSftp} rămâne folosit dintr-un singur
+ * thread la un moment dat. Concurența e dată de numărul de canale, nu de partajarea lor.
+ * <p>
+ * Canalele moarte (deconectate între timp) sunt eliminate la release și redeschise
+ * lazy la următorul borrow, cât timp sesiunea SSH e activă.
+ */
+class SftpChannelPool {
+
+    private static final Logger LOGGER = Logger.getLogger(SftpChannelPool.class.getName());
+
+    /** Cât așteaptă un borrow între verificările de închidere a pool-ului. */
+    private static final long BORROW_POLL_MS = 500;
+
+    private final Session session;
+    private final int requestedSize;
+
+    /** Numărul de canale efectiv deschise la {@link #open()} — poate fi sub cel cerut. */
+    private volatile int capacity;
+    private final LinkedBlockingQueue<ChannelSftp> idle = new LinkedBlockingQueue<>();
+    private final List<ChannelSftp> all = new ArrayList<>();
+    /** Canale în curs de redeschidere — ocupă un loc din capacitate (sub lock pe {@code all}). */
+    private int reopening;
+    private volatile boolean closed = false;
+
+    SftpChannelPool(Session session, int size) {
+        this.session = session;
+        this.requestedSize = size;
+    }
+
+    /**
+     * Deschide toate canalele. Dacă serverul refuză canale suplimentare
+     * (MaxSessions), pool-ul continuă cu câte a reușit să deschidă — minim unul.
+     */
+    void open() throws JSchException {
+        JSchException lastError = null;
+
+        for (int i = 0; i < requestedSize; i++) {
+            try {
+                ChannelSftp channel = openChannel();
+                synchronized (all) { all.add(channel); }
+                idle.add(channel);
+            } catch (JSchException e) {
+                lastError = e;
+                LOGGER.log(Level.WARNING, "Could not open SFTP channel " + (i + 1) + "/" + requestedSize, e);
+                break;
+            }
+        }
+
+        if (idle.isEmpty()) {
+            throw lastError != null ? lastError : new JSchException("No SFTP channel available");
+        }
+        capacity = idle.size();
+    }
+
+    /**
+     * Împrumută un canal liber; blochează până când unul devine disponibil.
+     *
+     * @throws SftpException dacă pool-ul a fost închis (deconectare) în timpul așteptării,
+     *                       sau {@code SSH_FX_FAILURE} dacă thread-ul a fost întrerupt
+     */
+    ChannelSftp borrow() throws SftpException {
+        while (!closed) {
+            try {
+                ChannelSftp channel = idle.poll(BORROW_POLL_MS, TimeUnit.MILLISECONDS);
+                if (channel == null) {
+                    channel = reopenIfBelowCapacity();
+                }
+                if (channel != null) {
+                    return channel;
+                }
+            } catch (InterruptedException e) {
+                // Worker anulat, nu conexiune pierdută — nu raportăm SSH_FX_NO_CONNECTION
+                Thread.currentThread().interrupt();
+                throw new SftpException(ChannelSftp.SSH_FX_FAILURE, "Interrupted while waiting for an SFTP channel", e);
+            }
+        }
+        throw new SftpException(ChannelSftp.SSH_FX_NO_CONNECTION, "SFTP channel pool is closed");
+    }
+
+    /** Returnează canalul în pool. Canalele deconectate sunt eliminate definitiv. */
+    void release(ChannelSftp channel) {
+        if (channel == null) return;
+
+        if (closed || !channel.isConnected()) {
+            synchronized (all) { all.remove(channel); }
+            channel.disconnect();
+            return;
+        }
+        idle.add(channel);
+    }
+
+    int size() {
+        return Math.max(1, capacity);
+    }
+
+    void close() {
+        closed = true;
+        synchronized (all) {
+            for (ChannelSftp channel : all) {
+                if (channel.isConnected()) {
+                    channel.disconnect();
+                }
+            }
+            all.clear();
+        }
+        idle.clear();
+    }
+
+    /**
+     * Înlocuiește un canal eliminat anterior (ex: închis de server după o eroare),
+     * doar dacă pool-ul a scăzut sub capacitate și sesiunea e încă activă.
+     * <p>
+     * Locul e rezervat sub lock, dar canalul e deschis în afara lui — un round-trip lent
+     * nu blochează {@link #release} sau {@link #close()}.
+     */
+    private ChannelSftp reopenIfBelowCapacity() {
+        synchronized (all) {
+            if (closed || all.size() + reopening >= capacity || !session.isConnected()) {
+                return null;
+            }
+            reopening++;
+        }
+
+        ChannelSftp channel = null;
+        try {
+            channel = openChannel();
+        } catch (JSchException e) {
+            LOGGER.log(Level.FINE, "Could not reopen SFTP channel", e);
+        }
+
+        synchronized (all) {
+            reopening--;
+            if (channel == null) return null;
+            if (closed) {
+                channel.disconnect();
+                return null;
+            }
+            all.add(channel);
+            return channel;
+        }
+    }
+
+    private ChannelSftp openChannel() throws JSchException {
+        Channel channel = session.openChannel("sftp");
+        channel.connect();
+        return (ChannelSftp) channel;
+    }
+}
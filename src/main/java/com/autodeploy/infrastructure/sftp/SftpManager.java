@@ -1,10 +1,16 @@
 package com.autodeploy.infrastructure.sftp;
 
+import com.autodeploy.core.util.StringUtils;
 import com.autodeploy.domain.model.Server;
 import com.jcraft.jsch.*;
 
-import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
@@ -20,10 +26,20 @@ import java.util.logging.Logger;
  *   <li>Monitoring activ al conexiunii — detectează pierderea și notifică</li>
  * </ul>
  * <p>
- * <b>Thread safety:</b> Toate operațiile SFTP (put, get, cd, mkdir) sunt serializate
+ * <b>Thread safety:</b> Operațiile pe canalul SFTP principal (get, pwd) sunt serializate
  * prin {@code sftpLock}. JSch {@link ChannelSftp} NU este thread-safe — accesul
- * concurent corup starea internă a canalului. Comenzile SSH (exec) folosesc
- * canale separate per-execuție și nu necesită lock.
+ * concurent corup starea internă a canalului. Upload-urile folosesc un
+ * {@link SftpChannelPool} separat: fiecare thread împrumută exclusiv un canal,
+ * deci până la {@link Server#getSftpChannels()} fișiere se transferă în paralel.
+ * Comenzile SSH (exec) folosesc canale separate per-execuție și nu necesită lock.
+ * <p>
+ * <b>Progres:</b> fiecare upload/download e urmărit de un {@link TransferProgress}
+ * (viteză, ETA, latență), raportat {@link TransferListener}-ului setat și înregistrat
+ * în {@link ThroughputStats} pentru server.
+ * <p>
+ * <b>Metadate:</b> directoarele confirmate și rezultatele stat sunt ținute în
+ * {@link RemoteMetadataCache} pe durata sesiunii — un upload într-un director deja
+ * văzut nu mai face niciun cd/mkdir.
  * <p>
  * <b>Lifecycle:</b> Instanțele sunt create și distruse de {@link com.autodeploy.infrastructure.connection.ConnectionManager}.
  * La reconectare se creează un SftpManager complet nou.
@@ -37,13 +53,24 @@ public class SftpManager {
     private static final int KEEP_ALIVE_MAX_FAILURES = 3;
     private static final int MONITOR_INTERVAL_MS = 5_000;
     private static final int COMMAND_TIMEOUT_MS = 30_000;
+    private static final long SHELL_RETRY_DELAY_MS = 30_000;
 
     private Session session;
     private ChannelSftp sftpChannel;
+    private SftpChannelPool uploadPool;
     private final Server server;
     private Thread monitorThread;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private ConnectionStatusListener statusListener;
+    private final RemoteMetadataCache metadataCache = new RemoteMetadataCache();
+    private volatile boolean compressionEnabled;
+    private volatile TransferListener transferListener;
+
+    private volatile boolean persistentShellEnabled;
+    private volatile RemoteShell shell;
+    private volatile long shellRetryAt;
+    /** Serializează comenzile pe shell-ul persistent (un singur canal, protocol secvențial). */
+    private final ReentrantLock shellLock = new ReentrantLock();
 
     /**
      * Lock care serializează TOATE operațiile pe sftpChannel.
@@ -64,13 +91,37 @@ public class SftpManager {
      *   <li>StrictHostKeyChecking=no — necesar pentru servere interne fără known_hosts</li>
      *   <li>GSSAPI dezactivat complet — evită timeout-uri pe servere fără Kerberos</li>
      *   <li>Keep-alive la {KEEP_ALIVE_INTERVAL_MS}ms cu max {KEEP_ALIVE_MAX_FAILURES} eșecuri</li>
+     *   <li>Compresie zlib doar dacă a fost activată cu {@link #setCompressionEnabled}</li>
      * </ul>
      */
     public void connect() throws JSchException {
+        session = createSession(server, compressionEnabled);
+
+        LOGGER.info("Connecting to: " + server.getHost() + ":" + server.getPort()
+                + (compressionEnabled ? " (zlib)" : ""));
+        session.connect();
+
+        Channel channel = session.openChannel("sftp");
+        channel.connect();
+        sftpChannel = (ChannelSftp) channel;
+
+        uploadPool = new SftpChannelPool(session, server.getSftpChannels());
+        uploadPool.open();
+
+        LOGGER.info("SFTP connected to: " + server.getHost()
+                + " (" + uploadPool.size() + " upload channel(s))");
+        startConnectionMonitoring();
+    }
+
+    /**
+     * Creează (fără a conecta) o sesiune SSH configurată pentru server.
+     * Folosit și de {@link CompressionProbe} pentru sesiunile de măsurare.
+     */
+    static Session createSession(Server server, boolean compression) throws JSchException {
         JSch jsch = new JSch();
         JSch.setConfig("PreferredAuthentications", "password,keyboard-interactive,publickey");
 
-        session = jsch.getSession(server.getUsername(), server.getHost(), server.getPort());
+        Session session = jsch.getSession(server.getUsername(), server.getHost(), server.getPort());
         session.setPassword(server.getPassword());
 
         Properties config = new Properties();
@@ -81,26 +132,37 @@ public class SftpManager {
         config.put("GSSAPIDelegateCredentials", "no");
         config.put("GSSAPIKeyExchange", "no");
         config.put("GSSAPITrustDNS", "no");
+        if (compression) {
+            config.put("compression.s2c", "zlib@openssh.com,zlib,none");
+            config.put("compression.c2s", "zlib@openssh.com,zlib,none");
+            config.put("compression_level", "6");
+        }
         session.setConfig(config);
 
         session.setTimeout(CONNECTION_TIMEOUT_MS);
         session.setServerAliveInterval(KEEP_ALIVE_INTERVAL_MS);
         session.setServerAliveCountMax(KEEP_ALIVE_MAX_FAILURES);
+        return session;
+    }
 
-        LOGGER.info("Connecting to: " + server.getHost() + ":" + server.getPort());
-        session.connect();
-
-        Channel channel = session.openChannel("sftp");
-        channel.connect();
-        sftpChannel = (ChannelSftp) channel;
-
-        LOGGER.info("SFTP connected to: " + server.getHost());
-        startConnectionMonitoring();
+    /** Compresia se aplică la următorul {@link #connect()}. */
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
     }
 
+    public boolean isCompressionEnabled() { return compressionEnabled; }
+
     public void disconnect() {
         stopConnectionMonitoring();
 
+        RemoteShell currentShell = shell;
+        shell = null;
+        if (currentShell != null) {
+            currentShell.close();
+        }
+        if (uploadPool != null) {
+            uploadPool.close();
+        }
         if (sftpChannel != null && sftpChannel.isConnected()) {
             sftpChannel.disconnect();
         }
@@ -109,7 +171,9 @@ public class SftpManager {
         }
 
         sftpChannel = null;
+        uploadPool = null;
         session = null;
+        metadataCache.invalidateAll();
         LOGGER.info("SFTP disconnected from: " + server.getHost());
     }
 
@@ -186,41 +250,261 @@ public class SftpManager {
 
     /**
      * Upload atomic: creează directoarele remote dacă nu există,
-     * apoi transferă fișierul. Operația e serializată prin sftpLock.
+     * apoi transferă fișierul. Rulează pe un canal împrumutat din pool —
+     * apeluri concurente din thread-uri diferite se execută în paralel.
+     *
+     * @return progresul final al transferului (durată, viteză, latență)
      */
-    public void uploadFile(String localPath, String remotePath) throws SftpException {
+    public TransferProgress uploadFile(String localPath, String remotePath) throws SftpException {
         ensureConnected();
 
-        sftpLock.lock();
+        SftpChannelPool pool = uploadPool;
+        if (pool == null) {
+            throw new SftpException(ChannelSftp.SSH_FX_NO_CONNECTION, "Not connected to server");
+        }
+
+        ChannelSftp channel = pool.borrow();
+        TransferProgress progress = null;
         try {
-            ensureRemoteDirectory(remotePath.substring(0, remotePath.lastIndexOf('/')));
-            sftpChannel.put(localPath, remotePath);
+            progress = newTransfer(localPath, TransferProgress.Direction.UPLOAD, new File(localPath).length(), null);
+            ensureRemoteDirectory(channel, remotePath.substring(0, remotePath.lastIndexOf('/')));
+            TransferProgress tracked = progress;
+            retryIfDirectoryVanished(channel, remotePath, () -> {
+                channel.put(localPath, remotePath, tracked, ChannelSftp.OVERWRITE);
+                return null;
+            });
+            metadataCache.invalidate(remotePath);
             LOGGER.info("Uploaded: " + localPath + " → " + remotePath);
+            return progress;
         } finally {
-            sftpLock.unlock();
+            if (progress != null) progress.finish(false);
+            pool.release(channel);
         }
     }
 
-    public void downloadFile(String remotePath, String localPath) throws SftpException {
+    /**
+     * Upload reluabil pentru fișiere mari: scrie în {@code <remotePath>.part}, apoi îl
+     * mută peste destinație cu {@code mv -f} (rename-ul SFTP v3 eșuează dacă ținta există).
+     * <p>
+     * Cu {@code resume = true}, un {@code .part} rămas de la o încercare întreruptă e
+     * continuat (JSch RESUME trimite doar bytes-ii lipsă). Apelantul garantează că fișierul
+     * local e același ca la încercarea anterioară; altfel {@code .part} e suprascris.
+     *
+     * @param monitor monitor suplimentar, înlănțuit după {@link TransferProgress} (poate fi null)
+     * @return progresul final; {@link TransferProgress#getResumedFrom()} = bytes-ii care
+     *         existau deja pe server la pornire (0 = transfer de la zero)
+     */
+    public TransferProgress uploadFileResumable(String localPath, String remotePath, boolean resume,
+                                    SftpProgressMonitor monitor) throws Exception {
+        ensureConnected();
+
+        SftpChannelPool pool = uploadPool;
+        if (pool == null) {
+            throw new SftpException(ChannelSftp.SSH_FX_NO_CONNECTION, "Not connected to server");
+        }
+
+        String partPath = remotePath + ".part";
+        long resumedFrom = 0;
+
+        ChannelSftp channel = pool.borrow();
+        TransferProgress progress = null;
+        try {
+            progress = newTransfer(localPath, TransferProgress.Direction.UPLOAD, new File(localPath).length(), monitor);
+            ensureRemoteDirectory(channel, remotePath.substring(0, remotePath.lastIndexOf('/')));
+
+            int mode = ChannelSftp.OVERWRITE;
+            if (resume) {
+                resumedFrom = remoteSize(channel, partPath);
+                if (resumedFrom > 0 && resumedFrom <= new File(localPath).length()) {
+                    mode = ChannelSftp.RESUME;
+                    progress.resumeFrom(resumedFrom);
+                } else {
+                    resumedFrom = 0;
+                }
+            }
+
+            TransferProgress tracked = progress;
+            int putMode = mode;
+            retryIfDirectoryVanished(channel, partPath, () -> {
+                channel.put(localPath, partPath, tracked, putMode);
+                return null;
+            });
+        } finally {
+            if (progress != null) progress.finish(false);
+            metadataCache.invalidate(partPath);
+            pool.release(channel);
+        }
+
+        executeCommand("mv -f " + StringUtils.shellQuote(partPath) + " " + StringUtils.shellQuote(remotePath));
+        metadataCache.invalidate(remotePath);
+        LOGGER.info("Uploaded (resumable" + (resumedFrom > 0 ? ", resumed at " + resumedFrom : "")
+                + "): " + localPath + " → " + remotePath);
+        return progress;
+    }
+
+    /**
+     * Deschide un stream de upload către {@code remotePath}, pe un canal împrumutat din pool.
+     * Folosit când conținutul nu vine dintr-un fișier local propriu (ex: același buffer
+     * trimis simultan către mai multe servere).
+     * <p>
+     * Canalul rămâne ocupat până la {@link OutputStream#close()} — apelantul TREBUIE să
+     * închidă stream-ul, inclusiv pe calea de eroare.
+     *
+     * @param totalBytes dimensiunea anunțată pentru progres (0 = necunoscută)
+     */
+    public OutputStream openUploadStream(String remotePath, long totalBytes) throws SftpException {
+        ensureConnected();
+
+        SftpChannelPool pool = uploadPool;
+        if (pool == null) {
+            throw new SftpException(ChannelSftp.SSH_FX_NO_CONNECTION, "Not connected to server");
+        }
+
+        ChannelSftp channel = pool.borrow();
+        TransferProgress started = null;
+        try {
+            TransferProgress progress = started =
+                    newTransfer(remotePath, TransferProgress.Direction.UPLOAD, totalBytes, null);
+            ensureRemoteDirectory(channel, remotePath.substring(0, remotePath.lastIndexOf('/')));
+            OutputStream out = retryIfDirectoryVanished(channel, remotePath,
+                    () -> channel.put(remotePath, progress, ChannelSftp.OVERWRITE));
+
+            return new FilterOutputStream(out) {
+                private boolean closed;
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (closed) return;
+                    closed = true;
+                    try {
+                        super.close();
+                        LOGGER.fine("Uploaded (stream): " + remotePath);
+                    } finally {
+                        progress.finish(false);
+                        metadataCache.invalidate(remotePath);
+                        pool.release(channel);
+                    }
+                }
+            };
+        } catch (SftpException | RuntimeException e) {
+            if (started != null) started.finish(false);
+            metadataCache.invalidate(remotePath);
+            pool.release(channel);
+            throw e;
+        }
+    }
+
+    /** Size-ul unui fișier remote, 0 dacă nu există. */
+    private long remoteSize(ChannelSftp channel, String remotePath) {
+        try {
+            return channel.stat(remotePath).getSize();
+        } catch (SftpException e) {
+            return 0;
+        }
+    }
+
+    /** Numărul de upload-uri care pot rula simultan (canalele efectiv deschise în pool). */
+    public int getUploadParallelism() {
+        SftpChannelPool pool = uploadPool;
+        return pool != null ? pool.size() : 1;
+    }
+
+    /** @return progresul final al transferului (durată, viteză, latență) */
+    public TransferProgress downloadFile(String remotePath, String localPath) throws SftpException {
         ensureConnected();
         LOGGER.info("Downloading: " + remotePath + " → " + localPath);
 
+        TransferProgress progress = newTransfer(remotePath, TransferProgress.Direction.DOWNLOAD, 0, null);
         sftpLock.lock();
         try {
-            sftpChannel.get(remotePath, localPath);
+            sftpChannel.get(remotePath, localPath, progress);
             LOGGER.info("Downloaded successfully");
+            return progress;
+        } finally {
+            progress.finish(false);
+            sftpLock.unlock();
+        }
+    }
+
+    /**
+     * Începe urmărirea unui transfer. {@code totalBytes = 0} când dimensiunea nu e
+     * cunoscută încă — JSch o completează la {@code init()}.
+     */
+    private TransferProgress newTransfer(String path, TransferProgress.Direction direction,
+                                         long totalBytes, SftpProgressMonitor delegate) {
+        return new TransferProgress(server.getHost(), path, direction, totalBytes, delegate, transferListener);
+    }
+
+    /**
+     * Stat remote prin cache: un rezultat recent (inclusiv "nu există") e refolosit
+     * fără round-trip.
+     *
+     * @return atributele fișierului, sau null dacă nu există
+     */
+    public SftpATTRS stat(String remotePath) throws SftpException {
+        RemoteMetadataCache.CachedStat cached = metadataCache.getStat(remotePath);
+        if (cached != null) {
+            return cached.getAttrs();
+        }
+
+        ensureConnected();
+        sftpLock.lock();
+        try {
+            SftpATTRS attrs = sftpChannel.stat(remotePath);
+            metadataCache.putStat(remotePath, attrs);
+            return attrs;
+        } catch (SftpException e) {
+            if (e.id != ChannelSftp.SSH_FX_NO_SUCH_FILE) throw e;
+            metadataCache.putStat(remotePath, null);
+            return null;
+        } finally {
+            sftpLock.unlock();
+        }
+    }
+
+    /** Șterge un fișier remote și invalidează metadatele lui. */
+    public void removeFile(String remotePath) throws SftpException {
+        ensureConnected();
+        sftpLock.lock();
+        try {
+            sftpChannel.rm(remotePath);
         } finally {
+            metadataCache.invalidate(remotePath);
             sftpLock.unlock();
         }
     }
 
     /**
-     * Execută o comandă SSH remote pe un canal exec dedicat (separat de canalul SFTP).
+     * Cache-ul de metadate al sesiunii. Apelanții care modifică sistemul de fișiere
+     * prin exec (mv, tar, rm) trebuie să invalideze căile atinse.
+     */
+    public RemoteMetadataCache getMetadataCache() {
+        return metadataCache;
+    }
+
+    /**
+     * Execută o comandă SSH remote, separat de canalul SFTP.
+     * <p>
+     * Cu shell-ul persistent activ ({@link #setPersistentShellEnabled}), comenzile secvențiale
+     * refolosesc același canal ({@link RemoteShell}). Dacă shell-ul e ocupat cu altă comandă,
+     * apelul merge pe un canal exec dedicat (fără așteptare). Un shell căzut e închis și
+     * comanda e reluată pe exec când e sigur că nu a rulat; un nou shell e încercat
+     * după {@value #SHELL_RETRY_DELAY_MS} ms.
+     * <p>
+     * Nu necesită sftpLock. Timeout de {@value #COMMAND_TIMEOUT_MS} ms în ambele moduri.
+     *
      * <p>
-     * Nu necesită sftpLock — fiecare execuție deschide și închide propriul canal.
-     * Așteaptă finalizarea comenzii cu polling la 100ms, cu timeout de {COMMAND_TIMEOUT_MS}ms.
+     * Output-ul e întors complet sau deloc: peste limita {@link CommandOptions#DEFAULT_MAX_OUTPUT_BYTES}
+     * s-ar păstra doar finalul lui, iar apelanții îl parsează ca fiind întreg (listări, manifeste).
+     * Comenzile cu output mare folosesc {@link #executeAsync} și interpretează singure rezultatul.
      *
-     * @throws RuntimeException dacă comanda depășește timeout-ul sau returnează exit code != 0
+     * @throws RuntimeException dacă comanda depășește timeout-ul, returnează exit code != 0
+     *                          sau output-ul ei a fost trunchiat
      * @throws IllegalStateException dacă sesiunea SSH nu e conectată
      */
     public String executeCommand(String command) throws Exception {
@@ -230,42 +514,170 @@ public class SftpManager {
             throw new IllegalStateException("SSH session not connected");
         }
 
-        ChannelExec channel = null;
-        try {
-            channel = (ChannelExec) session.openChannel("exec");
-            channel.setCommand(command);
+        CommandResult result = executeOnShell(command);
+        if (result == null) {
+            result = executeOnExec(command);
+        }
+
+        LOGGER.fine("Command exit code: " + result.getExitCode());
 
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            ByteArrayOutputStream errorStream = new ByteArrayOutputStream();
-            channel.setOutputStream(outputStream);
-            channel.setErrStream(errorStream);
+        if (result.getExitCode() != 0 && !result.getError().isEmpty()) {
+            throw new RuntimeException("Command failed (exit " + result.getExitCode() + "): " + result.getError());
+        }
+        if (result.isTruncated()) {
+            throw new RuntimeException("Command output exceeded " + CommandOptions.DEFAULT_MAX_OUTPUT_BYTES
+                    + " bytes and was truncated");
+        }
 
-            channel.connect();
+        return result.getOutput();
+    }
 
-            long deadline = System.currentTimeMillis() + COMMAND_TIMEOUT_MS;
-            while (!channel.isClosed()) {
-                if (System.currentTimeMillis() > deadline) {
-                    throw new RuntimeException("Command timed out after " + COMMAND_TIMEOUT_MS + "ms");
+    /** Canal exec dedicat: deschis, rulat și închis pentru o singură comandă. */
+    private CommandResult executeOnExec(String command) throws Exception {
+        return await(RemoteCommand.start(session, command, CommandOptions.defaults(), null));
+    }
+
+    /**
+     * Rulează comanda pe shell-ul persistent.
+     *
+     * @return null dacă shell-ul e dezactivat, ocupat, indisponibil sau a căzut înainte
+     *         de a primi comanda — apelantul folosește exec
+     */
+    private CommandResult executeOnShell(String command) throws Exception {
+        if (!persistentShellEnabled || !shellLock.tryLock()) return null;
+        try {
+            RemoteShell current = shell;
+            if (current == null || current.isBroken()) {
+                current = openShell();
+                if (current == null) return null;
+            }
+
+            try {
+                return current.execute(command, COMMAND_TIMEOUT_MS, CommandOptions.DEFAULT_MAX_OUTPUT_BYTES);
+            } catch (RemoteShell.ShellBrokenException e) {
+                discardShell(current, e.getMessage());
+                if (e.isCommandSent()) {
+                    // Comanda poate să fi rulat — nu o repetăm
+                    throw new RuntimeException("Command interrupted: " + e.getMessage(), e);
                 }
-                Thread.sleep(100);
+                return null;
+            } catch (RuntimeException | InterruptedException e) {
+                // Timeout / întrerupere: comanda poate rula încă, protocolul e desincronizat
+                discardShell(current, String.valueOf(e.getMessage()));
+                throw e;
             }
+        } finally {
+            shellLock.unlock();
+        }
+    }
 
-            int exitCode = channel.getExitStatus();
-            String output = outputStream.toString("UTF-8");
-            String error = errorStream.toString("UTF-8");
+    /** Deschide shell-ul persistent, cel mult o dată la {@value #SHELL_RETRY_DELAY_MS} ms după un eșec. */
+    private RemoteShell openShell() {
+        if (System.currentTimeMillis() < shellRetryAt) return null;
+        try {
+            shell = RemoteShell.open(session);
+            return shell;
+        } catch (Exception e) {
+            LOGGER.warning("Persistent shell unavailable, using exec channels: " + e.getMessage());
+            shell = null;
+            shellRetryAt = System.currentTimeMillis() + SHELL_RETRY_DELAY_MS;
+            return null;
+        }
+    }
 
-            LOGGER.fine("Command exit code: " + exitCode);
+    private void discardShell(RemoteShell broken, String reason) {
+        LOGGER.warning("Persistent shell dropped (" + reason + "), falling back to exec channels");
+        broken.close();
+        if (shell == broken) shell = null;
+        shellRetryAt = System.currentTimeMillis() + SHELL_RETRY_DELAY_MS;
+    }
 
-            if (exitCode != 0 && !error.isEmpty()) {
-                throw new RuntimeException("Command failed (exit " + exitCode + "): " + error);
-            }
+    /**
+     * Shell persistent pentru {@link #executeCommand} — economisește deschiderea unui canal
+     * la fiecare comandă (ex: polling-ul de status la restart). Se aplică imediat.
+     */
+    public void setPersistentShellEnabled(boolean enabled) {
+        this.persistentShellEnabled = enabled;
+        if (!enabled) {
+            RemoteShell current = shell;
+            shell = null;
+            if (current != null) current.close();
+        }
+    }
 
-            return output;
+    /**
+     * Execută o comandă SSH alimentându-i stdin-ul din {@code input} (ex: un stream tar).
+     * <p>
+     * Stdin-ul e închis după ce {@code input} termină de scris — comanda primește EOF.
+     * Timeout-ul de {@value #COMMAND_TIMEOUT_MS} ms se aplică doar DUPĂ transfer, deci
+     * streamuri mari nu sunt întrerupte. Spre deosebire de {@link #executeCommand},
+     * nu aruncă la exit code != 0: apelantul primește output-ul parțial.
+     */
+    public CommandResult executeCommandWithInput(String command, StdinWriter input) throws Exception {
+        LOGGER.fine("Executing command with input: " + command);
 
-        } finally {
-            if (channel != null) {
-                channel.disconnect();
-            }
+        if (session == null || !session.isConnected()) {
+            throw new IllegalStateException("SSH session not connected");
+        }
+
+        CommandResult result = await(RemoteCommand.start(session, command, CommandOptions.defaults(), input));
+        LOGGER.fine("Command exit code: " + result.getExitCode());
+        return result;
+    }
+
+    /**
+     * Pornește o comandă remote pe un canal exec dedicat și întoarce imediat.
+     * <p>
+     * Spre deosebire de {@link #executeCommand}, exit code-ul nenul NU e o eroare — apelantul
+     * interpretează {@link CommandResult}. Future-ul eșuează cu {@link java.util.concurrent.TimeoutException}
+     * la timeout; {@code cancel()} închide canalul. Output-ul poate fi urmărit linie cu linie
+     * prin {@link CommandOptions}, iar cel reținut e limitat — potrivit pentru comenzi lungi
+     * sau cu output mare (ex: {@code tail -f}, build-uri remote).
+     *
+     * @throws IllegalStateException dacă sesiunea SSH nu e conectată
+     */
+    public CompletableFuture<CommandResult> executeAsync(String command, CommandOptions options) {
+        LOGGER.fine("Executing command (async): " + command);
+
+        Session current = session;
+        if (current == null || !current.isConnected()) {
+            throw new IllegalStateException("SSH session not connected");
+        }
+        return RemoteCommand.start(current, command, options, null);
+    }
+
+    /**
+     * Pornește o comandă remote de durată și întoarce canalul ei stdin/stdout, fără timeout.
+     * Canalul rămâne deschis până la {@link InteractiveCommand#close()} sau până se termină
+     * procesul remote; deconectarea sesiunii îl închide.
+     *
+     * @throws IllegalStateException dacă sesiunea SSH nu e conectată
+     */
+    public InteractiveCommand openInteractiveCommand(String command) throws JSchException, IOException {
+        LOGGER.fine("Opening interactive command: " + command);
+
+        Session current = session;
+        if (current == null || !current.isConnected()) {
+            throw new IllegalStateException("SSH session not connected");
+        }
+
+        ChannelExec channel = (ChannelExec) current.openChannel("exec");
+        channel.setCommand(command);
+        InteractiveCommand interactive = new InteractiveCommand(
+                channel, channel.getInputStream(), channel.getOutputStream());
+        channel.connect(CONNECTION_TIMEOUT_MS);
+        return interactive;
+    }
+
+    /** Așteaptă rezultatul; la întrerupere anulează comanda (închide canalul). */
+    private static CommandResult await(CompletableFuture<CommandResult> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw RemoteCommand.unwrapForCaller(e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
         }
     }
 
@@ -277,13 +689,18 @@ public class SftpManager {
 
     /**
      * Creează recursiv directoarele remote dacă nu există.
+     * Directoarele deja confirmate în sesiune sunt sărite fără niciun round-trip.
      * <p>
-     * <b>IMPORTANT:</b> Apelat doar din metode care deja dețin sftpLock!
-     * Nu achiziționează lock-ul singur — ar cauza deadlock.
+     * <b>IMPORTANT:</b> Apelantul trebuie să dețină accesul exclusiv la {@code channel}
+     * (sftpLock pentru canalul principal, sau canal împrumutat din pool).
+     * Un mkdir eșuat e ignorat — alt canal poate crea același director concurent.
      */
-    private void ensureRemoteDirectory(String path) {
+    private void ensureRemoteDirectory(ChannelSftp channel, String path) {
+        if (metadataCache.isKnownDirectory(path)) return;
+
         try {
-            sftpChannel.cd(path);
+            channel.cd(path);
+            metadataCache.markDirectory(path);
         } catch (SftpException e) {
             String[] folders = path.split("/");
             StringBuilder currentPath = new StringBuilder();
@@ -291,21 +708,57 @@ public class SftpManager {
             for (String folder : folders) {
                 if (folder.isEmpty()) continue;
                 currentPath.append("/").append(folder);
+                String current = currentPath.toString();
+                if (metadataCache.isKnownDirectory(current)) continue;
+
                 try {
-                    sftpChannel.cd(currentPath.toString());
+                    channel.cd(current);
+                    metadataCache.markDirectory(current);
                 } catch (SftpException ex) {
                     try {
-                        sftpChannel.mkdir(currentPath.toString());
-                        sftpChannel.cd(currentPath.toString());
+                        channel.mkdir(current);
+                        channel.cd(current);
+                        metadataCache.invalidate(current);
+                        metadataCache.markDirectory(current);
                     } catch (SftpException ignored) {}
                 }
             }
         }
     }
 
+    /**
+     * Rulează un put; la {@code SSH_FX_NO_SUCH_FILE} directorul părinte a dispărut după ce a
+     * fost confirmat în cache (ex: șters de alt utilizator sau de un script) — e uitat,
+     * recreat și put-ul e reîncercat o singură dată.
+     */
+    private <T> T retryIfDirectoryVanished(ChannelSftp channel, String remotePath, SftpPut<T> put)
+            throws SftpException {
+        try {
+            return put.run();
+        } catch (SftpException e) {
+            if (e.id != ChannelSftp.SSH_FX_NO_SUCH_FILE) throw e;
+
+            String dir = remotePath.substring(0, remotePath.lastIndexOf('/'));
+            LOGGER.info("Remote directory missing, recreating and retrying: " + dir);
+            metadataCache.forgetDirectory(dir);
+            ensureRemoteDirectory(channel, dir);
+            return put.run();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SftpPut<T> {
+        T run() throws SftpException;
+    }
+
     public ChannelSftp getSftpChannel() { return sftpChannel; }
     public Server getServer() { return server; }
 
+    /** Listener-ul pentru transferurile pornite de acum înainte (null = fără notificări). */
+    public void setTransferListener(TransferListener listener) {
+        this.transferListener = listener;
+    }
+
     public void setConnectionStatusListener(ConnectionStatusListener listener) {
         this.statusListener = listener;
     }
@@ -313,4 +766,10 @@ public class SftpManager {
     public interface ConnectionStatusListener {
         void onConnectionLost();
     }
+
+    /** Producătorul conținutului pentru stdin-ul unei comenzi ({@link #executeCommandWithInput}). */
+    @FunctionalInterface
+    public interface StdinWriter {
+        void writeTo(OutputStream stdin) throws IOException;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,80 @@
+package com.autodeploy.infrastructure.sftp;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Statistici de throughput per server, pe ultimele {@value #WINDOW_SIZE} transferuri complete.
+ * <p>
+ * Fiecare transfer contribuie cu două mărimi separate:
+ * <ul>
+ *   <li><b>latența</b> — timpul până la primul byte (cd/mkdir/open pe server)</li>
+ *   <li><b>throughput-ul</b> — bytes / durata transferului propriu-zis</li>
+ * </ul>
+ * Astfel un batch de JSP-uri mici nu trage în jos throughput-ul estimat pentru un JAR mare,
+ * iar estimarea unui fișier nou e {@code latență medie + size / throughput}.
+ * <p>
+ * Instanțele sunt globale pe durata aplicației (cheie: host) — supraviețuiesc reconectărilor
+ * și sunt partajate de toate ferestrele care lucrează cu același server. Thread-safe.
+ */
+public final class ThroughputStats {
+
+    private static final int WINDOW_SIZE = 20;
+
+    /** Transferurile mai mici de atât sunt dominate de latență — nu intră în throughput. */
+    private static final long MIN_THROUGHPUT_SAMPLE_BYTES = 64 * 1024;
+
+    private static final Map<String, ThroughputStats> BY_HOST = new ConcurrentHashMap<>();
+
+    private final Deque<Sample> samples = new ArrayDeque<>();
+
+    private ThroughputStats() {}
+
+    public static ThroughputStats forHost(String host) {
+        return BY_HOST.computeIfAbsent(host, h -> new ThroughputStats());
+    }
+
+    /** Înregistrează un transfer complet; cel mai vechi iese din fereastră. */
+    synchronized void record(long bytes, long transferMillis, long latencyMillis) {
+        samples.addLast(new Sample(bytes, Math.max(transferMillis, 1), Math.max(latencyMillis, 0)));
+        while (samples.size() > WINDOW_SIZE) {
+            samples.removeFirst();
+        }
+    }
+
+    public synchronized int getSampleCount() {
+        return samples.size();
+    }
+
+    /** Throughput-ul mediu (ponderat după bytes), sau 0 dacă nu există încă date. */
+    public synchronized double getBytesPerSecond() {
+        long bytes = 0;
+        long millis = 0;
+        for (Sample sample : samples) {
+            if (sample.bytes < MIN_THROUGHPUT_SAMPLE_BYTES) continue;
+            bytes += sample.bytes;
+            millis += sample.transferMillis;
+        }
+        return millis > 0 ? bytes * 1000.0 / millis : 0;
+    }
+
+    /** Latența medie per fișier (ms), sau 0 dacă nu există încă date. */
+    public synchronized double getMeanLatencyMillis() {
+        return samples.stream().mapToLong(Sample::latencyMillis).average().orElse(0);
+    }
+
+    /**
+     * Durata estimată pentru un transfer de {@code bytes}, pe baza ferestrei curente.
+     *
+     * @return milisecunde, sau -1 dacă nu există încă un throughput măsurat
+     */
+    public long estimateMillis(long bytes) {
+        double bytesPerSecond = getBytesPerSecond();
+        if (bytesPerSecond <= 0) return -1;
+        return Math.round(getMeanLatencyMillis() + bytes * 1000.0 / bytesPerSecond);
+    }
+
+    private record Sample(long bytes, long transferMillis, long latencyMillis) {}
+}
@@ -0,0 +1,18 @@
+package com.autodeploy.infrastructure.sftp;
+
+/**
+ * Observă transferurile SFTP ale unui {@link SftpManager} (upload și download).
+ * <p>
+ * Apelurile vin de pe thread-urile de transfer (worker-ii de upload, thread-ul de download),
+ * nu de pe JavaFX Application Thread. {@link #onTransferProgress} e throttled de
+ * {@link TransferProgress} — implementările UI trebuie totuși să coalesceze actualizările.
+ */
+public interface TransferListener {
+
+    void onTransferStarted(TransferProgress transfer);
+
+    void onTransferProgress(TransferProgress transfer);
+
+    /** @param completed true dacă toți bytes-ii au ajuns; false la eroare/întrerupere */
+    void onTransferFinished(TransferProgress transfer, boolean completed);
+}
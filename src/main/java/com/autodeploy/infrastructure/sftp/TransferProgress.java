@@ -0,0 +1,172 @@
+package com.autodeploy.infrastructure.sftp;
+
+import com.jcraft.jsch.SftpProgressMonitor;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Progresul unui singur transfer SFTP: bytes, viteză, ETA și latența până la primul byte.
+ * <p>
+ * Creat de {@link SftpManager} înainte de pregătirea transferului (cd/mkdir/open), deci
+ * latența măsurată include round-trip-urile de setup — exact costul fix per fișier.
+ * Poate înlănțui un alt {@link SftpProgressMonitor} (ex: contorul de resume al job-ului).
+ * <p>
+ * La final, un transfer complet e înregistrat în {@link ThroughputStats} pentru server.
+ * Transferurile eșuate nu intră în statistici.
+ */
+public final class TransferProgress implements SftpProgressMonitor {
+
+    public enum Direction { UPLOAD, DOWNLOAD }
+
+    /** Intervalul minim între două notificări de progres către listener. */
+    private static final long NOTIFY_INTERVAL_MS = 200;
+
+    private final String host;
+    private final String fileName;
+    private final Direction direction;
+    private final SftpProgressMonitor delegate;
+    private final TransferListener listener;
+
+    private final long startNanos = System.nanoTime();
+    private volatile long totalBytes;
+    private volatile long transferredBytes;
+    private volatile long resumedFrom;
+    private volatile boolean skipPending;
+    private volatile long firstByteNanos;
+    private volatile long lastActivityNanos = startNanos;
+    private volatile long endNanos;
+    private volatile long lastNotifyNanos;
+    private volatile boolean completed;
+    private final AtomicBoolean finished = new AtomicBoolean(false);
+
+    TransferProgress(String host, String path, Direction direction, long totalBytes,
+                     SftpProgressMonitor delegate, TransferListener listener) {
+        this.host = host;
+        this.fileName = path.substring(Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\')) + 1);
+        this.direction = direction;
+        this.totalBytes = totalBytes;
+        this.delegate = delegate;
+        this.listener = listener;
+
+        if (listener != null) listener.onTransferStarted(this);
+    }
+
+    /**
+     * Transferul continuă un {@code .part} existent: primii {@code offset} bytes nu trec prin
+     * rețea. JSch raportează offset-ul printr-un singur {@code count()} inițial — acesta nu
+     * intră în viteză și nici în latență.
+     */
+    void resumeFrom(long offset) {
+        this.resumedFrom = offset;
+        this.skipPending = offset > 0;
+    }
+
+    @Override
+    public void init(int op, String src, String dest, long max) {
+        if (max > 0) totalBytes = max;
+        if (delegate != null) delegate.init(op, src, dest, max);
+    }
+
+    @Override
+    public boolean count(long count) {
+        long now = System.nanoTime();
+        if (skipPending && count == resumedFrom) {
+            skipPending = false;
+        } else if (firstByteNanos == 0) {
+            skipPending = false;
+            firstByteNanos = now;
+        }
+        transferredBytes += count;
+        lastActivityNanos = now;
+
+        if (listener != null && now - lastNotifyNanos >= NOTIFY_INTERVAL_MS * 1_000_000) {
+            lastNotifyNanos = now;
+            listener.onTransferProgress(this);
+        }
+        return delegate == null || delegate.count(count);
+    }
+
+    @Override
+    public void end() {
+        if (delegate != null) delegate.end();
+        finish(totalBytes <= 0 || transferredBytes >= totalBytes);
+    }
+
+    /**
+     * Închide transferul (idempotent). Apelat de {@link #end()} și de {@link SftpManager}
+     * când put/get aruncă excepție — JSch nu mai apelează {@code end()} în acel caz.
+     */
+    void finish(boolean completed) {
+        if (!finished.compareAndSet(false, true)) return;
+
+        this.completed = completed;
+        this.endNanos = System.nanoTime();
+
+        if (completed && getNetworkBytes() > 0) {
+            ThroughputStats.forHost(host).record(getNetworkBytes(), getTransferMillis(), getLatencyMillis());
+        }
+        if (listener != null) listener.onTransferFinished(this, completed);
+    }
+
+    public String getHost() { return host; }
+    public String getFileName() { return fileName; }
+    public Direction getDirection() { return direction; }
+    public long getTotalBytes() { return totalBytes; }
+    public long getTransferredBytes() { return transferredBytes; }
+    public long getResumedFrom() { return resumedFrom; }
+    public boolean isFinished() { return finished.get(); }
+    public boolean isCompleted() { return completed; }
+
+    /** Bytes efectiv trimiși prin rețea (fără porțiunea reluată). */
+    public long getNetworkBytes() {
+        return Math.max(transferredBytes - (skipPending ? 0 : resumedFrom), 0);
+    }
+
+    /** Fracția completă, 0..1 (0 dacă dimensiunea totală nu e cunoscută). */
+    public double getFraction() {
+        return totalBytes > 0 ? Math.min((double) transferredBytes / totalBytes, 1.0) : 0;
+    }
+
+    public long getElapsedMillis() {
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return (end - startNanos) / 1_000_000;
+    }
+
+    /** Timpul până la primul byte (setup-ul transferului); până atunci, timpul scurs. */
+    public long getLatencyMillis() {
+        long firstByte = firstByteNanos;
+        return firstByte != 0 ? (firstByte - startNanos) / 1_000_000 : getElapsedMillis();
+    }
+
+    /** Durata transferului propriu-zis, de la primul byte. */
+    public long getTransferMillis() {
+        long firstByte = firstByteNanos;
+        if (firstByte == 0) return 0;
+        long end = endNanos != 0 ? endNanos : System.nanoTime();
+        return (end - firstByte) / 1_000_000;
+    }
+
+    public double getBytesPerSecond() {
+        long millis = getTransferMillis();
+        return millis > 0 ? getNetworkBytes() * 1000.0 / millis : 0;
+    }
+
+    /**
+     * Timpul rămas estimat din viteza curentă; înainte de primul byte, din statisticile
+     * serverului. -1 dacă nu există nicio bază de estimare.
+     */
+    public long getEtaMillis() {
+        long remaining = Math.max(totalBytes - transferredBytes, 0);
+        double bytesPerSecond = getBytesPerSecond();
+        if (bytesPerSecond > 0) {
+            return Math.round(remaining * 1000.0 / bytesPerSecond);
+        }
+        return ThroughputStats.forHost(host).estimateMillis(remaining);
+    }
+
+    /** Milisecunde de la ultimul progres — baza pentru detecția transferurilor blocate. */
+    public long getIdleMillis() {
+        if (endNanos != 0) return 0;
+        return (System.nanoTime() - lastActivityNanos) / 1_000_000;
+    }
+}
@@ -32,12 +32,14 @@ import java.util.logging.Logger;
  * Extinde {@link AbstractNfxUndecoratedWindow} pentru a avea o fereastră transparentă
  * fără title bar nativ (decorațiile OS sunt eliminate complet).
  * <p>
- * Trei variante de notificare:
+ * Patru variante de notificare:
  * <ul>
  *   <li>{@link #showSimpleNotification} — text simplu, auto-close după 3.5s</li>
  *   <li>{@link #showDownloadSuccessNotification} — cu buton "Open With...", auto-close</li>
  *   <li>{@link #showRestartServerNotification} — importantă, cu buton "Reject", FĂR�� auto-close
  *       (user-ul trebuie să interacționeze sau să închidă manual)</li>
+ *   <li>{@link #showRestartNeededNotification} — după un deploy cu JAR-uri, cu buton "Restart",
+ *       fără auto-close</li>
  * </ul>
  * <p>
  * Fiecare instanță reprezintă o singură notificare. Pentru a afișa o notificare nouă,
@@ -135,6 +137,14 @@ public class NotificationController extends AbstractNfxUndecoratedWindow impleme
         show("Restart Server", message, "important", WIDTH_LARGE, HEIGHT_LARGE, false);
     }
 
+    /** Deploy-ul are nevoie de restart ca să fie activ — butonul pornește cererea de restart. */
+    public void showRestartNeededNotification(String message, Runnable onRestart) {
+        setMessageVisible(true);
+        setActionButton("Restart", onRestart);
+
+        show("Restart needed", message, "info", WIDTH_LARGE, HEIGHT_LARGE, false);
+    }
+
     /**
      * Metoda centrală de afișare. Configurează conținutul, stilul, dimensiunea,
      * poziția (colț dreapta-jos), și lansează animația fade-in.
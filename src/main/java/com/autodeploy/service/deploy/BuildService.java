@@ -44,6 +44,9 @@ public class BuildService {
     private final Consumer<String> logger;
     private final ApplicationConfig appConfig;
 
+    /** Procesul build-ului în curs, pentru {@link #cancelBuild()}. */
+    private volatile Process process;
+
     public BuildService(Project project, Consumer<String> logger) {
         this.project = project;
         this.logger = logger;
@@ -127,6 +130,18 @@ public class BuildService {
         }
     }
 
+    /**
+     * Oprește build-ul în curs, cu tot cu procesele pornite de script (Ant, JVM-ul lui).
+     * No-op dacă nu rulează niciun build. {@link #buildProject()} revine apoi cu eșec.
+     */
+    public void cancelBuild() {
+        Process running = process;
+        if (running == null) return;
+
+        running.descendants().forEach(ProcessHandle::destroyForcibly);
+        running.destroyForcibly();
+    }
+
     /**
      * Execută scriptul temporar ca proces extern.
      * Output-ul procesului e citit linie cu linie și trimis live către logger.
@@ -151,22 +166,27 @@ public class BuildService {
         log("-------------------------------");
 
         Process process = processBuilder.start();
+        this.process = process;
 
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                log(line);
+        try {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream()))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    log(line);
+                }
             }
-        }
 
-        boolean finished = process.waitFor(BUILD_TIMEOUT_MINUTES, TimeUnit.MINUTES);
-        if (!finished) {
-            process.destroyForcibly();
-            throw new RuntimeException("Build timed out after " + BUILD_TIMEOUT_MINUTES + " minutes");
-        }
+            boolean finished = process.waitFor(BUILD_TIMEOUT_MINUTES, TimeUnit.MINUTES);
+            if (!finished) {
+                process.destroyForcibly();
+                throw new RuntimeException("Build timed out after " + BUILD_TIMEOUT_MINUTES + " minutes");
+            }
 
-        return process.exitValue();
+            return process.exitValue();
+        } finally {
+            this.process = null;
+        }
     }
 
     /**
@@ -0,0 +1,76 @@
+package com.autodeploy.service.deploy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fișierele care au ajuns efectiv pe server într-un deploy, împărțite după efectul lor:
+ * <ul>
+ *   <li><b>restart</b> — JAR-uri: clasele noi se încarcă doar după restartul serverului</li>
+ *   <li><b>hot</b> — JSP-uri: serverul de aplicații le recompilează singur, fără restart</li>
+ * </ul>
+ * Clasificarea vine din {@link PathResolver#requiresRestart()}. Fișierele identice cu cele
+ * de pe server (sărite) și cele eșuate nu fac parte din change set.
+ */
+public class DeployChangeSet {
+
+    public static final DeployChangeSet EMPTY = new DeployChangeSet(List.of(), List.of());
+
+    private final List<String> restartFiles;
+    private final List<String> hotFiles;
+
+    private DeployChangeSet(List<String> restartFiles, List<String> hotFiles) {
+        this.restartFiles = List.copyOf(restartFiles);
+        this.hotFiles = List.copyOf(hotFiles);
+    }
+
+    static DeployChangeSet of(PathResolver pathResolver, List<String> uploadedFiles) {
+        if (uploadedFiles.isEmpty()) return EMPTY;
+        return pathResolver.requiresRestart()
+                ? new DeployChangeSet(uploadedFiles, List.of())
+                : new DeployChangeSet(List.of(), uploadedFiles);
+    }
+
+    /** Pentru upload-urile care nu trec printr-un {@link PathResolver} (ex: fan-out). */
+    static DeployChangeSet of(List<String> restartFiles, List<String> hotFiles) {
+        if (restartFiles.isEmpty() && hotFiles.isEmpty()) return EMPTY;
+        return new DeployChangeSet(restartFiles, hotFiles);
+    }
+
+    /** Change set-ul cumulat (ex: JAR + JSP din "Upload All", sau mai multe deploy-uri fără restart între ele). */
+    public static DeployChangeSet combine(DeployChangeSet first, DeployChangeSet second) {
+        if (first.isEmpty()) return second;
+        if (second.isEmpty()) return first;
+
+        List<String> restart = new ArrayList<>(first.restartFiles);
+        second.restartFiles.stream().filter(file -> !restart.contains(file)).forEach(restart::add);
+        List<String> hot = new ArrayList<>(first.hotFiles);
+        second.hotFiles.stream().filter(file -> !hot.contains(file)).forEach(hot::add);
+        return new DeployChangeSet(restart, hot);
+    }
+
+    public List<String> getRestartFiles() { return restartFiles; }
+    public List<String> getHotFiles() { return hotFiles; }
+
+    public boolean isEmpty() {
+        return restartFiles.isEmpty() && hotFiles.isEmpty();
+    }
+
+    /** Cel puțin un fișier are nevoie de restart ca să fie activ. */
+    public boolean requiresRestart() {
+        return !restartFiles.isEmpty();
+    }
+
+    /** Doar JSP-uri — serverul le preia fără restart. */
+    public boolean isHotOnly() {
+        return restartFiles.isEmpty() && !hotFiles.isEmpty();
+    }
+
+    /** Ex: "2 JAR(s), 5 JSP(s)". */
+    public String describe() {
+        List<String> parts = new ArrayList<>();
+        if (!restartFiles.isEmpty()) parts.add(restartFiles.size() + " JAR(s)");
+        if (!hotFiles.isEmpty()) parts.add(hotFiles.size() + " JSP(s)");
+        return parts.isEmpty() ? "no files" : String.join(", ", parts);
+    }
+}
@@ -0,0 +1,475 @@
+package com.autodeploy.service.deploy;
+
+import com.autodeploy.core.util.StringUtils;
+import com.autodeploy.domain.model.Project;
+import com.autodeploy.domain.model.Server;
+import com.autodeploy.infrastructure.sftp.CompressionProbe;
+import com.autodeploy.infrastructure.sftp.SftpManager;
+import com.autodeploy.infrastructure.sftp.TransferListener;
+import javafx.application.Platform;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Deploy fan-out: același set de fișiere trimis simultan pe mai multe servere,
+ * cu o singură citire de pe disc per fișier.
+ * <p>
+ * Arhitectura:
+ * <ul>
+ *   <li>Conexiunile sunt deschise în paralel; un server care nu se conectează e raportat
+ *       și exclus, restul continuă</li>
+ *   <li>Un singur <b>reader</b> citește fiecare fișier în blocuri de {@value #CHUNK_SIZE} bytes
+ *       și pune același bloc (partajat, read-only) în coada fiecărui server</li>
+ *   <li>Câte un <b>writer</b> per server golește coada într-un stream SFTP
+ *       ({@link SftpManager#openUploadStream})</li>
+ * </ul>
+ * Cozile sunt limitate la {@value #QUEUE_CAPACITY} blocuri: reader-ul avansează în ritmul celui
+ * mai lent server, iar memoria folosită e fixă. Durata totală e dată de cea mai lentă legătură,
+ * nu de numărul de servere.
+ * <p>
+ * Un writer care pierde conexiunea e scos din fan-out (fișierele rămase îi sunt raportate
+ * ca eșuate); ceilalți continuă. Fiecare fișier e scris în {@code <cale>.part} și mutat peste
+ * destinație doar după ultimul bloc; un fișier abandonat, eșuat sau întrerupt își șterge
+ * {@code .part}-ul, iar versiunea veche rămâne intactă. Fără skip pentru fișiere nemodificate,
+ * delta sau staging (acelea depind de starea fiecărui server).
+ * Manifestul remote ({@link RemoteArtifactManifest}) e actualizat cu hash-ul calculat
+ * în aceeași citire.
+ * <p>
+ * Rezultatul fiecărui server (cu fișierele ajunse efectiv, ca {@link DeployChangeSet}) e
+ * raportat la {@link #setOnServerDeployed callback} după încheierea deploy-ului.
+ */
+public class FanOutDeployService {
+
+    private static final Logger LOGGER = Logger.getLogger(FanOutDeployService.class.getName());
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int QUEUE_CAPACITY = 64;
+    private static final long OFFER_POLL_MS = 200;
+    /** Cât așteptăm writer-ele să-și curețe {@code .part}-urile după o întrerupere. */
+    private static final long WRITER_STOP_MS = 5_000;
+
+    private final Project project;
+    private final Consumer<String> logger;
+
+    private volatile UploadProgressListener progressListener;
+    private volatile TransferListener transferListener;
+    private volatile Consumer<ServerResult> onServerDeployed;
+
+    public FanOutDeployService(Project project, Consumer<String> logger) {
+        this.project = project;
+        this.logger = logger;
+    }
+
+    /** Progresul per server (batch = numele serverului). */
+    public void setUploadProgressListener(UploadProgressListener listener) {
+        this.progressListener = listener;
+    }
+
+    /** Progresul per transfer, aplicat sesiunilor deschise de fan-out. */
+    public void setTransferListener(TransferListener listener) {
+        this.transferListener = listener;
+    }
+
+    /** Apelat pe thread-ul deploy-ului cu rezultatul fiecărui server, la final. */
+    public void setOnServerDeployed(Consumer<ServerResult> onServerDeployed) {
+        this.onServerDeployed = onServerDeployed;
+    }
+
+    /**
+     * Trimite JAR-urile și JSP-urile date pe toate serverele. Blocant — rulează pe un thread de fundal.
+     *
+     * @param jarNames nume JAR (relative la {@code localJarPath})
+     * @param jspNames căi JSP relative (separator '/')
+     * @return un rezultat per server, în ordinea primită
+     */
+    public List<ServerResult> deploy(List<Server> servers, List<String> jarNames, List<String> jspNames) {
+        List<FanOutFile> files = new ArrayList<>();
+        jarNames.forEach(name -> files.add(new FanOutFile(name,
+                new File(project.getLocalJarPath(), name),
+                project.getRemoteJarPath() + "/" + name, true)));
+        jspNames.forEach(path -> files.add(new FanOutFile(path,
+                new File(project.getLocalJspPath(), path.replace("/", File.separator)),
+                project.getRemoteJspPath() + "/" + path, false)));
+
+        log("📡 Fan-out deploy: " + files.size() + " file(s) to " + servers.size() + " server(s)");
+        long start = System.currentTimeMillis();
+
+        List<Target> targets = connectAll(servers, files.size());
+        List<Target> live = targets.stream().filter(target -> target.sftpManager != null).toList();
+
+        if (!live.isEmpty()) {
+            List<Thread> writers = new ArrayList<>();
+            for (Target target : live) {
+                Thread writer = new Thread(target::writeLoop, "FanOut-" + target.server.getName());
+                writer.setDaemon(true);
+                writer.start();
+                writers.add(writer);
+            }
+
+            try {
+                for (FanOutFile file : files) {
+                    broadcastFile(file, live);
+                }
+                broadcast(Frame.DONE, live);
+                for (Thread writer : writers) {
+                    writer.join();
+                }
+            } catch (InterruptedException e) {
+                log("⚠ Fan-out deploy interrupted");
+                stopWriters(writers);
+                Thread.currentThread().interrupt();
+            } finally {
+                live.forEach(target -> target.sftpManager.disconnect());
+            }
+        }
+
+        List<ServerResult> results = targets.stream().map(Target::toResult).toList();
+        log("📡 Fan-out finished in " + (System.currentTimeMillis() - start) / 1000 + " s");
+        for (ServerResult result : results) {
+            log("  " + (result.isSuccess() ? "✓ " : "✗ ") + result.getServer().getName() + ": " + result.describe());
+        }
+
+        Consumer<ServerResult> callback = onServerDeployed;
+        if (callback != null) results.forEach(callback);
+        return results;
+    }
+
+    /**
+     * Oprește writer-ele blocate în coadă și le lasă să-și șteargă {@code .part}-ul
+     * înainte de deconectare.
+     */
+    private void stopWriters(List<Thread> writers) {
+        writers.forEach(Thread::interrupt);
+        long deadline = System.currentTimeMillis() + WRITER_STOP_MS;
+        try {
+            for (Thread writer : writers) {
+                writer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+        } catch (InterruptedException ignored) {
+            // a doua întrerupere: nu mai așteptăm curățenia
+        }
+    }
+
+    /** Deschide toate conexiunile în paralel; durata = cea mai lentă conectare. */
+    private List<Target> connectAll(List<Server> servers, int totalFiles) {
+        ExecutorService connectors = Executors.newFixedThreadPool(Math.max(1, servers.size()), runnable -> {
+            Thread thread = new Thread(runnable, "FanOut-Connect");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        List<Future<Target>> futures = new ArrayList<>();
+        for (Server server : servers) {
+            futures.add(connectors.submit(() -> connect(server, totalFiles)));
+        }
+
+        List<Target> targets = new ArrayList<>();
+        for (int i = 0; i < servers.size(); i++) {
+            try {
+                targets.add(futures.get(i).get());
+            } catch (Exception e) {
+                Target failed = new Target(servers.get(i), totalFiles);
+                failed.error = e.getMessage();
+                targets.add(failed);
+            }
+        }
+        connectors.shutdownNow();
+        return targets;
+    }
+
+    private Target connect(Server server, int totalFiles) {
+        Target target = new Target(server, totalFiles);
+        SftpManager sftpManager = new SftpManager(server);
+        try {
+            sftpManager.setCompressionEnabled(CompressionProbe.decide(server).isCompression());
+            sftpManager.setTransferListener(transferListener);
+            sftpManager.connect();
+            target.sftpManager = sftpManager;
+            log("  🔗 Connected: " + server.getName() + " (" + server.getHost() + ")");
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Fan-out connect failed: " + server.getHost(), e);
+            sftpManager.disconnect();
+            target.error = "connection failed: " + e.getMessage();
+            log("  ✗ Could not connect to " + server.getName() + ": " + e.getMessage());
+        }
+        return target;
+    }
+
+    /**
+     * Citește fișierul o singură dată și distribuie blocurile către toate serverele active.
+     * Hash-ul SHA-256 e calculat din aceleași blocuri și trimis odată cu marcajul de final.
+     */
+    private void broadcastFile(FanOutFile file, List<Target> targets) throws InterruptedException {
+        if (!file.local.isFile()) {
+            log("  ✗ File not found: " + file.name);
+            broadcast(Frame.missing(file), targets);
+            return;
+        }
+
+        MessageDigest digest = newDigest();
+        broadcast(Frame.start(file, file.local.length()), targets);
+        try (InputStream in = Files.newInputStream(file.local.toPath())) {
+            while (true) {
+                byte[] chunk = in.readNBytes(CHUNK_SIZE);
+                if (chunk.length == 0) break;
+                digest.update(chunk);
+                broadcast(Frame.data(chunk), targets);
+            }
+            broadcast(Frame.end(HexFormat.of().formatHex(digest.digest())), targets);
+        } catch (IOException e) {
+            log("  ✗ Could not read " + file.name + ": " + e.getMessage());
+            broadcast(Frame.abort(), targets);
+        }
+    }
+
+    /**
+     * Pune cadrul în coada fiecărui server activ. Blochează cât timp o coadă e plină —
+     * asta leagă ritmul reader-ului de cel mai lent server. Serverele căzute sunt sărite.
+     */
+    private void broadcast(Frame frame, List<Target> targets) throws InterruptedException {
+        for (Target target : targets) {
+            while (!target.dead && !target.queue.offer(frame, OFFER_POLL_MS, TimeUnit.MILLISECONDS)) {
+                // coada plină: așteptăm writer-ul (sau căderea lui)
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void log(String message) {
+        Platform.runLater(() -> logger.accept(message));
+    }
+
+    /** {@code requiresRestart} = JAR (activ după restart), altfel JSP preluat la cald. */
+    private record FanOutFile(String name, File local, String remotePath, boolean requiresRestart) {
+        String partPath() {
+            return remotePath + ".part";
+        }
+    }
+
+    /** Un mesaj din coada unui server: început de fișier, bloc de date, final, abandon sau sfârșit. */
+    private record Frame(Kind kind, FanOutFile file, long size, byte[] data, String sha256) {
+        enum Kind { START, DATA, END, ABORT, MISSING, DONE }
+
+        static final Frame DONE = new Frame(Kind.DONE, null, 0, null, null);
+
+        static Frame start(FanOutFile file, long size) { return new Frame(Kind.START, file, size, null, null); }
+        static Frame data(byte[] data) { return new Frame(Kind.DATA, null, 0, data, null); }
+        static Frame end(String sha256) { return new Frame(Kind.END, null, 0, null, sha256); }
+        static Frame abort() { return new Frame(Kind.ABORT, null, 0, null, null); }
+        static Frame missing(FanOutFile file) { return new Frame(Kind.MISSING, file, 0, null, null); }
+    }
+
+    /** Un server destinație: conexiunea, coada și contoarele lui. */
+    private final class Target {
+        private final Server server;
+        private final int totalFiles;
+        private final BlockingQueue<Frame> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+
+        private SftpManager sftpManager;
+        private volatile boolean dead;
+        private volatile String error;
+        private int successCount;
+        private int failCount;
+        private final List<String> restartFiles = new ArrayList<>();
+        private final List<String> hotFiles = new ArrayList<>();
+
+        Target(Server server, int totalFiles) {
+            this.server = server;
+            this.totalFiles = totalFiles;
+        }
+
+        /** Consumă coada până la {@link Frame#DONE} sau pierderea conexiunii. */
+        void writeLoop() {
+            FanOutFile current = null;
+            long currentSize = 0;
+            OutputStream out = null;
+
+            try {
+                while (true) {
+                    Frame frame = queue.take();
+                    switch (frame.kind()) {
+                        case START -> {
+                            current = frame.file();
+                            currentSize = frame.size();
+                            try {
+                                out = sftpManager.openUploadStream(current.partPath(), currentSize);
+                            } catch (Exception e) {
+                                out = null;
+                                if (fail(current, e)) return;
+                            }
+                        }
+                        case DATA -> {
+                            if (out == null) continue;
+                            try {
+                                out.write(frame.data());
+                            } catch (IOException e) {
+                                closeQuietly(out);
+                                out = null;
+                                if (fail(current, e)) return;
+                            }
+                        }
+                        case END -> {
+                            if (out == null) continue;
+                            try {
+                                out.close();
+                                publish(current);
+                                successCount++;
+                                (current.requiresRestart() ? restartFiles : hotFiles).add(current.name());
+                                RemoteArtifactManifest.forServer(server)
+                                        .recordUpload(current.remotePath(), currentSize, frame.sha256());
+                            } catch (Exception e) {
+                                if (fail(current, e)) return;
+                                continue;
+                            } finally {
+                                out = null;
+                            }
+                            reportProgress();
+                        }
+                        case ABORT -> {
+                            if (out != null) {
+                                closeQuietly(out);
+                                out = null;
+                                discardPart(current);
+                                RemoteArtifactManifest.forServer(server).invalidate(current.remotePath());
+                                failCount++;
+                                reportProgress();
+                            }
+                        }
+                        case MISSING -> {
+                            failCount++;
+                            reportProgress();
+                        }
+                        case DONE -> {
+                            return;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = "interrupted";
+            } finally {
+                if (out != null) {
+                    closeQuietly(out);
+                    discardPart(current);
+                    RemoteArtifactManifest.forServer(server).invalidate(current.remotePath());
+                }
+                UploadProgressListener listener = progressListener;
+                if (listener != null) listener.onBatchFinished(server.getName());
+            }
+        }
+
+        /**
+         * Înregistrează eșecul unui fișier. Dacă sesiunea a căzut, serverul iese din fan-out.
+         *
+         * @return true dacă writer-ul trebuie să se oprească
+         */
+        private boolean fail(FanOutFile file, Exception e) {
+            failCount++;
+            discardPart(file);
+            RemoteArtifactManifest.forServer(server).invalidate(file.remotePath());
+            log("  ✗ [" + server.getName() + "] " + file.name() + ": " + e.getMessage());
+            reportProgress();
+
+            if (sftpManager.isConnected()) return false;
+
+            dead = true;
+            error = "connection lost";
+            queue.clear();
+            log("  ⚠ [" + server.getName() + "] connection lost — server dropped from fan-out");
+            return true;
+        }
+
+        /** Mută {@code .part}-ul complet peste destinație ({@code mv -f}, ca la upload-ul reluabil). */
+        private void publish(FanOutFile file) throws Exception {
+            try {
+                sftpManager.executeCommand("mv -f " + StringUtils.shellQuote(file.partPath())
+                        + " " + StringUtils.shellQuote(file.remotePath()));
+            } finally {
+                sftpManager.getMetadataCache().invalidate(file.partPath());
+                sftpManager.getMetadataCache().invalidate(file.remotePath());
+            }
+        }
+
+        /** Best effort: fără conexiune, {@code .part}-ul rămâne și e suprascris la următorul deploy. */
+        private void discardPart(FanOutFile file) {
+            if (!sftpManager.isConnected()) return;
+            try {
+                sftpManager.removeFile(file.partPath());
+            } catch (Exception e) {
+                LOGGER.log(Level.FINE, "Could not remove " + file.partPath(), e);
+            }
+        }
+
+        private void reportProgress() {
+            UploadProgressListener listener = progressListener;
+            if (listener != null) {
+                listener.onBatchProgress(server.getName(), successCount + failCount, totalFiles);
+            }
+        }
+
+        private void closeQuietly(OutputStream out) {
+            try {
+                out.close();
+            } catch (IOException ignored) {}
+        }
+
+        ServerResult toResult() {
+            int notAttempted = Math.max(0, totalFiles - successCount - failCount);
+            int failed = sftpManager == null ? totalFiles : failCount + notAttempted;
+            return new ServerResult(server, new UploadResult(successCount, failed, 0, sftpManager == null || dead,
+                    DeployChangeSet.of(restartFiles, hotFiles)), error);
+        }
+    }
+
+    /** Rezultatul fan-out pentru un server. {@code error != null} = conexiune eșuată sau pierdută. */
+    public static final class ServerResult {
+        private final Server server;
+        private final UploadResult result;
+        private final String error;
+
+        private ServerResult(Server server, UploadResult result, String error) {
+            this.server = server;
+            this.result = result;
+            this.error = error;
+        }
+
+        public Server getServer() { return server; }
+        public UploadResult getResult() { return result; }
+        public String getError() { return error; }
+
+        public boolean isSuccess() {
+            return error == null && !result.hasFailures();
+        }
+
+        /** {@code 12 uploaded, 1 failed[ — connection lost]} */
+        public String describe() {
+            return result.getSuccessCount() + " uploaded, " + result.getFailCount() + " failed"
+                    + (error != null ? " — " + error : "");
+        }
+    }
+}
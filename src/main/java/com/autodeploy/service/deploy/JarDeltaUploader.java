@@ -0,0 +1,252 @@
+package com.autodeploy.service.deploy;
+
+import com.autodeploy.infrastructure.sftp.SftpManager;
+import com.autodeploy.service.utility.FileSizeFormatter;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import static com.autodeploy.core.util.StringUtils.shellQuote;
+
+/**
+ * Upload diferențial pentru JAR-uri mari: trimite doar intrările zip modificate.
+ * <p>
+ * Fluxul (2 exec-uri + 1 put, indiferent de mărimea JAR-ului):
+ * <ol>
+ *   <li>Exec: {@code unzip -v} pe JAR-ul remote → nume + CRC32 pentru fiecare intrare</li>
+ *   <li>Comparare cu central directory-ul JAR-ului local → intrări adăugate/modificate/șterse</li>
+ *   <li>Put: un zip mic cu intrările modificate</li>
+ *   <li>Exec: serverul reconstruiește JAR-ul într-o copie ({@code zip -d} + {@code zip -r}),
+ *       verifică integritatea ({@code unzip -t}) și îl mută peste cel vechi cu {@code mv -f}</li>
+ * </ol>
+ * <p>
+ * Delta e folosit doar când merită: JAR-ul local are cel puțin {@value #MIN_DELTA_FILE_SIZE} bytes,
+ * există deja pe server, serverul are zip/unzip, iar intrările modificate (comprimate) reprezintă
+ * sub {@value #MAX_DELTA_RATIO} din fișier. Altfel {@link DeltaResult#isApplied()} e false și
+ * apelantul face put complet.
+ */
+public class JarDeltaUploader {
+
+    private static final Logger LOGGER = Logger.getLogger(JarDeltaUploader.class.getName());
+
+    private static final long MIN_DELTA_FILE_SIZE = 1024 * 1024;
+    private static final double MAX_DELTA_RATIO = 0.5;
+    private static final String NO_TOOLS_MARKER = "AUTODEPLOY_NO_ZIP_TOOLS";
+
+    /**
+     * Linie din {@code unzip -v}: Length, Method, Size, Cmpr, Date, Time, CRC-32, Name.
+     * Numele e restul liniei după CRC (poate conține spații).
+     */
+    private static final Pattern UNZIP_LINE = Pattern.compile(
+            "^\\s*\\d+\\s+\\S+\\s+\\d+\\s+\\S+\\s+\\S+\\s+\\S+\\s+([0-9a-fA-F]{8})\\s+(.+)$");
+
+    /**
+     * Încearcă upload-ul diferențial al unui JAR.
+     * <p>
+     * JAR-ul de bază e {@code remotePath}; rezultatul e scris la {@code targetPath}
+     * (aceeași cale în modul direct, calea din staging în modul staged — vezi {@link StagingArea}).
+     *
+     * @return rezultatul; dacă {@code isApplied()} e false, JAR-ul remote NU a fost atins
+     * @throws Exception erori de transfer/exec — JAR-ul remote rămâne cel vechi (mv se face doar la final)
+     */
+    public DeltaResult upload(SftpManager sftpManager, File localJar,
+                              String remotePath, String targetPath) throws Exception {
+        if (localJar.length() < MIN_DELTA_FILE_SIZE) {
+            return DeltaResult.notApplied("file too small for delta");
+        }
+
+        String listing = sftpManager.executeCommand(buildListingCommand(remotePath));
+        if (listing.contains(NO_TOOLS_MARKER)) {
+            return DeltaResult.notApplied("zip/unzip not available on server");
+        }
+
+        Map<String, Long> remoteEntries = parseListing(listing);
+        if (remoteEntries.isEmpty()) {
+            return DeltaResult.notApplied("no readable copy on server");
+        }
+
+        try (ZipFile localZip = new ZipFile(localJar)) {
+            List<ZipEntry> changed = new ArrayList<>();
+            Map<String, Long> localEntries = new HashMap<>();
+            long changedBytes = 0;
+
+            Enumeration<? extends ZipEntry> entries = localZip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory()) continue;
+
+                localEntries.put(entry.getName(), entry.getCrc());
+                Long remoteCrc = remoteEntries.get(entry.getName());
+                if (remoteCrc == null || remoteCrc != entry.getCrc()) {
+                    changed.add(entry);
+                    changedBytes += Math.max(entry.getCompressedSize(), 0);
+                }
+            }
+
+            List<String> removed = remoteEntries.keySet().stream()
+                    .filter(name -> !localEntries.containsKey(name))
+                    .sorted()
+                    .toList();
+
+            if (changed.isEmpty() && removed.isEmpty()) {
+                return DeltaResult.identical();
+            }
+            if (changedBytes > localJar.length() * MAX_DELTA_RATIO) {
+                return DeltaResult.notApplied("delta too large ("
+                        + FileSizeFormatter.format(changedBytes) + ")");
+            }
+
+            applyDelta(sftpManager, localZip, changed, removed, remotePath, targetPath);
+            return DeltaResult.applied(changed.size(), removed.size(), changedBytes);
+        }
+    }
+
+    /**
+     * Încarcă zip-ul delta și reconstruiește JAR-ul pe server.
+     * Directorul de lucru ({@code <jar>.delta}) e șters indiferent de rezultat.
+     */
+    private void applyDelta(SftpManager sftpManager, ZipFile localZip, List<ZipEntry> changed,
+                            List<String> removed, String remotePath, String targetPath) throws Exception {
+        String workDir = remotePath + ".delta";
+        File deltaZip = File.createTempFile("autodeploy_delta_", ".zip");
+
+        try {
+            writeDeltaZip(localZip, changed, deltaZip);
+            sftpManager.uploadFile(deltaZip.getAbsolutePath(), workDir + "/delta.zip");
+            sftpManager.executeCommand(buildRebuildCommand(remotePath, targetPath, workDir,
+                    !changed.isEmpty(), removed));
+            sftpManager.getMetadataCache().invalidate(targetPath);
+            sftpManager.getMetadataCache().invalidate(workDir);
+        } catch (Exception e) {
+            cleanupRemote(sftpManager, workDir);
+            sftpManager.getMetadataCache().invalidate(workDir);
+            throw e;
+        } finally {
+            if (!deltaZip.delete()) {
+                deltaZip.deleteOnExit();
+            }
+        }
+    }
+
+    private void writeDeltaZip(ZipFile source, List<ZipEntry> entries, File target) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(target))) {
+            for (ZipEntry entry : entries) {
+                ZipEntry copy = new ZipEntry(entry.getName());
+                copy.setTime(entry.getTime());
+                out.putNextEntry(copy);
+                try (InputStream in = source.getInputStream(entry)) {
+                    in.transferTo(out);
+                }
+                out.closeEntry();
+            }
+        }
+    }
+
+    private String buildListingCommand(String remotePath) {
+        return "command -v zip >/dev/null 2>&1 && command -v unzip >/dev/null 2>&1"
+                + " || { echo " + NO_TOOLS_MARKER + "; exit 0; }; "
+                + "unzip -v " + shellQuote(remotePath) + " 2>/dev/null; true";
+    }
+
+    /**
+     * Reconstrucția remote rulează cu {@code set -e}: orice pas eșuat oprește scriptul
+     * ÎNAINTE de mv, deci JAR-ul original rămâne neatins.
+     */
+    private String buildRebuildCommand(String remotePath, String targetPath, String workDir,
+                                       boolean hasChanges, List<String> removed) {
+        String jar = shellQuote(remotePath);
+        String target = shellQuote(targetPath);
+        String work = shellQuote(workDir);
+
+        StringBuilder command = new StringBuilder("set -e; ");
+        command.append("cd ").append(work).append("; ");
+        command.append("rm -rf x new.jar; mkdir x; ");
+        command.append("cp -p ").append(jar).append(" new.jar; ");
+
+        if (!removed.isEmpty()) {
+            // -nw: numele sunt literale — "Foo$1.class" sau "[x].txt" nu sunt tratate ca wildcard-uri
+            command.append("zip -q -d -nw new.jar --");
+            removed.forEach(name -> command.append(' ').append(shellQuote(name)));
+            command.append("; ");
+        }
+        if (hasChanges) {
+            command.append("(cd x && unzip -q -o ../delta.zip && zip -q -r -D ../new.jar .); ");
+        }
+
+        command.append("unzip -tqq new.jar; ");
+        command.append("mkdir -p ").append(shellQuote(targetPath.substring(0, targetPath.lastIndexOf('/'))))
+                .append("; ");
+        command.append("mv -f new.jar ").append(target).append("; ");
+        command.append("cd / && rm -rf ").append(work);
+        return command.toString();
+    }
+
+    private void cleanupRemote(SftpManager sftpManager, String workDir) {
+        try {
+            sftpManager.executeCommand("rm -rf " + shellQuote(workDir));
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Could not clean up delta work dir " + workDir, e);
+        }
+    }
+
+    /** Nume intrare → CRC32, fără directoare. */
+    private Map<String, Long> parseListing(String listing) {
+        Map<String, Long> result = new HashMap<>();
+        for (String line : listing.split("\\r?\\n")) {
+            Matcher matcher = UNZIP_LINE.matcher(line);
+            if (!matcher.matches()) continue;
+
+            String name = matcher.group(2);
+            if (name.endsWith("/")) continue;
+            result.put(name, Long.parseLong(matcher.group(1), 16));
+        }
+        return result;
+    }
+
+    /** Rezultatul unei încercări de upload diferențial. */
+    public static final class DeltaResult {
+        private final boolean applied;
+        private final boolean written;
+        private final String description;
+
+        private DeltaResult(boolean applied, boolean written, String description) {
+            this.applied = applied;
+            this.written = written;
+            this.description = description;
+        }
+
+        static DeltaResult applied(int changedEntries, int removedEntries, long bytes) {
+            return new DeltaResult(true, true, changedEntries + " changed, " + removedEntries
+                    + " removed entries (" + FileSizeFormatter.format(bytes) + ")");
+        }
+
+        static DeltaResult identical() {
+            return new DeltaResult(true, false, "entries identical on server, nothing sent");
+        }
+
+        static DeltaResult notApplied(String reason) {
+            return new DeltaResult(false, false, reason);
+        }
+
+        /** true = JAR-ul remote e acum la zi (delta aplicat sau deja identic). */
+        public boolean isApplied() { return applied; }
+
+        /** true = un JAR reconstruit a fost scris la calea țintă. */
+        public boolean isWritten() { return written; }
+        public String getDescription() { return description; }
+    }
+}
@@ -0,0 +1,221 @@
+package com.autodeploy.service.deploy;
+
+import com.autodeploy.core.config.ApplicationConfig;
+import com.autodeploy.domain.model.Server;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Warm-up pentru JSP-urile tocmai uploadate: fiecare pagină e cerută o dată prin HTTP,
+ * ca serverul să o compileze înainte ca dezvoltatorul să o deschidă în browser.
+ * <p>
+ * Calea relativă a JSP-ului (ex: "pages/admin/index.jsp") e pusă sub URL-ul de bază
+ * ({@link ApplicationConfig#getJspWarmupBaseUrl}). Paginile sunt cerute concurent, pe cel mult
+ * {@link ApplicationConfig#getJspWarmupConcurrency()} thread-uri; fiecare pagină primește două GET-uri:
+ * <ul>
+ *   <li><b>primul</b> — include compilarea JSP-ului</li>
+ *   <li><b>al doilea</b> — timpul de răspuns al paginii deja compilate</li>
+ * </ul>
+ * Diferența dintre ele aproximează costul compilării. Fragmentele ({@code .jspf}) și alte
+ * fișiere nu sunt cerute — sunt compilate odată cu paginile care le includ.
+ * <p>
+ * Redirect-urile nu sunt urmate: o pagină care cere login nu ajunge să fie compilată, dar
+ * nici nu compilăm pagina de login de N ori.
+ */
+public class JspWarmupService {
+
+    private static final Logger LOGGER = Logger.getLogger(JspWarmupService.class.getName());
+
+    /** Peste atâtea pagini (ex: un upload al întregului proiect), restul rămân reci. */
+    static final int MAX_PAGES = 200;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    /** Compilarea unei pagini mari poate dura zeci de secunde. */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    private final Server server;
+    private final Consumer<String> logger;
+    private final ApplicationConfig appConfig;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    public JspWarmupService(Server server, Consumer<String> logger) {
+        this.server = server;
+        this.logger = logger;
+        this.appConfig = ApplicationConfig.getInstance();
+    }
+
+    public boolean isEnabled() {
+        return appConfig.isJspWarmupEnabled();
+    }
+
+    /** Pornește warm-up-ul pe un thread daemon. No-op dacă nu există pagini de cerut. */
+    public void warmUpAsync(List<String> jspPaths) {
+        if (jspPaths.stream().noneMatch(JspWarmupService::isPage)) return;
+
+        Thread thread = new Thread(() -> warmUp(jspPaths), "JSP-Warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Cere paginile și raportează în log timpii fiecăreia. Blochează până la final.
+     *
+     * @param jspPaths căile relative ale fișierelor uploadate (doar paginile {@code .jsp/.jspx} sunt cerute)
+     * @return rezultatul fiecărei pagini cerute, în ordinea primită
+     */
+    public List<PageResult> warmUp(List<String> jspPaths) {
+        List<String> pages = selectPages(jspPaths);
+        if (pages.isEmpty()) return List.of();
+
+        String baseUrl = appConfig.getJspWarmupBaseUrl(server.getHost());
+        int threads = Math.max(1, Math.min(appConfig.getJspWarmupConcurrency(), pages.size()));
+        log("🔥 Warming up " + pages.size() + " JSP page(s) on " + baseUrl
+                + (threads > 1 ? " (" + threads + " in parallel)..." : "..."));
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "JSP-Warmup-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.currentTimeMillis();
+        List<PageResult> results = new ArrayList<>();
+        try {
+            List<Future<PageResult>> futures = new ArrayList<>();
+            for (String page : pages) {
+                futures.add(pool.submit(() -> warmUpPage(page, toUrl(baseUrl, page))));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                PageResult result = awaitPage(futures.get(i), pages.get(i));
+                results.add(result);
+                log("  " + result.describe());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log("⚠ JSP warm-up cancelled");
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        long failed = results.stream().filter(result -> !result.isCompiled()).count();
+        log((failed == 0 ? "✓ " : "⚠ ") + "JSP warm-up done in " + (System.currentTimeMillis() - start) + " ms"
+                + (failed > 0 ? " — " + failed + " page(s) did not render" : ""));
+        return results;
+    }
+
+    /** Un eșec neașteptat al unei pagini e raportat doar pentru ea — restul paginilor continuă. */
+    private static PageResult awaitPage(Future<PageResult> future, String page) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            LOGGER.log(Level.WARNING, "JSP warm-up failed for " + page, cause);
+            return new PageResult(page, -1, -1, -1, cause.getMessage() != null ? cause.getMessage() : cause.toString());
+        }
+    }
+
+    private PageResult warmUpPage(String page, String url) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+
+            long coldStart = System.nanoTime();
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            long coldMs = (System.nanoTime() - coldStart) / 1_000_000;
+            if (status != 200) {
+                return new PageResult(page, status, coldMs, -1, null);
+            }
+
+            long warmStart = System.nanoTime();
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+            long warmMs = (System.nanoTime() - warmStart) / 1_000_000;
+            return new PageResult(page, status, coldMs, warmMs, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new PageResult(page, -1, -1, -1, "interrupted");
+        } catch (Exception e) {
+            LOGGER.log(Level.FINE, "Warm-up request failed for " + url, e);
+            return new PageResult(page, -1, -1, -1, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    /** Doar paginile care pot fi cerute direct, cel mult {@value #MAX_PAGES}. */
+    private List<String> selectPages(List<String> jspPaths) {
+        List<String> pages = jspPaths.stream().filter(JspWarmupService::isPage).toList();
+        if (pages.size() > MAX_PAGES) {
+            log("⚠ JSP warm-up limited to the first " + MAX_PAGES + " of " + pages.size() + " pages");
+            return pages.subList(0, MAX_PAGES);
+        }
+        return pages;
+    }
+
+    private static boolean isPage(String path) {
+        String lower = path.toLowerCase();
+        return lower.endsWith(".jsp") || lower.endsWith(".jspx");
+    }
+
+    /** "pages/my page.jsp" → "{base}/pages/my%20page.jsp" — fiecare segment e encodat separat. */
+    static String toUrl(String baseUrl, String relativePath) {
+        StringBuilder url = new StringBuilder(baseUrl.endsWith("/")
+                ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl);
+        for (String segment : relativePath.split("/")) {
+            if (segment.isEmpty()) continue;
+            url.append('/').append(URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+        return url.toString();
+    }
+
+    private void log(String message) {
+        logger.accept(message);
+    }
+
+    /**
+     * Rezultatul unei pagini. Timpii sunt în ms; -1 = cererea nu a avut loc.
+     * {@code compileMs} e aproximat ca diferența dintre primul și al doilea GET.
+     */
+    public record PageResult(String page, int status, long firstRequestMs, long warmRequestMs, String error) {
+
+        /** Pagina a răspuns cu 200 — e compilată și randată. */
+        public boolean isCompiled() {
+            return status == 200;
+        }
+
+        public long compileMs() {
+            return warmRequestMs >= 0 ? Math.max(0, firstRequestMs - warmRequestMs) : -1;
+        }
+
+        /** Ex: "✓ pages/index.jsp — 1840 ms (compile ~1790 ms, response 50 ms)". */
+        public String describe() {
+            if (error != null) {
+                return "✗ " + page + " — " + error;
+            }
+            if (!isCompiled()) {
+                return "⚠ " + page + " — HTTP " + status + " after " + firstRequestMs + " ms";
+            }
+            return "✓ " + page + " — " + firstRequestMs + " ms (compile ~" + compileMs()
+                    + " ms, response " + warmRequestMs + " ms)";
+        }
+    }
+}
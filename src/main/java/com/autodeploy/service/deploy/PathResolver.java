@@ -0,0 +1,34 @@
+package com.autodeploy.service.deploy;
+
+/**
+ * Strategie de rezolvare a căilor locale/remote și a indentării checkbox-urilor.
+ * JAR-urile au cale simplă (un singur nivel), JSP-urile păstrează structura de foldere.
+ */
+interface PathResolver {
+    String getLocalPath(String fileName);
+    String getRemotePath(String fileName);
+
+    /** Directorul remote față de care sunt relative numele fișierelor. */
+    String getRemoteRoot();
+
+    /** Indent-ul checkbox-ului în UI — JSP-urile au indent proporțional cu adâncimea folderului. */
+    int getCheckboxIndent(String fileName);
+
+    /** true dacă fișierele pot fi trimise diferențial ({@link JarDeltaUploader}). */
+    default boolean supportsDeltaUpload() {
+        return false;
+    }
+
+    /**
+     * true dacă fișierele devin active doar după restartul serverului (JAR-uri);
+     * false pentru cele preluate la cald (JSP-uri). Implicit true — varianta sigură.
+     */
+    default boolean requiresRestart() {
+        return true;
+    }
+
+    /** true dacă numele sunt căi relative la {@link #getRemoteRoot()} și pot fi trimise ca tar. */
+    default boolean supportsTarStream() {
+        return false;
+    }
+}
@@ -0,0 +1,276 @@
+package com.autodeploy.service.deploy;
+
+import com.autodeploy.domain.model.Project;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+import javafx.scene.control.CheckBox;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipFile;
+
+/**
+ * Build + deploy suprapuse: JAR-urile scrise de Ant sunt uploadate cât timp build-ul încă rulează.
+ * <p>
+ * Fluxul:
+ * <ol>
+ *   <li>Snapshot al {@code localJarPath} (size + lastModified) înainte de build</li>
+ *   <li>Build-ul rulează pe un thread separat; directorul e verificat la {@value #POLL_INTERVAL_MS}ms</li>
+ *   <li>Un JAR nou/modificat e pus în coada de upload când e <b>stabil</b>: aceeași amprentă
+ *       de cel puțin {@value #STABLE_FOR_MS}ms și arhivă zip completă (central directory
+ *       scris — Ant îl scrie ultimul)</li>
+ *   <li>Un thread de upload golește coada în batch-uri ({@link FileUploadService#uploadJarFiles}),
+ *       deci JAR-urile terminate simultan folosesc toate canalele SFTP</li>
+ *   <li>Un JAR reconstruit mai târziu în același build e repus în coadă</li>
+ *   <li>La finalul build-ului, JAR-urile rămase sunt trimise imediat (Ant a terminat de scris)</li>
+ * </ol>
+ * <p>
+ * Dacă build-ul eșuează, coada nu mai primește nimic — dar JAR-urile deja uploadate rămân pe
+ * server (sunt artefacte complete, dar dintr-un build care în final a eșuat). Dacă se pierde
+ * conexiunea, pipeline-ul oprește upload-urile; build-ul continuă, iar JAR-urile rămase
+ * apar selectate în listă pentru un upload manual.
+ */
+public class PipelinedDeployService {
+
+    private static final Logger LOGGER = Logger.getLogger(PipelinedDeployService.class.getName());
+
+    private static final long POLL_INTERVAL_MS = 1_000;
+    private static final long STABLE_FOR_MS = 2_000;
+    private static final String JAR_EXTENSION = ".jar";
+
+    /** Marcaj de sfârșit pentru coada de upload. */
+    private static final String END_OF_QUEUE = "";
+
+    private final Project project;
+    private final BuildService buildService;
+    private final FileUploadService fileUploadService;
+    private final Consumer<String> logger;
+
+    private volatile Consumer<UploadResult> onUploadFinished;
+
+    public PipelinedDeployService(Project project, BuildService buildService,
+                                  FileUploadService fileUploadService, Consumer<String> logger) {
+        this.project = project;
+        this.buildService = buildService;
+        this.fileUploadService = fileUploadService;
+        this.logger = logger;
+    }
+
+    /** Apelat pe thread-ul de upload după fiecare batch de JAR-uri trimis în timpul build-ului. */
+    public void setOnUploadFinished(Consumer<UploadResult> onUploadFinished) {
+        this.onUploadFinished = onUploadFinished;
+    }
+
+    public Task<BuildResult> buildAndDeployAsync(Map<String, CheckBox> jarCheckBoxMap) {
+        return new Task<>() {
+            @Override
+            protected BuildResult call() throws Exception {
+                return buildAndDeploy(jarCheckBoxMap);
+            }
+        };
+    }
+
+    /**
+     * Rulează build-ul și upload-urile suprapuse; revine după ce ambele s-au terminat.
+     * O întrerupere oprește procesul Ant și upload-urile rămase în coadă (batch-ul în curs
+     * se termină).
+     *
+     * @return rezultatul build-ului
+     */
+    public BuildResult buildAndDeploy(Map<String, CheckBox> jarCheckBoxMap) throws Exception {
+        File jarDir = new File(project.getLocalJarPath());
+        Pipeline pipeline = new Pipeline(jarDir, scan(jarDir), jarCheckBoxMap);
+
+        log("⏩ Pipelined build: JARs are uploaded as soon as Ant finishes writing them");
+        long start = System.currentTimeMillis();
+
+        FutureTask<BuildResult> build = new FutureTask<>(buildService::buildProject);
+        Thread buildThread = new Thread(build, "Ant-Build");
+        buildThread.setDaemon(true);
+        buildThread.start();
+        pipeline.startUploader();
+
+        try {
+            while (!build.isDone()) {
+                Thread.sleep(POLL_INTERVAL_MS);
+                pipeline.poll(false);
+            }
+        } catch (InterruptedException e) {
+            buildService.cancelBuild();
+            build.cancel(true);
+            pipeline.stopped.set(true);
+            log("⏹ Pipelined build cancelled — Ant stopped, no further JARs will be uploaded");
+            throw e;
+        } finally {
+            try {
+                if (build.isDone() && !build.isCancelled() && build.get().isSuccess()) {
+                    pipeline.poll(true);
+                } else if (!build.isCancelled()) {
+                    log("⚠ Build did not succeed — no further JARs will be uploaded");
+                }
+            } finally {
+                pipeline.finish();
+            }
+        }
+
+        BuildResult result = build.get();
+        log("⏩ Pipelined build finished in " + (System.currentTimeMillis() - start) / 1000 + " s — "
+                + pipeline.uploadedDuringBuild.get() + " JAR(s) uploaded during the build, "
+                + pipeline.uploadedAfterBuild.get() + " after");
+        return result;
+    }
+
+    /** Starea unei rulări: amprentele cunoscute, candidații în curs de stabilizare și coada. */
+    private final class Pipeline {
+        private final File jarDir;
+        private final Map<String, Fingerprint> baseline;
+        private final Map<String, CheckBox> jarCheckBoxMap;
+
+        /** Amprenta la momentul punerii în coadă — o schimbare ulterioară = rebuild. */
+        private final Map<String, Fingerprint> queued = new HashMap<>();
+        private final Map<String, Candidate> candidates = new HashMap<>();
+
+        private final BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+        private final AtomicBoolean buildFinished = new AtomicBoolean(false);
+        private final AtomicBoolean stopped = new AtomicBoolean(false);
+        private final AtomicInteger uploadedDuringBuild = new AtomicInteger();
+        private final AtomicInteger uploadedAfterBuild = new AtomicInteger();
+        private Thread uploader;
+
+        Pipeline(File jarDir, Map<String, Fingerprint> baseline, Map<String, CheckBox> jarCheckBoxMap) {
+            this.jarDir = jarDir;
+            this.baseline = baseline;
+            this.jarCheckBoxMap = jarCheckBoxMap;
+        }
+
+        void startUploader() {
+            uploader = new Thread(this::uploadLoop, "Pipelined-Upload");
+            uploader.setDaemon(true);
+            uploader.start();
+        }
+
+        /**
+         * Compară directorul cu amprentele cunoscute. Cu {@code buildDone = true} nu se mai
+         * așteaptă stabilizarea — Ant a ieșit, deci fișierele sunt complete.
+         */
+        void poll(boolean buildDone) {
+            if (buildDone) buildFinished.set(true);
+            long now = System.currentTimeMillis();
+
+            for (Map.Entry<String, Fingerprint> entry : scan(jarDir).entrySet()) {
+                String name = entry.getKey();
+                Fingerprint current = entry.getValue();
+
+                Fingerprint known = queued.containsKey(name) ? queued.get(name) : baseline.get(name);
+                if (current.equals(known)) {
+                    candidates.remove(name);
+                    continue;
+                }
+
+                Candidate candidate = candidates.get(name);
+                if (candidate == null || !candidate.fingerprint.equals(current)) {
+                    candidate = new Candidate(current, now);
+                    candidates.put(name, candidate);
+                }
+
+                boolean stable = now - candidate.since >= STABLE_FOR_MS
+                        && isCompleteArchive(new File(jarDir, name));
+                if (buildDone || stable) {
+                    enqueue(name, current);
+                }
+            }
+        }
+
+        private void enqueue(String name, Fingerprint fingerprint) {
+            boolean rebuilt = queued.put(name, fingerprint) != null;
+            candidates.remove(name);
+            if (stopped.get()) return;
+
+            log((rebuilt ? "  🔁 Rebuilt, re-queued: " : "  ⏩ Ready for upload: ") + name);
+            queue.add(name);
+        }
+
+        /** Golește coada în batch-uri până la marcajul de sfârșit sau pierderea conexiunii. */
+        private void uploadLoop() {
+            try {
+                boolean ended = false;
+                while (!ended) {
+                    List<String> batch = new ArrayList<>();
+                    batch.add(queue.take());
+                    queue.drainTo(batch);
+
+                    ended = batch.remove(END_OF_QUEUE);
+                    Set<String> names = new LinkedHashSet<>(batch);
+                    if (names.isEmpty() || stopped.get()) continue;
+
+                    boolean afterBuild = buildFinished.get();
+                    UploadResult result = fileUploadService.uploadJarFiles(List.copyOf(names), jarCheckBoxMap);
+                    (afterBuild ? uploadedAfterBuild : uploadedDuringBuild).addAndGet(result.getSuccessCount());
+                    Consumer<UploadResult> callback = onUploadFinished;
+                    if (callback != null) callback.accept(result);
+
+                    if (result.isConnectionLost()) {
+                        stopped.set(true);
+                        log("⚠ Connection lost — pipelined upload stopped, upload the remaining JARs manually");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Pipelined upload failed", e);
+                log("✗ Pipelined upload failed: " + e.getMessage());
+            }
+        }
+
+        /** Trimite marcajul de sfârșit și așteaptă upload-urile rămase. */
+        void finish() throws InterruptedException {
+            queue.add(END_OF_QUEUE);
+            if (uploader != null) uploader.join();
+        }
+    }
+
+    /** Un JAR e complet când zip-ul se deschide — central directory-ul e scris la final. */
+    @SuppressWarnings("try") // zip-ul e deschis doar ca verificare
+    private static boolean isCompleteArchive(File jar) {
+        try (ZipFile ignored = new ZipFile(jar)) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Map<String, Fingerprint> scan(File jarDir) {
+        Map<String, Fingerprint> fingerprints = new HashMap<>();
+        File[] jars = jarDir.listFiles((dir, name) -> name.toLowerCase().endsWith(JAR_EXTENSION));
+        if (jars == null) return fingerprints;
+
+        for (File jar : jars) {
+            if (jar.isFile()) {
+                fingerprints.put(jar.getName(), new Fingerprint(jar.length(), jar.lastModified()));
+            }
+        }
+        return fingerprints;
+    }
+
+    private record Fingerprint(long size, long lastModified) {}
+
+    private record Candidate(Fingerprint fingerprint, long since) {}
+
+    private void log(String message) {
+        Platform.runLater(() -> logger.accept(message));
+    }
+}
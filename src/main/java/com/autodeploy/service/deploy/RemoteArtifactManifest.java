@@ -0,0 +1,145 @@
+package com.autodeploy.service.deploy;
+
+import com.autodeploy.domain.model.Server;
+import com.autodeploy.infrastructure.sftp.CommandResult;
+import com.autodeploy.infrastructure.sftp.SftpManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import static com.autodeploy.core.util.StringUtils.shellQuote;
+
+/**
+ * Manifest al artefactelor de pe server: cale remote → size + SHA-256.
+ * <p>
+ * Folosit de {@link FileUploadService} pentru a sări peste fișierele care există deja
+ * pe server cu exact aceiași bytes. Intrările lipsă sau expirate sunt aduse într-un
+ * singur apel exec batch ({@code stat} + {@code sha256sum} pe toate căile), indiferent
+ * de numărul de fișiere: căile sunt trimise prin stdin către {@code xargs -0}, care le
+ * împarte în invocări sub limita de argumente a sistemului.
+ * <p>
+ * <b>Cache:</b> o instanță per cont ({@code user@host:port}), partajată între ferestre —
+ * două servere pe același host (alt port sau alt user) nu își împart intrările. Intrările
+ * sunt indexate după calea remote completă, deci root-ul de upload face parte din cheie.
+ * O intrare e considerată validă {@value #ENTRY_TTL_MS}ms — suficient pentru
+ * upload-uri repetate rapid, dar scurt cât să prindă fișiere suprascrise de colegi.
+ * După un upload reușit, intrarea e actualizată local cu hash-ul trimis.
+ */
+public class RemoteArtifactManifest {
+
+    private static final Logger LOGGER = Logger.getLogger(RemoteArtifactManifest.class.getName());
+
+    private static final long ENTRY_TTL_MS = 60_000;
+
+    /**
+     * O linie per fișier existent: {@code <size> <sha256>  <cale>}. Fișierele inexistente nu
+     * produc output; erorile individuale sunt suprimate. Căile vin ca argumente de la xargs.
+     */
+    private static final String MANIFEST_SCRIPT =
+            "for f; do [ -f \"$f\" ] && printf '%s %s\\n' \"$(stat -c %s \"$f\")\" \"$(sha256sum \"$f\")\"; done 2>/dev/null; true";
+
+    private static final Map<String, RemoteArtifactManifest> INSTANCES = new ConcurrentHashMap<>();
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private RemoteArtifactManifest() {}
+
+    public static RemoteArtifactManifest forServer(Server server) {
+        String key = server.getUsername() + "@" + server.getHost() + ":" + server.getPort();
+        return INSTANCES.computeIfAbsent(key, account -> new RemoteArtifactManifest());
+    }
+
+    /**
+     * Aduce de pe server intrările lipsă sau expirate pentru căile date, într-un singur exec.
+     * Căile care nu există pe server sunt marcate ca absente (nu se re-interoghează până la expirare).
+     */
+    public void refresh(SftpManager sftpManager, Collection<String> remotePaths) throws Exception {
+        long now = System.currentTimeMillis();
+        List<String> stale = new ArrayList<>();
+        for (String path : remotePaths) {
+            Entry entry = entries.get(path);
+            if (entry == null || now - entry.fetchedAt > ENTRY_TTL_MS) {
+                stale.add(path);
+            }
+        }
+        if (stale.isEmpty()) return;
+
+        CommandResult result = sftpManager.executeCommandWithInput(
+                "xargs -0 sh -c " + shellQuote(MANIFEST_SCRIPT) + " sh", stdin -> {
+                    for (String path : stale) {
+                        stdin.write(path.getBytes(StandardCharsets.UTF_8));
+                        stdin.write(0);
+                    }
+                    stdin.flush();
+                });
+
+        // output trunchiat = liniile de la început lipsesc: "absent" ar fi o presupunere
+        if (!result.isTruncated()) {
+            for (String path : stale) {
+                entries.put(path, Entry.missing(now));
+            }
+        }
+        for (String line : result.getOutput().split("\\r?\\n")) {
+            parseLine(line, now);
+        }
+
+        LOGGER.fine("Manifest refreshed for " + stale.size() + " remote path(s)");
+    }
+
+    /** Intrarea curentă pentru o cale, sau null dacă nu a fost adusă încă. */
+    public Entry get(String remotePath) {
+        return entries.get(remotePath);
+    }
+
+    /** Actualizează manifestul după un upload reușit — conținutul remote e acum cel local. */
+    public void recordUpload(String remotePath, long size, String sha256) {
+        entries.put(remotePath, new Entry(true, size, sha256, System.currentTimeMillis()));
+    }
+
+    /** Invalidează o intrare (ex: upload eșuat la jumătate — conținutul remote e necunoscut). */
+    public void invalidate(String remotePath) {
+        entries.remove(remotePath);
+    }
+
+    private void parseLine(String line, long fetchedAt) {
+        String[] parts = line.trim().split("\\s+", 3);
+        if (parts.length < 3) return;
+
+        try {
+            long size = Long.parseLong(parts[0]);
+            String hash = parts[1].toLowerCase();
+            String path = parts[2].startsWith("*") ? parts[2].substring(1) : parts[2];
+            entries.put(path, new Entry(true, size, hash, fetchedAt));
+        } catch (NumberFormatException e) {
+            LOGGER.fine("Ignoring malformed manifest line: " + line);
+        }
+    }
+
+    /** Starea unui fișier remote la momentul interogării. */
+    public static final class Entry {
+        private final boolean exists;
+        private final long size;
+        private final String sha256;
+        private final long fetchedAt;
+
+        private Entry(boolean exists, long size, String sha256, long fetchedAt) {
+            this.exists = exists;
+            this.size = size;
+            this.sha256 = sha256;
+            this.fetchedAt = fetchedAt;
+        }
+
+        private static Entry missing(long fetchedAt) {
+            return new Entry(false, -1, null, fetchedAt);
+        }
+
+        public boolean exists() { return exists; }
+        public long getSize() { return size; }
+        public String getSha256() { return sha256; }
+    }
+}
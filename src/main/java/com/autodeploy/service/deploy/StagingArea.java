@@ -0,0 +1,175 @@
+package com.autodeploy.service.deploy;
+
+import com.autodeploy.infrastructure.sftp.CommandResult;
+import com.autodeploy.infrastructure.sftp.SftpManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static com.autodeploy.core.util.StringUtils.shellQuote;
+
+/**
+ * Destinația unui batch de upload: direct în directorul final, sau într-un director
+ * de staging urmat de un commit atomic.
+ * <p>
+ * <b>Staged:</b> fișierele sunt încărcate în {@code <părinte>/.autodeploy-staging-<root>-<id>/},
+ * cu aceeași structură relativă — lângă root, nu în el, ca fișierele pe jumătate scrise să nu
+ * fie servite (directorul poate fi schimbat din {@code upload.staging.dir}). La final,
+ * {@link #commit} le mută pe toate în locul final ({@code mv -f} — rename pe același
+ * filesystem, deci instantaneu) și șterge staging-ul, într-un singur exec. Serverul vede un
+ * amestec de fișiere vechi și noi doar pe durata commit-ului, nu pe durata întregului upload.
+ * <p>
+ * Lista de mutări e trimisă prin stdin către {@code xargs -0}, nu ca argument al comenzii —
+ * un batch mare ar depăși limita de 128 KB a unui singur argument ({@code MAX_ARG_STRLEN}).
+ * <p>
+ * <b>Direct:</b> căile sunt cele finale, commit-ul nu face nimic — comportamentul clasic.
+ */
+class StagingArea {
+
+    private static final Logger LOGGER = Logger.getLogger(StagingArea.class.getName());
+
+    private static final String STAGING_PREFIX = ".autodeploy-staging-";
+
+    /**
+     * O mutare: {@code $1} = fișierul din staging, {@code $2} = destinația (cale absolută).
+     * Directorul destinației e creat doar dacă lipsește — fără un proces în plus per fișier.
+     */
+    private static final String MOVE_SCRIPT =
+            "[ -d \"${2%/*}\" ] || mkdir -p -- \"${2%/*}\"; mv -f -- \"$1\" \"$2\"";
+
+    private final String remoteRoot;
+    private final String stagingDir;
+    /** Nume afișat → cale remote finală, pentru fișierele complet încărcate în staging. */
+    private final Map<String, String> stagedFiles = new LinkedHashMap<>();
+
+    private StagingArea(String remoteRoot, String stagingDir) {
+        this.remoteRoot = remoteRoot;
+        this.stagingDir = stagingDir;
+    }
+
+    static StagingArea direct(String remoteRoot) {
+        return new StagingArea(remoteRoot, null);
+    }
+
+    /** @param stagingParent directorul staging-urilor; gol = părintele lui {@code remoteRoot} */
+    static StagingArea staged(String remoteRoot, String stagingParent) {
+        String id = UUID.randomUUID().toString().substring(0, 8);
+        String root = trimTrailingSlash(remoteRoot);
+        int slash = root.lastIndexOf('/');
+        String parent = stagingParent.isEmpty() ? root.substring(0, Math.max(slash, 0)) : stagingParent;
+        String rootName = root.substring(slash + 1);
+        return new StagingArea(remoteRoot, trimTrailingSlash(parent) + "/" + STAGING_PREFIX + rootName + "-" + id);
+    }
+
+    boolean isStaged() {
+        return stagingDir != null;
+    }
+
+    /** Directorul în care se scriu efectiv fișierele (staging sau root-ul final). */
+    String getUploadRoot() {
+        return isStaged() ? stagingDir : remoteRoot;
+    }
+
+    /** Calea la care se scrie efectiv un fișier cu destinația finală {@code remotePath}. */
+    String uploadPathFor(String remotePath) {
+        if (!isStaged()) return remotePath;
+        return stagingDir + "/" + relativize(remotePath);
+    }
+
+    /** Marchează un fișier ca încărcat complet în staging — va fi inclus în commit. */
+    synchronized void markStaged(String fileName, String remotePath) {
+        if (isStaged()) {
+            stagedFiles.put(fileName, remotePath);
+        }
+    }
+
+    /** Numele fișierelor care așteaptă commit-ul. */
+    synchronized List<String> getStagedNames() {
+        return List.copyOf(stagedFiles.keySet());
+    }
+
+    private synchronized List<String> getStagedPaths() {
+        return List.copyOf(stagedFiles.values());
+    }
+
+    /**
+     * Mută toate fișierele marcate în locul final, apoi șterge staging-ul — un singur exec.
+     * No-op în modul direct.
+     * <p>
+     * Fiecare fișier își creează la nevoie directorul destinației și e mutat independent:
+     * un mv eșuat nu le oprește pe celelalte, batch-ul ajunge cât mai complet pe server,
+     * iar eroarea listează fișierele rămase în urmă. Staging-ul e șters oricum.
+     *
+     * @throws Exception dacă vreun fișier nu a putut fi mutat
+     */
+    void commit(SftpManager sftpManager) throws Exception {
+        if (!isStaged()) return;
+
+        List<String> files = getStagedPaths();
+        if (files.isEmpty()) {
+            discard(sftpManager);
+            return;
+        }
+
+        List<String> moves = new ArrayList<>();
+        for (String file : files) {
+            moves.add(uploadPathFor(file));
+            moves.add(file);
+        }
+        String script = "xargs -0 -n 2 sh -c " + shellQuote(MOVE_SCRIPT) + " sh; status=$?; "
+                + "rm -rf -- " + shellQuote(stagingDir) + "; exit $status";
+
+        try {
+            CommandResult result = sftpManager.executeCommandWithInput("sh -c " + shellQuote(script),
+                    stdin -> writeNulSeparated(stdin, moves));
+            if (!result.isSuccess()) {
+                throw new RuntimeException("Some staged files could not be moved (exit "
+                        + result.getExitCode() + "): " + result.getError().trim());
+            }
+        } finally {
+            files.forEach(sftpManager.getMetadataCache()::invalidate);
+            sftpManager.getMetadataCache().invalidate(stagingDir);
+        }
+    }
+
+    /** Șterge directorul de staging (ex: upload abandonat). Erorile sunt doar logate. */
+    void discard(SftpManager sftpManager) {
+        if (!isStaged()) return;
+
+        try {
+            sftpManager.executeCommand("rm -rf " + shellQuote(stagingDir));
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Could not remove staging dir " + stagingDir, e);
+        } finally {
+            sftpManager.getMetadataCache().invalidate(stagingDir);
+        }
+    }
+
+    private static void writeNulSeparated(OutputStream stdin, List<String> arguments) throws IOException {
+        for (String argument : arguments) {
+            stdin.write(argument.getBytes(StandardCharsets.UTF_8));
+            stdin.write(0);
+        }
+        stdin.flush();
+    }
+
+    private static String trimTrailingSlash(String path) {
+        return path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+
+    private String relativize(String remotePath) {
+        String prefix = remoteRoot + "/";
+        if (!remotePath.startsWith(prefix)) {
+            throw new IllegalArgumentException("Path outside upload root: " + remotePath);
+        }
+        return remotePath.substring(prefix.length());
+    }
+}
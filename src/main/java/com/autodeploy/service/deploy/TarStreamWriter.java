@@ -0,0 +1,123 @@
+package com.autodeploy.service.deploy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Scrie o arhivă tar (format ustar) direct într-un stream, fără fișier temporar.
+ * <p>
+ * Suportă doar fișiere regulate — directoarele intermediare sunt create de {@code tar -x}.
+ * Căile până la 100 de caractere intră în câmpul {@code name}; cele mai lungi sunt
+ * împărțite la un '/' între {@code prefix} (max 155) și {@code name}. Căile care
+ * nu pot fi împărțite așa sunt refuzate ({@link #isRepresentable}) și trebuie trimise altfel.
+ */
+final class TarStreamWriter {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int NAME_LENGTH = 100;
+    private static final int PREFIX_LENGTH = 155;
+
+    private final OutputStream out;
+
+    TarStreamWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /** true dacă numele încape în header-ul ustar (direct sau cu prefix). */
+    static boolean isRepresentable(String entryName) {
+        return splitName(entryName.getBytes(StandardCharsets.UTF_8)) >= 0;
+    }
+
+    /** Adaugă un fișier: header + conținut, aliniat la 512 bytes. */
+    void addFile(String entryName, File file) throws IOException {
+        long size = file.length();
+        out.write(buildHeader(entryName, size, file.lastModified() / 1000));
+
+        long copied = Files.copy(file.toPath(), out);
+        if (copied != size) {
+            throw new IOException("File changed while archiving: " + file);
+        }
+        pad(size);
+    }
+
+    /** Marcajul de sfârșit de arhivă: două blocuri goale. */
+    void finish() throws IOException {
+        out.write(new byte[BLOCK_SIZE * 2]);
+        out.flush();
+    }
+
+    private byte[] buildHeader(String entryName, long size, long mtimeSeconds) throws IOException {
+        byte[] nameBytes = entryName.getBytes(StandardCharsets.UTF_8);
+        int split = splitName(nameBytes);
+        if (split < 0) {
+            throw new IOException("Path too long for tar header: " + entryName);
+        }
+
+        byte[] header = new byte[BLOCK_SIZE];
+        if (split == 0) {
+            System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        } else {
+            System.arraycopy(nameBytes, split + 1, header, 0, nameBytes.length - split - 1);
+            System.arraycopy(nameBytes, 0, header, 345, split);
+        }
+
+        writeOctal(header, 100, 8, 0644);
+        writeOctal(header, 108, 8, 0);
+        writeOctal(header, 116, 8, 0);
+        writeOctal(header, 124, 12, size);
+        writeOctal(header, 136, 12, mtimeSeconds);
+        header[156] = '0';
+        System.arraycopy("ustar\0".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 6);
+        header[263] = '0';
+        header[264] = '0';
+
+        // Checksum-ul se calculează cu câmpul propriu completat cu spații
+        Arrays.fill(header, 148, 156, (byte) ' ');
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xFF;
+        }
+        writeOctal(header, 148, 7, checksum);
+        header[155] = ' ';
+
+        return header;
+    }
+
+    /**
+     * Poziția '/' la care numele se împarte în prefix + name.
+     * 0 = încape direct în name, -1 = nu poate fi reprezentat.
+     */
+    private static int splitName(byte[] nameBytes) {
+        if (nameBytes.length <= NAME_LENGTH) return 0;
+
+        for (int i = Math.min(nameBytes.length - 1, PREFIX_LENGTH); i > 0; i--) {
+            if (nameBytes[i] == '/' && nameBytes.length - i - 1 <= NAME_LENGTH) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Valoare octală cu zero-padding, terminată cu NUL, în {@code length} bytes. */
+    private static void writeOctal(byte[] header, int offset, int length, long value) {
+        String octal = Long.toOctalString(value);
+        int digits = length - 1;
+        if (octal.length() > digits) {
+            throw new IllegalArgumentException("Value too large for tar header: " + value);
+        }
+        String padded = "0".repeat(digits - octal.length()) + octal;
+        System.arraycopy(padded.getBytes(StandardCharsets.US_ASCII), 0, header, offset, digits);
+        header[offset + digits] = 0;
+    }
+
+    private void pad(long size) throws IOException {
+        int remainder = (int) (size % BLOCK_SIZE);
+        if (remainder > 0) {
+            out.write(new byte[BLOCK_SIZE - remainder]);
+        }
+    }
+}
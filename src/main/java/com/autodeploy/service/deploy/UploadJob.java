@@ -0,0 +1,179 @@
+package com.autodeploy.service.deploy;
+
+import javafx.scene.control.CheckBox;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Un batch de upload (JAR-uri sau JSP-uri) care poate supraviețui unei reconectări.
+ * <p>
+ * Ține starea fiecărui fișier: {@code PENDING} până la transfer complet, apoi
+ * {@code DONE} sau {@code FAILED}. Fișierele întrerupte de pierderea conexiunii rămân
+ * {@code PENDING} — la reconectare job-ul e reluat doar pentru ele.
+ * <p>
+ * Pentru fișierele mari, job-ul memorează și bytes-ii trimiși și amprenta locală
+ * (size + lastModified) de la prima încercare: un {@code .part} de pe server e continuat
+ * (RESUME) doar dacă fișierul local nu s-a schimbat între timp.
+ * <p>
+ * Fișierele fixate de utilizator ({@code pinned}) formează setul critic: job-ul știe
+ * când toate au ajuns în locul final ({@link #isCriticalSetLanded()}), ca testarea
+ * să poată începe cât timp restul batch-ului încă se transferă.
+ * <p>
+ * Un job nou nu face nicio operație remote la creare — filtrarea fișierelor
+ * nemodificate și crearea staging-ului se fac la prima rulare ({@link #prepare}).
+ * Astfel un job poate fi programat și în lipsa conexiunii.
+ */
+class UploadJob {
+
+    enum FileState { PENDING, DONE, FAILED }
+
+    private final String fileType;
+    private final PathResolver pathResolver;
+    private final Map<String, CheckBox> checkBoxMap;
+    private final List<String> files;
+    private final Set<String> pinnedFiles;
+
+    private final Map<String, FileState> states = new ConcurrentHashMap<>();
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> transferredBytes = new ConcurrentHashMap<>();
+
+    private volatile boolean prepared;
+    private volatile StagingArea staging;
+    private volatile boolean committed;
+    private volatile int unchangedCount;
+    private final AtomicBoolean criticalSetNotified = new AtomicBoolean(false);
+    private volatile Runnable onStateChange;
+
+    UploadJob(String fileType, PathResolver pathResolver,
+              Map<String, CheckBox> checkBoxMap, List<String> files, Set<String> pinnedFiles) {
+        this.fileType = fileType;
+        this.pathResolver = pathResolver;
+        this.checkBoxMap = checkBoxMap;
+        this.files = List.copyOf(files);
+        this.pinnedFiles = Set.copyOf(files.stream().filter(pinnedFiles::contains).toList());
+        this.files.forEach(file -> states.put(file, FileState.PENDING));
+    }
+
+    String getFileType() { return fileType; }
+    PathResolver getPathResolver() { return pathResolver; }
+    Map<String, CheckBox> getCheckBoxMap() { return checkBoxMap; }
+
+    boolean isPrepared() { return prepared; }
+
+    /**
+     * Prima rulare: fișierele deja identice pe server sunt scoase din job,
+     * iar staging-ul (dacă e cazul) e fixat pentru toate reluările.
+     */
+    void prepare(List<String> unchangedFiles, StagingArea staging) {
+        unchangedFiles.forEach(states::remove);
+        this.unchangedCount = unchangedFiles.size();
+        this.staging = staging;
+        this.prepared = true;
+    }
+
+    List<String> getFiles() { return files; }
+    StagingArea getStaging() { return staging; }
+    int getUnchangedCount() { return unchangedCount; }
+
+    List<String> getPendingFiles() {
+        return files.stream()
+                .filter(file -> states.get(file) == FileState.PENDING)
+                .toList();
+    }
+
+    Set<String> getPinnedFiles() { return pinnedFiles; }
+
+    /** Fișierele transferate cu succes, în toate rulările job-ului (fără cele identice pe server). */
+    List<String> getUploadedFiles() {
+        return files.stream()
+                .filter(file -> states.get(file) == FileState.DONE)
+                .toList();
+    }
+
+    /**
+     * Toate fișierele fixate sunt pe server, în locul final: transferate (sau deja identice)
+     * și, în modul staged, incluse într-un commit reușit. false dacă nu există fișiere fixate.
+     */
+    boolean isCriticalSetLanded() {
+        if (pinnedFiles.isEmpty()) return false;
+
+        boolean transferred = pinnedFiles.stream().allMatch(file -> {
+            FileState state = states.get(file);
+            return state == null || state == FileState.DONE;
+        });
+        return transferred && (staging == null || !staging.isStaged() || committed);
+    }
+
+    /** true doar la primul apel — evenimentul "critical set done" e emis o singură dată per job. */
+    boolean claimCriticalSetNotification() {
+        return criticalSetNotified.compareAndSet(false, true);
+    }
+
+    void markDone(String fileName) {
+        states.put(fileName, FileState.DONE);
+        fireStateChange();
+    }
+
+    void markFailed(String fileName) {
+        states.put(fileName, FileState.FAILED);
+        fireStateChange();
+    }
+
+    /** Apelat după fiecare fișier terminat (DONE/FAILED) — folosit pentru progresul batch-ului. */
+    void setOnStateChange(Runnable onStateChange) {
+        this.onStateChange = onStateChange;
+    }
+
+    private void fireStateChange() {
+        Runnable callback = onStateChange;
+        if (callback != null) callback.run();
+    }
+
+    /** Fișierele care trebuie transferate (fără cele deja identice pe server). */
+    int getTotalCount() { return states.size(); }
+
+    int getFinishedCount() {
+        return (int) states.values().stream().filter(state -> state != FileState.PENDING).count();
+    }
+
+    void markCommitted() { committed = true; }
+
+    /** Job-ul mai are ceva de făcut: fișiere netransferate sau commit-ul din staging. */
+    boolean isIncomplete() {
+        if (!getPendingFiles().isEmpty()) return true;
+        return staging != null && staging.isStaged() && !committed
+                && !staging.getStagedNames().isEmpty();
+    }
+
+    /**
+     * Înregistrează o încercare de transfer și spune dacă un {@code .part} existent
+     * poate fi continuat. La prima încercare (sau dacă fișierul local s-a schimbat)
+     * răspunsul e false — transferul trebuie luat de la zero.
+     */
+    boolean beginTransfer(String fileName, File localFile) {
+        String fingerprint = localFile.length() + ":" + localFile.lastModified();
+        String previous = fingerprints.put(fileName, fingerprint);
+
+        boolean resumable = fingerprint.equals(previous);
+        if (!resumable) {
+            transferredBytes.remove(fileName);
+        }
+        return resumable;
+    }
+
+    void addTransferredBytes(String fileName, long bytes) {
+        transferredBytes.computeIfAbsent(fileName, k -> new AtomicLong()).addAndGet(bytes);
+    }
+
+    /** Bytes trimiși pentru fișier în toate încercările de la ultima pornire de la zero. */
+    long getTransferredBytes(String fileName) {
+        AtomicLong bytes = transferredBytes.get(fileName);
+        return bytes != null ? bytes.get() : 0;
+    }
+}
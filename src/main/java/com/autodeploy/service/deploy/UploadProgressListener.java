@@ -0,0 +1,15 @@
+package com.autodeploy.service.deploy;
+
+/**
+ * Progresul batch-urilor de upload, pentru vizualizarea combinată din UI.
+ * <p>
+ * Un batch e identificat printr-o etichetă: tipul de fișiere la un upload normal
+ * ({@code "JARs"}, {@code "JSPs"}) sau numele serverului la un deploy fan-out.
+ * Apelat de pe thread-urile de upload.
+ */
+public interface UploadProgressListener {
+
+    void onBatchProgress(String batch, int finishedFiles, int totalFiles);
+
+    void onBatchFinished(String batch);
+}
@@ -2,21 +2,51 @@ package com.autodeploy.service.deploy;
 
 /**
  * Rezultatul unui upload (JAR sau JSP).
+ * <p>
+ * {@code unchangedCount} = fișiere selectate dar neuploadate, deoarece serverul
+ * are deja exact aceiași bytes (vezi {@link RemoteArtifactManifest}).
+ * <p>
+ * {@link #getChangeSet()} = fișierele ajunse pe server, clasificate după nevoia de restart.
  */
 public class UploadResult {
 
     private final int successCount;
     private final int failCount;
+    private final int unchangedCount;
     private final boolean connectionLost;
+    private final DeployChangeSet changeSet;
 
     public UploadResult(int successCount, int failCount, boolean connectionLost) {
+        this(successCount, failCount, 0, connectionLost);
+    }
+
+    public UploadResult(int successCount, int failCount, int unchangedCount, boolean connectionLost) {
+        this(successCount, failCount, unchangedCount, connectionLost, DeployChangeSet.EMPTY);
+    }
+
+    public UploadResult(int successCount, int failCount, int unchangedCount, boolean connectionLost,
+                        DeployChangeSet changeSet) {
         this.successCount = successCount;
         this.failCount = failCount;
+        this.unchangedCount = unchangedCount;
         this.connectionLost = connectionLost;
+        this.changeSet = changeSet;
+    }
+
+    /** Rezultatul consolidat al mai multor stream-uri de upload (ex: JAR + JSP concurente). */
+    public static UploadResult combine(UploadResult first, UploadResult second) {
+        return new UploadResult(
+                first.successCount + second.successCount,
+                first.failCount + second.failCount,
+                first.unchangedCount + second.unchangedCount,
+                first.connectionLost || second.connectionLost,
+                DeployChangeSet.combine(first.changeSet, second.changeSet));
     }
 
     public int getSuccessCount() { return successCount; }
     public int getFailCount() { return failCount; }
+    public int getUnchangedCount() { return unchangedCount; }
     public boolean isConnectionLost() { return connectionLost; }
+    public DeployChangeSet getChangeSet() { return changeSet; }
     public boolean hasFailures() { return failCount > 0; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,59 @@
+package com.autodeploy.service.deploy;
+
+import com.autodeploy.domain.model.UploadOrder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Ordonează fișierele unui batch înainte de distribuirea pe worker-i.
+ * <p>
+ * Worker-ii preiau fișierele în ordinea trimiterii, deci ordinea de aici e ordinea în care
+ * pornesc transferurile: fișierele fixate (pinned) primele, apoi restul, fiecare grup
+ * sortat după {@link UploadOrder}. Un JSP mic nu mai așteaptă în spatele unui JAR mare.
+ */
+final class UploadScheduler {
+
+    private UploadScheduler() {}
+
+    /** Fișierele fixate, apoi celelalte — ambele grupuri în ordinea politicii. */
+    static List<String> order(Collection<String> files, Set<String> pinned,
+                              UploadOrder policy, PathResolver pathResolver) {
+        List<String> critical = new ArrayList<>();
+        List<String> rest = new ArrayList<>();
+        for (String file : files) {
+            (pinned.contains(file) ? critical : rest).add(file);
+        }
+
+        Comparator<String> comparator = comparatorFor(policy, files, pathResolver);
+        if (comparator != null) {
+            critical.sort(comparator);
+            rest.sort(comparator);
+        }
+
+        critical.addAll(rest);
+        return critical;
+    }
+
+    /**
+     * Comparatorul politicii, cu mărimile/datele citite o singură dată per fișier
+     * (nu la fiecare comparație). null pentru {@link UploadOrder#SELECTION}.
+     */
+    private static Comparator<String> comparatorFor(UploadOrder policy, Collection<String> files,
+                                                    PathResolver pathResolver) {
+        if (policy == UploadOrder.SELECTION) return null;
+
+        Map<String, Long> keys = new HashMap<>();
+        for (String file : files) {
+            File localFile = new File(pathResolver.getLocalPath(file));
+            keys.put(file, policy == UploadOrder.SMALLEST_FIRST ? localFile.length() : -localFile.lastModified());
+        }
+        return Comparator.comparingLong(keys::get);
+    }
+}
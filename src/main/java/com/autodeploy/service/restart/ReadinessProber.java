@@ -0,0 +1,179 @@
+package com.autodeploy.service.restart;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Detectează momentul în care aplicația servește din nou după un restart, prin GET-uri HTTP
+ * pe URL-ul serverului ({@link com.autodeploy.core.config.ApplicationConfig#getReadinessUrl}).
+ * <p>
+ * "Completed" de la scriptul de restart înseamnă doar că scriptul s-a terminat — aplicația
+ * poate avea nevoie de încă zeci de secunde de warm-up. Proberul pornește odată cu restartul
+ * ({@code active_restart.started_at}) și raportează un {@link ReadinessResult} cu împărțirea
+ * timp script / warm-up.
+ * <ul>
+ *   <li>Cât aplicația încă răspunde (restartul nu a oprit-o încă) — probe la
+ *       {@value #INITIAL_INTERVAL_MS}ms; un răspuns aici nu contează ca "ready"</li>
+ *   <li>După ce aplicația a căzut — intervalul scade cu fiecare probă eșuată (×3/4)</li>
+ *   <li>După terminarea scriptului ({@link #markScriptCompleted()}) — {@value #MIN_INTERVAL_MS}ms</li>
+ * </ul>
+ * "Ready" = primul răspuns care arată o aplicație funcțională ({@link #isServing}) după ce
+ * aplicația a fost văzută căzută sau scriptul s-a terminat. După {@value #MAX_PROBE_TIME_MS}ms
+ * fără răspuns, proberul renunță și raportează un rezultat fără {@code readyAt}.
+ * <p>
+ * Orice URL HTTP merge — local, un stub ({@code com.sun.net.httpserver.HttpServer}) e suficient
+ * pentru a-l încerca.
+ */
+public class ReadinessProber {
+
+    private static final Logger LOGGER = Logger.getLogger(ReadinessProber.class.getName());
+
+    static final long INITIAL_INTERVAL_MS = 2_000;
+    static final long MIN_INTERVAL_MS = 500;
+    static final long MAX_PROBE_TIME_MS = 15 * 60_000;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(3);
+
+    private final String url;
+    private final URI uri;
+    private final long restartStartedAt;
+    private final Consumer<ReadinessResult> onFinished;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+
+    /** Trezește bucla înainte de termen (script terminat, oprire). */
+    private final Semaphore wakeup = new Semaphore(0);
+    private volatile boolean running;
+    private volatile long scriptCompletedAt;
+    private Thread probeThread;
+
+    /**
+     * @param restartStartedAt momentul pornirii restartului (epoch millis, de pe server)
+     * @param onFinished       apelat o singură dată, pe thread-ul proberului, cu rezultatul
+     * @throws IllegalArgumentException dacă URL-ul nu e valid
+     */
+    public ReadinessProber(String url, long restartStartedAt, Consumer<ReadinessResult> onFinished) {
+        this.url = url;
+        this.uri = URI.create(url);
+        this.restartStartedAt = restartStartedAt;
+        this.onFinished = onFinished;
+    }
+
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        probeThread = new Thread(this::probeLoop, "Readiness-Prober");
+        probeThread.setDaemon(true);
+        probeThread.start();
+    }
+
+    /** Scriptul de restart s-a terminat — de acum probele sunt la intervalul minim. */
+    public void markScriptCompleted() {
+        if (scriptCompletedAt > 0) return;
+        scriptCompletedAt = System.currentTimeMillis();
+        wakeup.release();
+    }
+
+    /** Oprește proberul fără să raporteze un rezultat. */
+    public synchronized void stop() {
+        running = false;
+        wakeup.release();
+        if (probeThread != null) {
+            probeThread.interrupt();
+            probeThread = null;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isScriptCompleted() {
+        return scriptCompletedAt > 0;
+    }
+
+    public long getRestartStartedAt() {
+        return restartStartedAt;
+    }
+
+    private void probeLoop() {
+        long deadline = System.currentTimeMillis() + MAX_PROBE_TIME_MS;
+        long interval = INITIAL_INTERVAL_MS;
+        boolean sawDown = false;
+        int probes = 0;
+
+        try {
+            while (running && System.currentTimeMillis() < deadline) {
+                boolean scriptDone = scriptCompletedAt > 0;
+                probes++;
+                boolean serving = probe();
+
+                if (serving && (sawDown || scriptDone)) {
+                    finish(new ReadinessResult(url, restartStartedAt, scriptCompletedAt,
+                            System.currentTimeMillis(), probes));
+                    return;
+                }
+                if (!serving) {
+                    sawDown = true;
+                    interval = Math.max(MIN_INTERVAL_MS, interval * 3 / 4);
+                }
+                if (scriptCompletedAt > 0) {
+                    interval = MIN_INTERVAL_MS;
+                }
+
+                if (wakeup.tryAcquire(interval, TimeUnit.MILLISECONDS)) {
+                    wakeup.drainPermits();
+                }
+            }
+            if (running) {
+                LOGGER.info("Readiness probe gave up on " + url + " after " + probes + " probes");
+                finish(new ReadinessResult(url, restartStartedAt, scriptCompletedAt, 0, probes));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void finish(ReadinessResult result) {
+        running = false;
+        try {
+            onFinished.accept(result);
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Readiness callback failed", e);
+        }
+    }
+
+    /** Un GET; orice eroare de rețea = aplicația nu servește. */
+    private boolean probe() throws InterruptedException {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            return isServing(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            LOGGER.finest("Readiness probe failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Aplicația servește dacă răspunde cu succes, redirect (ex: spre login) sau cerere de
+     * autentificare. 404 (aplicația încă nu e deployată în container) și 5xx nu contează.
+     */
+    static boolean isServing(int statusCode) {
+        return (statusCode >= 200 && statusCode < 400) || statusCode == 401 || statusCode == 403;
+    }
+}
@@ -0,0 +1,77 @@
+package com.autodeploy.service.restart;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rezultatul unui {@link ReadinessProber}: când a pornit restartul, când s-a terminat scriptul
+ * și când aplicația a răspuns din nou — de aici împărțirea timp script / warm-up aplicație.
+ * <p>
+ * Momentele sunt în epoch millis; 0 = necunoscut (ex: scriptul nu a fost văzut terminându-se
+ * înainte ca aplicația să răspundă).
+ */
+public class ReadinessResult {
+
+    private final String url;
+    private final long restartStartedAt;
+    private final long scriptCompletedAt;
+    private final long readyAt;
+    private final int probeCount;
+
+    public ReadinessResult(String url, long restartStartedAt, long scriptCompletedAt, long readyAt, int probeCount) {
+        this.url = url;
+        this.restartStartedAt = restartStartedAt;
+        this.scriptCompletedAt = scriptCompletedAt;
+        this.readyAt = readyAt;
+        this.probeCount = probeCount;
+    }
+
+    public String getUrl() { return url; }
+    public long getRestartStartedAt() { return restartStartedAt; }
+    public long getScriptCompletedAt() { return scriptCompletedAt; }
+    public long getReadyAt() { return readyAt; }
+    public int getProbeCount() { return probeCount; }
+
+    /** false = probarea a expirat sau a fost oprită înainte ca aplicația să răspundă. */
+    public boolean isReady() {
+        return readyAt > 0;
+    }
+
+    /** Durata scriptului de restart, -1 dacă terminarea lui nu e cunoscută. */
+    public long getScriptDurationMs() {
+        return scriptCompletedAt > 0 ? Math.max(0, scriptCompletedAt - restartStartedAt) : -1;
+    }
+
+    /**
+     * Warm-up-ul aplicației: de la terminarea scriptului până la primul răspuns.
+     * 0 dacă aplicația răspundea deja când scriptul s-a terminat; -1 dacă nu e cunoscut.
+     */
+    public long getWarmupDurationMs() {
+        if (!isReady() || scriptCompletedAt <= 0) return -1;
+        return Math.max(0, readyAt - scriptCompletedAt);
+    }
+
+    /** De la pornirea restartului până la primul răspuns, -1 dacă aplicația nu a răspuns. */
+    public long getTotalDurationMs() {
+        return isReady() ? Math.max(0, readyAt - restartStartedAt) : -1;
+    }
+
+    /** Ex: "serving again after 02:13 (script 01:40 + warm-up 00:33)". */
+    public String describe() {
+        if (!isReady()) {
+            return "not serving after " + formatDuration(System.currentTimeMillis() - restartStartedAt)
+                    + " (" + probeCount + " probes)";
+        }
+        StringBuilder text = new StringBuilder("serving again after ").append(formatDuration(getTotalDurationMs()));
+        if (getScriptDurationMs() >= 0) {
+            text.append(" (script ").append(formatDuration(getScriptDurationMs()))
+                    .append(" + warm-up ").append(formatDuration(getWarmupDurationMs())).append(')');
+        }
+        return text.toString();
+    }
+
+    /** MM:SS. */
+    public static String formatDuration(long millis) {
+        long seconds = TimeUnit.MILLISECONDS.toSeconds(Math.max(0, millis));
+        return String.format("%02d:%02d", seconds / 60, seconds % 60);
+    }
+}
@@ -1,15 +1,20 @@
 package com.autodeploy.service.restart;
 
 import com.autodeploy.core.config.ApplicationConfig;
+import com.autodeploy.domain.manager.RestartHistoryManager;
 import com.autodeploy.domain.manager.RestartManager;
+import com.autodeploy.domain.manager.RestartStatusHub;
+import com.autodeploy.domain.model.RestartRecord;
 import com.autodeploy.domain.model.RestartStatus;
 import com.autodeploy.infrastructure.connection.ConnectionManager;
 import com.autodeploy.notification.RestartNotificationHandler;
 import com.autodeploy.domain.model.Server;
+import javafx.application.Platform;
 import javafx.concurrent.Task;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -20,8 +25,16 @@ import java.util.function.Consumer;
  * <ul>
  *   <li>Inițializare lazy — restartManager + notificationHandler sunt create la {@link #initialize()},
  *       nu în constructor (depind de conexiunea activă)</li>
- *   <li>Polling management — start/stop cu interval fix de 2s</li>
- *   <li>Timer UI — formatează timpul scurs bazat pe {@code active_restart.started_at} de pe server</li>
+ *   <li>Polling management — start/stop = abonare la {@link RestartStatusHub}: un singur poller
+ *       per server pentru toate ferestrele, ajustat după stare și după vizibilitatea
+ *       ferestrelor ({@link #setWindowMinimized})</li>
+ *   <li>Timer UI — formatează timpul scurs bazat pe {@code active_restart.started_at} de pe server,
+ *       alături de durata așteptată din {@link RestartHistoryManager}</li>
+ *   <li>Readiness — cât un restart rulează, un {@link ReadinessProber} verifică prin HTTP când
+ *       aplicația servește din nou; rezultatul (timp script + warm-up) ajunge în log și la
+ *       {@link #addReadinessListener listener-i}</li>
+ *   <li>Istoric — fiecare restart terminat e salvat local; un restart cu peste
+ *       {@value RestartHistoryManager#REGRESSION_PERCENT}% mai lent decât de obicei e semnalat în log</li>
  *   <li>Listener buffering — listener-ii adăugați înainte de initialize() sunt reținuți
  *       și atașați automat după inițializare</li>
  * </ul>
@@ -38,6 +51,8 @@ public class RestartService {
 
     private RestartManager restartManager;
     private RestartNotificationHandler notificationHandler;
+    private String currentUser;
+    private volatile RestartStatusHub.Subscription statusSubscription;
 
     /** Ultimul status primit de la server — folosit de timer și isRestarting(). */
     private volatile RestartStatus latestStatus = null;
@@ -49,6 +64,17 @@ public class RestartService {
      */
     private final List<Consumer<RestartStatus>> pendingListeners = new ArrayList<>();
 
+    /** Restartul urmărit acum (doar pe FX thread, ca {@link #handleStatusUpdate}). */
+    private TrackedRestart trackedRestart;
+
+    /** Proberul restartului curent (doar pe FX thread, ca {@link #handleStatusUpdate}). */
+    private ReadinessProber readinessProber;
+    private volatile ReadinessResult lastReadinessResult;
+    private final List<Consumer<ReadinessResult>> readinessListeners = new CopyOnWriteArrayList<>();
+
+    /** Reținut și aplicat la {@link #initialize()} dacă fereastra se minimizează înainte. */
+    private volatile boolean windowMinimized;
+
     public RestartService(Server server, ConnectionManager connectionManager, Consumer<String> logger) {
         this.server = server;
         this.connectionManager = connectionManager;
@@ -63,9 +89,12 @@ public class RestartService {
      */
     public boolean initialize() {
         try {
-            String currentUser = resolveCurrentUser();
+            this.currentUser = resolveCurrentUser();
 
+            // Managerul ferestrei trimite doar comenzi; statusul vine din hub-ul partajat
             this.restartManager = new RestartManager(server, connectionManager, currentUser);
+            restartManager.setAgentEnabled(ApplicationConfig.getInstance().isRestartAgentEnabled());
+            restartManager.setPollTrigger(this::pollNow);
             this.notificationHandler = new RestartNotificationHandler(restartManager, currentUser, logger);
 
             notificationHandler.setUiUpdateCallback(this::handleStatusUpdate);
@@ -78,18 +107,62 @@ public class RestartService {
         }
     }
 
+    /**
+     * Abonează fereastra la hub-ul serverului. Managerul poate fi nou (recreat la reconectare),
+     * deci un abonament vechi e înlocuit.
+     */
     public void startPolling() {
-        if (restartManager != null) {
-            restartManager.startPolling(2000);
-        }
+        if (restartManager == null) return;
+
+        stopPolling();
+        statusSubscription = RestartStatusHub.subscribe(server, currentUser, connectionManager,
+                ApplicationConfig.getInstance().isRestartAgentEnabled(), restartManager::acceptStatus);
+        statusSubscription.setBackground(windowMinimized);
     }
 
+    /** Eliberează abonamentul; ultimul abonat al serverului oprește poller-ul. */
     public void stopPolling() {
-        if (restartManager != null) {
-            restartManager.stopPolling();
+        if (statusSubscription != null) {
+            statusSubscription.close();
+            statusSubscription = null;
+        }
+    }
+
+    /**
+     * Fereastra minimizată → polling rar (dacă toate ferestrele serverului sunt minimizate);
+     * la restaurare statusul e reîmprospătat imediat.
+     */
+    public void setWindowMinimized(boolean minimized) {
+        this.windowMinimized = minimized;
+        RestartStatusHub.Subscription subscription = statusSubscription;
+        if (subscription != null) {
+            subscription.setBackground(minimized);
         }
     }
 
+    private void pollNow() {
+        RestartStatusHub.Subscription subscription = statusSubscription;
+        if (subscription != null) subscription.pollNow();
+    }
+
+    /** Intervalul curent de polling, -1 dacă nu se face polling (sau statusul vine prin stream). */
+    public long getCurrentPollIntervalMs() {
+        RestartStatusHub.Subscription subscription = statusSubscription;
+        return subscription != null ? subscription.getHub().getCurrentPollIntervalMs() : -1;
+    }
+
+    /** Durata ultimului poll de status, -1 dacă nu există. */
+    public long getLastPollRttMs() {
+        RestartStatusHub.Subscription subscription = statusSubscription;
+        return subscription != null ? subscription.getHub().getLastPollRttMs() : -1;
+    }
+
+    /** RTT mediu al poll-urilor de status, -1 dacă nu există. */
+    public double getAveragePollRttMs() {
+        RestartStatusHub.Subscription subscription = statusSubscription;
+        return subscription != null ? subscription.getHub().getAveragePollRttMs() : -1;
+    }
+
     /**
      * Adaugă un listener pentru schimbări de status.
      * Dacă RestartManager nu e încă inițializat, listener-ul e buffered
@@ -126,7 +199,10 @@ public class RestartService {
      *   <li>Nu există drift între client și server</li>
      * </ul>
      *
-     * @return "(MM:SS)" sau "" dacă nu există restart activ
+     * Cu istoric suficient se adaugă durata așteptată, iar depășirea ei cu peste
+     * {@value RestartHistoryManager#REGRESSION_PERCENT}% e marcată cu ⚠.
+     *
+     * @return "(MM:SS)", "(MM:SS / ~MM:SS expected)" sau "" dacă nu există restart activ
      */
     public String getFormattedElapsedTime() {
         if (latestStatus == null || !latestStatus.hasActiveRestart()) {
@@ -142,7 +218,21 @@ public class RestartService {
         long minutes = seconds / 60;
         seconds = seconds % 60;
 
-        return String.format("(%02d:%02d)", minutes, seconds);
+        long expected = getExpectedDurationMs();
+        if (expected <= 0) {
+            return String.format("(%02d:%02d)", minutes, seconds);
+        }
+        return String.format("(%02d:%02d / ~%s expected%s)", minutes, seconds,
+                ReadinessResult.formatDuration(expected),
+                RestartHistoryManager.isRegression(elapsedMillis, expected) ? " ⚠" : "");
+    }
+
+    /**
+     * Durata așteptată a restartului curent (mediana istoricului pentru server + proiect),
+     * -1 dacă nu există restart activ sau istoric suficient. Apelat pe FX thread.
+     */
+    public long getExpectedDurationMs() {
+        return trackedRestart != null ? trackedRestart.expectedMs() : -1;
     }
 
     /**
@@ -155,6 +245,7 @@ public class RestartService {
 
     public void shutdown() {
         stopPolling();
+        stopReadinessProbe();
         if (notificationHandler != null) {
             notificationHandler.shutdown();
         }
@@ -168,6 +259,108 @@ public class RestartService {
      */
     private void handleStatusUpdate(RestartStatus status) {
         this.latestStatus = status;
+        trackReadiness(status);
+    }
+
+    /**
+     * Un restart nou ({@code started_at} diferit) pornește un prober nou; dispariția
+     * {@code active_restart} marchează terminarea scriptului. Restartul ajunge în istoric
+     * când proberul raportează sau, fără prober, la terminarea scriptului.
+     */
+    private void trackReadiness(RestartStatus status) {
+        if (status.hasActiveRestart()) {
+            RestartStatus.ActiveRestart active = status.getActiveRestart();
+            long startedAt = active.getStartedAt() * 1000;
+            if (trackedRestart == null || trackedRestart.startedAt() != startedAt) {
+                trackedRestart = new TrackedRestart(startedAt, active.getRequester(), active.getProject(),
+                        RestartHistoryManager.getInstance().getExpectedDurationMs(server.getHost(), active.getProject()));
+                startReadinessProbe(trackedRestart);
+            }
+        } else if (trackedRestart != null) {
+            TrackedRestart finished = trackedRestart;
+            trackedRestart = null;
+            if (readinessProber != null && readinessProber.isRunning()) {
+                readinessProber.markScriptCompleted();
+            } else {
+                recordRestart(finished, System.currentTimeMillis() - finished.startedAt(), -1);
+            }
+        }
+    }
+
+    private void startReadinessProbe(TrackedRestart restart) {
+        stopReadinessProbe();
+
+        ApplicationConfig config = ApplicationConfig.getInstance();
+        if (!config.isReadinessProbeEnabled()) return;
+
+        String url = config.getReadinessUrl(server.getHost());
+        try {
+            readinessProber = new ReadinessProber(url, restart.startedAt(),
+                    result -> onReadinessResult(restart, result));
+        } catch (IllegalArgumentException e) {
+            logger.accept("⚠ Invalid readiness URL '" + url + "': " + e.getMessage());
+            return;
+        }
+        readinessProber.start();
+    }
+
+    private void stopReadinessProbe() {
+        if (readinessProber != null) {
+            readinessProber.stop();
+            readinessProber = null;
+        }
+    }
+
+    private void onReadinessResult(TrackedRestart restart, ReadinessResult result) {
+        lastReadinessResult = result;
+        logger.accept(result.isReady()
+                ? "✅ Application " + result.describe()
+                : "⚠ Application " + result.describe() + " at " + result.getUrl());
+        recordRestart(restart, result.getScriptDurationMs(), result.getTotalDurationMs());
+        Platform.runLater(() -> {
+            for (Consumer<ReadinessResult> listener : readinessListeners) {
+                listener.accept(result);
+            }
+        });
+    }
+
+    /**
+     * Salvează restartul în istoric și îl compară cu restarturile anterioare (aceeași
+     * metrică: timp până la "aplicația servește" dacă e cunoscut, altfel durata scriptului).
+     */
+    private void recordRestart(TrackedRestart restart, long scriptDurationMs, long readyDurationMs) {
+        boolean toReady = readyDurationMs >= 0;
+        long duration = toReady ? readyDurationMs : scriptDurationMs;
+        if (duration < 0) return;
+
+        RestartHistoryManager history = RestartHistoryManager.getInstance();
+        long usual = history.getMedianDurationMs(server.getHost(), restart.project(), toReady);
+        boolean recorded = history.record(new RestartRecord(server.getHost(), restart.project(),
+                restart.requester(), restart.startedAt(), scriptDurationMs, readyDurationMs));
+
+        if (recorded && RestartHistoryManager.isRegression(duration, usual)) {
+            logger.accept(String.format("⚠ Restart took %s, %d%% slower than usual (~%s)%s",
+                    ReadinessResult.formatDuration(duration), (duration - usual) * 100 / usual,
+                    ReadinessResult.formatDuration(usual),
+                    restart.project() != null ? " for " + restart.project() : ""));
+        }
+    }
+
+    /** Apelat pe FX thread când proberul unui restart a terminat (aplicație gata sau renunțare). */
+    public void addReadinessListener(Consumer<ReadinessResult> listener) {
+        readinessListeners.add(listener);
+    }
+
+    /**
+     * Scriptul de restart s-a terminat, dar aplicația încă nu răspunde — warm-up în curs.
+     * Apelat pe FX thread.
+     */
+    public boolean isWarmingUp() {
+        return readinessProber != null && readinessProber.isRunning() && readinessProber.isScriptCompleted();
+    }
+
+    public ReadinessResult getLastReadinessResult() {
+        return lastReadinessResult;
     }
 
     private void attachPendingListeners() {
@@ -192,6 +385,9 @@ public class RestartService {
         return System.getProperty("user.name");
     }
 
+    /** Restartul urmărit: identitate ({@code started_at}, millis), cine l-a cerut și durata așteptată. */
+    private record TrackedRestart(long startedAt, String requester, String project, long expectedMs) {}
+
     public Long getStatusActiveStartedAt() {
         if (latestStatus != null && latestStatus.getActiveRestart() != null) {
             return latestStatus.getActiveRestart().getStartedAt();
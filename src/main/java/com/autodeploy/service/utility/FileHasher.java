@@ -0,0 +1,66 @@
+package com.autodeploy.service.utility;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Calculează SHA-256 pentru fișiere locale, cu cache în memorie.
+ * <p>
+ * Cache-ul e indexat pe cale absolută și invalidat automat când se schimbă
+ * size-ul sau lastModified — un JAR nerecompilat nu e re-hash-uit la fiecare upload.
+ * Thread-safe: poate fi apelat concurent din worker-ii de upload.
+ */
+public final class FileHasher {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final Map<String, CachedHash> CACHE = new ConcurrentHashMap<>();
+
+    private FileHasher() {}
+
+    /** Hash SHA-256 hex (lowercase, format identic cu {@code sha256sum}). */
+    public static String sha256(File file) throws IOException {
+        String key = file.getAbsolutePath();
+        long size = file.length();
+        long lastModified = file.lastModified();
+
+        CachedHash cached = CACHE.get(key);
+        if (cached != null && cached.size == size && cached.lastModified == lastModified) {
+            return cached.hash;
+        }
+
+        String hash = computeSha256(file);
+        CACHE.put(key, new CachedHash(size, lastModified, hash));
+        return hash;
+    }
+
+    private static String computeSha256(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedHash(long size, long lastModified, String hash) {}
+}
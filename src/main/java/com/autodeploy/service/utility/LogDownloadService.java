@@ -2,6 +2,8 @@ package com.autodeploy.service.utility;
 
 import com.autodeploy.core.config.ApplicationConfig;
 import com.autodeploy.infrastructure.connection.ConnectionManager;
+import com.autodeploy.infrastructure.sftp.TransferProgress;
+import com.jcraft.jsch.SftpATTRS;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 
@@ -18,7 +20,8 @@ import java.util.logging.Logger;
  * Fișierul descărcat primește un suffix de timestamp în nume pentru a evita
  * suprascrierea descărcărilor anterioare (ex: "server.log" → "server_20260223_143012.log").
  * <p>
- * Fluxul: validare config → verificare conexiune → download SFTP → returnare {@link DownloadResult}.
+ * Fluxul: validare config → verificare conexiune → stat remote (prin cache-ul sesiunii)
+ * → download SFTP → returnare {@link DownloadResult}.
  */
 public class LogDownloadService {
 
@@ -93,6 +96,12 @@ public class LogDownloadService {
         log("✓ Local download directory: " + localDownloadDir);
 
         try {
+            SftpATTRS remoteAttrs = connectionManager.getSftpManager().stat(remoteLogPath);
+            if (remoteAttrs == null || remoteAttrs.isDir()) {
+                log("✗ Remote log file not found: " + remoteLogPath);
+                return DownloadResult.failure("Remote log file not found: " + remoteLogPath);
+            }
+
             String localFilePath = buildLocalFilePath(remoteLogPath, localDownloadDir);
 
             log("=====================================");
@@ -101,12 +110,13 @@ public class LogDownloadService {
             log("▶ To: " + localFilePath);
             log("=====================================");
 
-            connectionManager.getSftpManager().downloadFile(remoteLogPath, localFilePath);
+            TransferProgress transfer = connectionManager.getSftpManager().downloadFile(remoteLogPath, localFilePath);
 
             File downloadedFile = new File(localFilePath);
 
             log("=====================================");
-            log("✓ Download completed successfully");
+            log("✓ Download completed successfully (" + String.format("%.1f s", transfer.getElapsedMillis() / 1000.0)
+                    + ", " + FileSizeFormatter.format(Math.round(transfer.getBytesPerSecond())) + "/s)");
             log("✓ File size: " + FileSizeFormatter.format(downloadedFile.length()));
             log("✓ Saved to: " + localFilePath);
             log("=====================================");
@@ -2,6 +2,7 @@ package com.autodeploy.ui.dialog;
 
 import com.autodeploy.core.assets.Assets;
 import com.autodeploy.domain.manager.ServerManager;
+import com.autodeploy.domain.model.CompressionMode;
 import com.autodeploy.domain.model.Server;
 import com.autodeploy.ui.dialog.component.ServerFormBinder;
 import com.autodeploy.ui.dialog.helper.WindowDecorationHelper;
@@ -42,6 +43,8 @@ public class ServerManagementDialog extends AbstractNfxUndecoratedWindow impleme
     @FXML private TextField usernameField;
     @FXML private PasswordField passwordField;
     @FXML private TextField restartScriptField;
+    @FXML private TextField sftpChannelsField;
+    @FXML private ComboBox<CompressionMode> compressionComboBox;
     @FXML private Button addBtn;
     @FXML private Button updateBtn;
     @FXML private Button deleteBtn;
@@ -85,7 +88,8 @@ public class ServerManagementDialog extends AbstractNfxUndecoratedWindow impleme
     private void initComponents() {
         formBinder = new ServerFormBinder(
                 nameField, hostField, portField,
-                usernameField, passwordField, restartScriptField
+                usernameField, passwordField, restartScriptField,
+                sftpChannelsField, compressionComboBox
         );
     }
 
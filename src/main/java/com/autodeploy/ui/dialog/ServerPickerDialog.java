@@ -0,0 +1,132 @@
+package com.autodeploy.ui.dialog;
+
+import com.autodeploy.core.assets.Assets;
+import com.autodeploy.domain.model.Server;
+import com.autodeploy.ui.dialog.helper.WindowDecorationHelper;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.layout.VBox;
+import javafx.stage.Modality;
+import javafx.stage.Window;
+import xss.it.nfx.AbstractNfxUndecoratedWindow;
+import xss.it.nfx.HitSpot;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ResourceBundle;
+
+import static com.autodeploy.core.constants.Constants.ALERT_TITLE_BAR_HEIGHT;
+
+/**
+ * Dialog de selecție a serverelor pentru deploy-ul fan-out.
+ * <p>
+ * Același design ca {@link CustomAlert} (undecorated, custom-alert.css): o listă de checkbox-uri,
+ * câte unul per server configurat, cu serverul ferestrei curente pre-selectat.
+ * <p>
+ * Utilizare: {@code List<Server> targets = ServerPickerDialog.pick(owner, servers, current)} —
+ * listă goală la Cancel/Close.
+ */
+public class ServerPickerDialog extends AbstractNfxUndecoratedWindow implements Initializable {
+
+    @FXML private Button closeBtn;
+    @FXML private Label messageLabel;
+    @FXML private VBox serverList;
+    @FXML private Button okBtn;
+    @FXML private Button cancelBtn;
+
+    private final List<Server> servers;
+    private final Server preselected;
+    private final Map<CheckBox, Server> checkBoxes = new LinkedHashMap<>();
+    private List<Server> selection = List.of();
+
+    public ServerPickerDialog(Window owner, List<Server> servers, Server preselected) {
+        super(true);
+        this.servers = servers;
+        this.preselected = preselected;
+
+        try {
+            Parent parent = Assets.loadFxml("/fxml/server-picker.fxml", this);
+            setScene(new Scene(parent));
+
+            if (owner != null) {
+                initOwner(owner);
+                initModality(Modality.WINDOW_MODAL);
+            } else {
+                initModality(Modality.APPLICATION_MODAL);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        for (Server server : servers) {
+            CheckBox checkBox = new CheckBox(server.getName() + " (" + server.getHost() + ")");
+            checkBox.setSelected(preselected != null && Objects.equals(server.getId(), preselected.getId()));
+            checkBox.selectedProperty().addListener((obs, oldVal, newVal) -> updateSummary());
+            checkBoxes.put(checkBox, server);
+            serverList.getChildren().add(checkBox);
+        }
+        updateSummary();
+
+        closeBtn.setOnAction(e -> close());
+        cancelBtn.setOnAction(e -> close());
+        okBtn.setOnAction(e -> confirm());
+    }
+
+    private void updateSummary() {
+        long selected = checkBoxes.keySet().stream().filter(CheckBox::isSelected).count();
+        messageLabel.setText(selected == 0
+                ? "Select the target servers"
+                : selected + " of " + checkBoxes.size() + " server(s) selected");
+        okBtn.setDisable(selected == 0);
+    }
+
+    private void confirm() {
+        List<Server> chosen = new ArrayList<>();
+        checkBoxes.forEach((checkBox, server) -> {
+            if (checkBox.isSelected()) chosen.add(server);
+        });
+        selection = List.copyOf(chosen);
+        close();
+    }
+
+    /** Serverele bifate la confirmare; goală dacă dialogul a fost anulat. */
+    public List<Server> getSelection() {
+        return selection;
+    }
+
+    /**
+     * Afișează dialogul blocant (showAndWait).
+     * @return serverele selectate, sau listă goală la Cancel/Close
+     */
+    public static List<Server> pick(Window owner, List<Server> servers, Server preselected) {
+        ServerPickerDialog dialog = new ServerPickerDialog(owner, servers, preselected);
+        if (owner == null) {
+            dialog.centerOnScreen();
+        }
+        dialog.showAndWait();
+        return dialog.getSelection();
+    }
+
+    @Override
+    public List<HitSpot> getHitSpots() {
+        return WindowDecorationHelper.createCloseHitSpot(this, closeBtn);
+    }
+
+    @Override
+    public double getTitleBarHeight() {
+        return ALERT_TITLE_BAR_HEIGHT;
+    }
+}
@@ -1,6 +1,8 @@
 package com.autodeploy.ui.dialog.component;
 
+import com.autodeploy.domain.model.CompressionMode;
 import com.autodeploy.domain.model.Server;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.TextField;
 
@@ -8,7 +10,7 @@ import javafx.scene.control.TextField;
  * Binding bidirecțional între formularul de server și modelul {@link Server}.
  * <p>
  * Include valori default pentru câmpurile comune (port 22, user/pass dev/dev)
- * și validare numerică pe câmpul de port (rejectă caractere non-digit).
+ * și validare numerică pe câmpurile de port și canale SFTP (rejectă caractere non-digit).
  */
 public class ServerFormBinder {
 
@@ -17,6 +19,7 @@ public class ServerFormBinder {
     private static final String DEFAULT_PORT = "22";
     private static final int DEFAULT_PORT_INT = 22;
     private static final String DEFAULT_RESTART_SCRIPT = "/nodel/RestartManager/restart_manager.sh";
+    private static final String DEFAULT_SFTP_CHANNELS = String.valueOf(Server.DEFAULT_SFTP_CHANNELS);
 
     private final TextField nameField;
     private final TextField hostField;
@@ -24,22 +27,30 @@ public class ServerFormBinder {
     private final TextField usernameField;
     private final PasswordField passwordField;
     private final TextField restartScriptField;
+    private final TextField sftpChannelsField;
+    private final ComboBox<CompressionMode> compressionComboBox;
 
     public ServerFormBinder(TextField nameField, TextField hostField, TextField portField,
                             TextField usernameField, PasswordField passwordField,
-                            TextField restartScriptField) {
+                            TextField restartScriptField, TextField sftpChannelsField,
+                            ComboBox<CompressionMode> compressionComboBox) {
         this.nameField = nameField;
         this.hostField = hostField;
         this.portField = portField;
         this.usernameField = usernameField;
         this.passwordField = passwordField;
         this.restartScriptField = restartScriptField;
+        this.sftpChannelsField = sftpChannelsField;
+        this.compressionComboBox = compressionComboBox;
+        this.compressionComboBox.getItems().setAll(CompressionMode.values());
     }
 
     public void applyDefaults() {
         usernameField.setText(DEFAULT_USERNAME);
         passwordField.setText(DEFAULT_PASSWORD);
         portField.setText(DEFAULT_PORT);
+        sftpChannelsField.setText(DEFAULT_SFTP_CHANNELS);
+        compressionComboBox.setValue(CompressionMode.NONE);
     }
 
     /**
@@ -47,11 +58,8 @@ public class ServerFormBinder {
      * non-numeric, câmpul revine la valoarea anterioară.
      */
     public void setupPortValidation() {
-        portField.textProperty().addListener((obs, oldValue, newValue) -> {
-            if (!newValue.matches("\\d*")) {
-                portField.setText(oldValue);
-            }
-        });
+        restrictToDigits(portField);
+        restrictToDigits(sftpChannelsField);
     }
 
     public void loadServer(Server server) {
@@ -65,6 +73,8 @@ public class ServerFormBinder {
                         ? server.getRestartManagerScript()
                         : DEFAULT_RESTART_SCRIPT
         );
+        sftpChannelsField.setText(String.valueOf(server.getSftpChannels()));
+        compressionComboBox.setValue(server.getCompression());
     }
 
     public Server buildServerFromFields() {
@@ -75,6 +85,8 @@ public class ServerFormBinder {
         server.setUsername(usernameField.getText().trim());
         server.setPassword(passwordField.getText()); // parolele pot conține spații — nu trim()
         server.setRestartManagerScript(restartScriptField.getText().trim());
+        server.setSftpChannels(parseSftpChannels());
+        server.setCompression(compressionComboBox.getValue());
         return server;
     }
 
@@ -86,6 +98,8 @@ public class ServerFormBinder {
         usernameField.setText(DEFAULT_USERNAME);
         passwordField.setText(DEFAULT_PASSWORD);
         restartScriptField.setText(DEFAULT_RESTART_SCRIPT);
+        sftpChannelsField.setText(DEFAULT_SFTP_CHANNELS);
+        compressionComboBox.setValue(CompressionMode.NONE);
     }
 
     public boolean isValid() {
@@ -105,6 +119,23 @@ public class ServerFormBinder {
         }
     }
 
+    /** Câmp gol sau invalid → default-ul modelului ({@link Server#DEFAULT_SFTP_CHANNELS}). */
+    private int parseSftpChannels() {
+        try {
+            return Integer.parseInt(sftpChannelsField.getText().trim());
+        } catch (NumberFormatException e) {
+            return Server.DEFAULT_SFTP_CHANNELS;
+        }
+    }
+
+    private void restrictToDigits(TextField field) {
+        field.textProperty().addListener((obs, oldValue, newValue) -> {
+            if (!newValue.matches("\\d*")) {
+                field.setText(oldValue);
+            }
+        });
+    }
+
     private String nullSafe(String value) {
         return value != null ? value : "";
     }
@@ -7,7 +7,10 @@ import com.autodeploy.domain.model.Server;
 import com.autodeploy.infrastructure.connection.ConnectionManager;
 import com.autodeploy.notification.NotificationController;
 import com.autodeploy.service.deploy.BuildService;
+import com.autodeploy.service.deploy.FanOutDeployService;
 import com.autodeploy.service.deploy.FileUploadService;
+import com.autodeploy.service.deploy.JspWarmupService;
+import com.autodeploy.service.deploy.PipelinedDeployService;
 import com.autodeploy.service.restart.RestartService;
 import com.autodeploy.service.scanner.FileScannerService;
 import com.autodeploy.service.utility.BrowserService;
@@ -25,6 +28,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.SVGPath;
@@ -67,6 +71,7 @@ import static com.autodeploy.core.constants.Constants.*;
  *   <li>{@link LogPanelManager} — log panel + detecție erori conexiune</li>
  *   <li>{@link DeploymentActionBar} — enable/disable butoane centralizat</li>
  *   <li>{@link FileListPanel} — liste de fișiere cu checkbox-uri (×2: JAR + JSP)</li>
+ *   <li>{@link TransferProgressPanel} — progresul live al transferurilor SFTP</li>
  * </ul>
  */
 public class DeploymentWindow extends NfxStage implements Initializable {
@@ -78,11 +83,14 @@ public class DeploymentWindow extends NfxStage implements Initializable {
     @FXML private ImageView iconView;
     @FXML private Label title, projectNameLabel, serverNameLabel, jarCountLabel, jspCountLabel;
     @FXML private MFXButton changeBtn, restartServerBtn, downloadLogsBtn, buildProjectBtn;
-    @FXML private MFXButton openBrowserBtn, uploadJarsBtn, uploadJspsBtn, uploadAllBtn;
+    @FXML private MFXButton openBrowserBtn, uploadJarsBtn, uploadJspsBtn, uploadAllBtn, uploadFanOutBtn;
     @FXML private TitledPane jarSection, jspSection;
     @FXML private VBox jarListContainer, jspListContainer, logSection;
     @FXML private TextField jspSearchField;
     @FXML private TextArea logArea;
+    @FXML private HBox transferRow;
+    @FXML private ProgressBar transferProgressBar;
+    @FXML private Label transferLabel;
     private StackPane rootPane;
     private VBox contentPane;
 
@@ -99,12 +107,14 @@ public class DeploymentWindow extends NfxStage implements Initializable {
     private UploadHandler uploadHandler;
     private RestartHandler restartHandler;
     private UIOverlayManager overlayManager;
+    private TransferProgressPanel transferPanel;
 
     // --- Servicii (folosite direct, fără wrapper component) ---
     private FileScannerService fileScannerService;
     private FileListPanel jarPanel;
     private FileListPanel jspPanel;
     private BuildService buildService;
+    private PipelinedDeployService pipelinedDeployService;
     private LogDownloadService logDownloadService;
     private BrowserService browserService;
     private FileOpener fileOpener;
@@ -158,9 +168,11 @@ public class DeploymentWindow extends NfxStage implements Initializable {
 
         fileOpener = new FileOpener(logPanel::log);
 
+        transferPanel = new TransferProgressPanel(transferRow, transferProgressBar, transferLabel);
+
         actionBar = new DeploymentActionBar(
                 restartServerBtn, downloadLogsBtn, buildProjectBtn,
-                openBrowserBtn, uploadJarsBtn, uploadJspsBtn, uploadAllBtn
+                openBrowserBtn, uploadJarsBtn, uploadJspsBtn, uploadAllBtn, uploadFanOutBtn
         );
 
         titleBarManager = new TitleBarManager(
@@ -209,9 +221,13 @@ public class DeploymentWindow extends NfxStage implements Initializable {
      */
     private void lateInit() {
         ConnectionManager connectionManager = new ConnectionManager(server, logPanel::log);
+        connectionManager.setTransferListener(transferPanel);
 
         FileUploadService fileUploadService = new FileUploadService(
                 project, connectionManager, logPanel::log);
+        fileUploadService.setUploadProgressListener(transferPanel);
+        pipelinedDeployService = new PipelinedDeployService(
+                project, buildService, fileUploadService, logPanel::log);
         logDownloadService = new LogDownloadService(
                 connectionManager, logPanel::log);
         RestartService restartService = new RestartService(
@@ -220,7 +236,12 @@ public class DeploymentWindow extends NfxStage implements Initializable {
         connectionHandler = new ConnectionHandler(
                 server, connectionManager, overlayManager, logPanel::log);
         connectionHandler.setRestartService(restartService);
-        connectionHandler.setOnConnected(() -> actionBar.setAllDisabled(false));
+        iconifiedProperty().addListener((obs, wasMinimized, minimized) ->
+                restartService.setWindowMinimized(minimized));
+        connectionHandler.setOnConnected(() -> {
+            actionBar.setAllDisabled(false);
+            uploadHandler.resumePendingUploads();
+        });
         connectionHandler.setOnDisconnected(() -> actionBar.setAllDisabled(true));
         connectionHandler.setOnReturnToSelection(this::performCleanupAndReturn);
         connectionHandler.setupCallbacks();
@@ -235,12 +256,20 @@ public class DeploymentWindow extends NfxStage implements Initializable {
                 jarPanel, jspPanel, fileUploadService,
                 connectionHandler, actionBar, logPanel::log);
 
+        FanOutDeployService fanOutDeployService = new FanOutDeployService(project, logPanel::log);
+        fanOutDeployService.setUploadProgressListener(transferPanel);
+        fanOutDeployService.setTransferListener(transferPanel);
+        uploadHandler.setFanOutDeployService(fanOutDeployService, server);
+        uploadHandler.setJspWarmupService(new JspWarmupService(server, logPanel::log));
+
         restartHandler = new RestartHandler(
                 restartService, restartServerBtn, overlayManager, this,
                 logPanel::log,
                 server.getName() + " (" + server.getHost() + ")",
                 project.getName());
         restartHandler.setupCallbacks();
+        uploadHandler.setOnFilesDeployed(restartHandler::onFilesDeployed);
+        pipelinedDeployService.setOnUploadFinished(uploadHandler::onUploadFinished);
 
         connectionHandler.connect();
     }
@@ -269,11 +298,16 @@ public class DeploymentWindow extends NfxStage implements Initializable {
         uploadJarsBtn.setOnAction(e -> uploadHandler.uploadJars());
         uploadJspsBtn.setOnAction(e -> uploadHandler.uploadJsps());
         uploadAllBtn.setOnAction(e -> uploadHandler.uploadAll());
+        uploadFanOutBtn.setOnAction(e -> uploadHandler.uploadToServers(this));
         changeBtn.setOnAction(e -> returnToSelectionWindow());
     }
 
     /**
      * Build asincron: validare → disable buton → build pe thread daemon → re-enable.
+     * <p>
+     * Cu {@link ApplicationConfig#isPipelinedBuildUpload()} și o conexiune activă, JAR-urile
+     * sunt uploadate pe măsură ce Ant le termină ({@link PipelinedDeployService}) — butoanele
+     * de upload sunt dezactivate pe toată durata build-ului.
      */
     private void handleBuildProject() {
         var validation = buildService.validateConfiguration();
@@ -282,11 +316,18 @@ public class DeploymentWindow extends NfxStage implements Initializable {
             return;
         }
 
+        boolean pipelined = ApplicationConfig.getInstance().isPipelinedBuildUpload()
+                && connectionHandler.isConnected();
+
         actionBar.getBuildProjectBtn().setDisable(true);
-        var buildTask = buildService.buildAsync();
+        if (pipelined) actionBar.setUploadDisabled(true);
+        var buildTask = pipelined
+                ? pipelinedDeployService.buildAndDeployAsync(jarPanel.getCheckBoxMap())
+                : buildService.buildAsync();
 
         buildTask.setOnSucceeded(event -> {
             actionBar.getBuildProjectBtn().setDisable(false);
+            if (pipelined) actionBar.setUploadDisabled(false);
             if (!buildTask.getValue().isSuccess()) {
                 CustomAlert.showError("Build Failed", buildTask.getValue().getErrorMessage());
             }
@@ -294,6 +335,7 @@ public class DeploymentWindow extends NfxStage implements Initializable {
 
         buildTask.setOnFailed(event -> {
             actionBar.getBuildProjectBtn().setDisable(false);
+            if (pipelined) actionBar.setUploadDisabled(false);
             CustomAlert.showError("Build Failed", buildTask.getException().getMessage());
         });
 
@@ -410,12 +452,15 @@ public class DeploymentWindow extends NfxStage implements Initializable {
     }
 
     /**
-     * Oprește toate resursele: restart polling, file watchers, conexiune SFTP.
-     * Ordinea contează: restart (oprește polling) → watchers → conexiune (ultima).
+     * Oprește toate resursele: restart polling, file watchers, upload-uri, conexiune SFTP.
+     * Ordinea contează: restart (oprește polling) → watchers → upload-uri anulate (altfel
+     * deconectarea le-ar pune în coada de reluare) → conexiune (ultima).
      */
     private void cleanupResources() {
         if (restartHandler != null) restartHandler.shutdown();
+        if (transferPanel != null) transferPanel.shutdown();
         if (fileScannerService != null) fileScannerService.stopWatchers();
+        if (uploadHandler != null) uploadHandler.cancelUploads();
         if (connectionHandler != null) connectionHandler.disconnect();
     }
 
@@ -23,6 +23,7 @@ public class DeploymentActionBar {
     private final MFXButton uploadJarsBtn;
     private final MFXButton uploadJspsBtn;
     private final MFXButton uploadAllBtn;
+    private final MFXButton uploadFanOutBtn;
 
     private final List<MFXButton> allActionButtons;
     private final List<MFXButton> uploadButtons;
@@ -30,7 +31,7 @@ public class DeploymentActionBar {
     public DeploymentActionBar(MFXButton restartServerBtn, MFXButton downloadLogsBtn,
                                MFXButton buildProjectBtn, MFXButton openBrowserBtn,
                                MFXButton uploadJarsBtn, MFXButton uploadJspsBtn,
-                               MFXButton uploadAllBtn) {
+                               MFXButton uploadAllBtn, MFXButton uploadFanOutBtn) {
         this.restartServerBtn = restartServerBtn;
         this.downloadLogsBtn = downloadLogsBtn;
         this.buildProjectBtn = buildProjectBtn;
@@ -38,11 +39,12 @@ public class DeploymentActionBar {
         this.uploadJarsBtn = uploadJarsBtn;
         this.uploadJspsBtn = uploadJspsBtn;
         this.uploadAllBtn = uploadAllBtn;
+        this.uploadFanOutBtn = uploadFanOutBtn;
 
-        this.uploadButtons = List.of(uploadJarsBtn, uploadJspsBtn, uploadAllBtn);
+        this.uploadButtons = List.of(uploadJarsBtn, uploadJspsBtn, uploadAllBtn, uploadFanOutBtn);
         this.allActionButtons = List.of(
                 restartServerBtn, downloadLogsBtn, buildProjectBtn,
-                openBrowserBtn, uploadJarsBtn, uploadJspsBtn, uploadAllBtn
+                openBrowserBtn, uploadJarsBtn, uploadJspsBtn, uploadAllBtn, uploadFanOutBtn
         );
     }
 
@@ -3,7 +3,9 @@ package com.autodeploy.ui.window.component;
 import com.autodeploy.service.scanner.FileWatcher;
 import javafx.application.Platform;
 import javafx.scene.control.CheckBox;
+import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Label;
+import javafx.scene.control.MenuItem;
 import javafx.scene.layout.VBox;
 
 import java.util.*;
@@ -22,6 +24,7 @@ import static com.autodeploy.core.constants.Constants.*;
  *   <li>Update live de la {@link FileWatcher} ({@link #handleFileChange})</li>
  *   <li>Filtrare text ({@link #filter})</li>
  *   <li>Contor "X / Y selected" actualizat automat</li>
+ *   <li>Fixare (pin) din meniul contextual — fișierele fixate sunt uploadate primele</li>
  * </ul>
  * <p>
  * Fișierele noi sau modificate sunt adăugate pre-selectate și cu stil highlighted
@@ -38,6 +41,12 @@ public class FileListPanel {
     /** LinkedHashMap pentru a păstra ordinea de inserție. */
     private final Map<String, CheckBox> checkBoxMap = new LinkedHashMap<>();
 
+    /**
+     * Fișierele fixate de utilizator. Persistă peste upload-uri și peste re-inserări
+     * (MODIFIED) — utilizatorul fixează fișierul la care lucrează, nu un singur upload.
+     */
+    private final Set<String> pinnedFiles = new LinkedHashSet<>();
+
     public FileListPanel(VBox container, Label countLabel,
                          String emptyMessage, Consumer<String> logger) {
         this.container = container;
@@ -140,16 +149,47 @@ public class FileListPanel {
         return checkBoxMap;
     }
 
+    /** Copie a fișierelor fixate (apelabil de pe orice thread). */
+    public synchronized Set<String> getPinnedFiles() {
+        return Set.copyOf(pinnedFiles);
+    }
+
+    private void togglePin(String fileName) {
+        boolean pinned;
+        synchronized (this) {
+            pinned = pinnedFiles.add(fileName) || !pinnedFiles.remove(fileName);
+        }
+
+        CheckBox checkBox = checkBoxMap.get(fileName);
+        if (checkBox != null) checkBox.setText(displayName(fileName, pinned));
+        log((pinned ? "📌 Pinned (uploads first): " : "📌 Unpinned: ") + fileName);
+    }
+
+    private synchronized boolean isPinned(String fileName) {
+        return pinnedFiles.contains(fileName);
+    }
+
+    private String displayName(String fileName, boolean pinned) {
+        return pinned ? "📌 " + fileName : fileName;
+    }
+
     /**
      * Creează checkbox-ul și îl inserează la ÎNCEPUTUL containerului.
      * Fișierele checked primesc stil highlighted (bold + accent color).
      */
     private void addFileInternal(String fileName, boolean checked) {
-        CheckBox checkBox = new CheckBox(fileName);
+        CheckBox checkBox = new CheckBox(displayName(fileName, isPinned(fileName)));
         checkBox.setSelected(checked);
         checkBox.setStyle(checked ? STYLE_CHECKBOX_HIGHLIGHTED : STYLE_CHECKBOX_DEFAULT);
         checkBox.selectedProperty().addListener((obs, oldVal, newVal) -> updateCount());
 
+        MenuItem pinItem = new MenuItem();
+        pinItem.setOnAction(e -> togglePin(fileName));
+        ContextMenu contextMenu = new ContextMenu(pinItem);
+        contextMenu.setOnShowing(e -> pinItem.setText(isPinned(fileName)
+                ? "Unpin" : "📌 Pin (upload first)"));
+        checkBox.setContextMenu(contextMenu);
+
         checkBoxMap.put(fileName, checkBox);
         container.getChildren().addFirst(checkBox);
     }
@@ -1,6 +1,10 @@
 package com.autodeploy.ui.window.component;
 
+import com.autodeploy.core.config.ApplicationConfig;
 import com.autodeploy.domain.model.RestartStatus;
+import com.autodeploy.notification.NotificationController;
+import com.autodeploy.service.deploy.DeployChangeSet;
+import com.autodeploy.service.restart.ReadinessResult;
 import com.autodeploy.service.restart.RestartService;
 import com.autodeploy.ui.dialog.CustomAlert;
 import com.autodeploy.ui.overlay.UIOverlayManager;
@@ -33,6 +37,18 @@ import static com.autodeploy.core.constants.Constants.TIMER_UPDATE_INTERVAL_MS;
  *   <li><b>Text:</b> "⏳ Pending + 🔄 (01:23)", "🔄 Restarting (01:23)", "❌ Rejected (🔄 01:23)"</li>
  *   <li><b>Stil (border):</b> warning=pending, danger=executing/active, mix=pending over active</li>
  * </ul>
+ * <p>
+ * Cu istoric suficient, elapsed-ul include și durata așteptată — "🔄 Restarting (02:10 / ~03:40 expected)",
+ * cu ⚠ când restartul depășește semnificativ estimarea
+ * ({@link com.autodeploy.domain.manager.RestartHistoryManager}).
+ * <p>
+ * După ce scriptul s-a terminat, butonul arată "🔥 Warming up..." până când
+ * {@link com.autodeploy.service.restart.ReadinessProber} vede aplicația servind din nou.
+ * <p>
+ * Deploy-urile raportate prin {@link #onFilesDeployed} sunt cumulate până la următorul restart:
+ * cu JAR-uri, restartul e propus printr-o notificare; doar cu JSP-uri
+ * ({@link ApplicationConfig#isSkipRestartForJspOnly()}), restartul e sărit și un click pe
+ * buton cere confirmare că e totuși necesar.
  */
 public class RestartHandler {
 
@@ -83,6 +99,9 @@ public class RestartHandler {
     private Long lastActiveRestartRequestedAt = null;
     private Long lastActiveRestartStartedAt = null;
 
+    /** Fișierele deployate de la ultimul restart văzut (doar pe FX thread). */
+    private DeployChangeSet changesSinceRestart = DeployChangeSet.EMPTY;
+
     public RestartHandler(RestartService restartService, MFXButton restartServerBtn,
                           UIOverlayManager overlayManager, Window ownerWindow,
                           Consumer<String> logger, String serverDisplayName,
@@ -112,6 +131,19 @@ public class RestartHandler {
                 handleNoActiveRestartFlow();
             }
         }));
+
+        restartService.addReadinessListener(this::handleReadinessResult);
+    }
+
+    /** Rezultatul probării HTTP după restart (pe FX thread). Un restart nou între timp are prioritate. */
+    private void handleReadinessResult(ReadinessResult result) {
+        if (hasActiveRestart || "pending".equals(currentState)) return;
+
+        if (result.isReady()) {
+            showDoneState("✅ Serving again (" + ReadinessResult.formatDuration(result.getTotalDurationMs()) + ")");
+        } else {
+            resetToIdle();
+        }
     }
 
     /**
@@ -137,11 +169,13 @@ public class RestartHandler {
         if (restartTimerTimeline == null) {
             lastActiveRestartStartedAt = currentStartedAt;
             lastActiveRestartRequestedAt = currentRequestedAt;
+            changesSinceRestart = DeployChangeSet.EMPTY;
             createAndStartTimeline();
         } else if (!isSameRestart && currentStartedAt != null) {
             stopTimerAnimation();
             lastActiveRestartStartedAt = currentStartedAt;
             lastActiveRestartRequestedAt = currentRequestedAt;
+            changesSinceRestart = DeployChangeSet.EMPTY;
             createAndStartTimeline();
         }
 
@@ -186,6 +220,8 @@ public class RestartHandler {
             restartServerBtn.setText("⏳ Pending...");
         } else if ("completed".equals(currentState)) {
             showCompletedState();
+        } else if (restartService.isWarmingUp()) {
+            showWarmingUpState();
         } else {
             resetToIdle();
         }
@@ -206,13 +242,31 @@ public class RestartHandler {
     }
 
     /**
-     * Afișează "✅ Restart Done" timp de 5s, apoi revine la textul default.
-     * Folosește un thread daemon separat pentru delay.
+     * Scriptul s-a terminat: "🔥 Warming up..." dacă aplicația încă nu răspunde,
+     * altfel "✅ Restart Done".
      */
     private void showCompletedState() {
+        if (restartService.isWarmingUp()) {
+            showWarmingUpState();
+        } else {
+            showDoneState("✅ Restart Done");
+        }
+    }
+
+    private void showWarmingUpState() {
+        stopTimerAnimation();
+        restartServerBtn.setStyle(STYLE_PENDING);
+        restartServerBtn.setText("🔥 Warming up...");
+    }
+
+    /**
+     * Afișează textul final timp de 5s, apoi revine la textul default.
+     * Folosește un thread daemon separat pentru delay.
+     */
+    private void showDoneState(String text) {
         stopTimerAnimation();
         restartServerBtn.setStyle(STYLE_IDLE);
-        restartServerBtn.setText("✅ Restart Done");
+        restartServerBtn.setText(text);
 
         AsyncHelper.runDaemon(() -> {
             try {
@@ -273,6 +327,12 @@ public class RestartHandler {
                     "The current restart continues in the background.\n\n" +
                     "• If accepted: a new restart will execute after this one.\n" +
                     "• If rejected: the current restart continues unaffected.";
+        } else if (changesSinceRestart.isHotOnly() && ApplicationConfig.getInstance().isSkipRestartForJspOnly()) {
+            title = "Restart not needed?";
+            message = "Only JSPs were deployed since the last restart ("
+                    + changesSinceRestart.describe() + ").\n" +
+                    "The server picks them up without a restart.\n\n" +
+                    "Restart " + serverDisplayName + " anyway?";
         } else {
             title = "Restart " + serverDisplayName + "?";
             message = "Requesting will notify all connected users.\n\n" +
@@ -290,18 +350,56 @@ public class RestartHandler {
         }
     }
 
+    /**
+     * Un upload a pus fișiere pe server (pe FX thread). JAR-uri → restartul e propus;
+     * doar JSP-uri → restartul e sărit, dacă {@link ApplicationConfig#isSkipRestartForJspOnly()}.
+     */
+    public void onFilesDeployed(DeployChangeSet changes) {
+        if (changes.isEmpty()) return;
+        changesSinceRestart = DeployChangeSet.combine(changesSinceRestart, changes);
+
+        if (changes.isHotOnly() && ApplicationConfig.getInstance().isSkipRestartForJspOnly()) {
+            logger.accept("⚡ Deployed " + changes.describe() + " — picked up by the server, no restart needed");
+            return;
+        }
+
+        String message = "Deployed " + changesSinceRestart.describe() + " since the last restart"
+                + (changesSinceRestart.requiresRestart() ? " — the new JARs load after a restart." : ".");
+        logger.accept("🔄 " + message);
+
+        // Un restart deja cerut sau în curs le preia oricum
+        if (hasActiveRestart || "pending".equals(currentState)) return;
+        new NotificationController().showRestartNeededNotification(message, this::handleRestart);
+    }
+
     public void shutdown() {
         stopTimerAnimation();
         restartService.shutdown();
     }
 
+    /** Cum ajung actualizările de status: stream, sau polling cu intervalul și RTT-ul curente. */
+    private String describeStatusUpdates() {
+        long intervalMs = restartService.getCurrentPollIntervalMs();
+        if (intervalMs < 0) {
+            return "Restart status: live updates (watch stream)";
+        }
+
+        StringBuilder text = new StringBuilder(String.format("Restart status: polling every ~%.1f s", intervalMs / 1000.0));
+        long lastRttMs = restartService.getLastPollRttMs();
+        if (lastRttMs >= 0) {
+            text.append(String.format(" (poll RTT %d ms, avg %.0f ms)", lastRttMs, restartService.getAveragePollRttMs()));
+        }
+        return text.toString();
+    }
+
     private void executeRequest() {
         var restartTask = restartService.requestRestartAsync(projectName);
 
         restartTask.setOnSucceeded(event -> {
             // Feedback instant — butonul se dezactivează imediat
-            // Starea reală vine de la polling în max 2s
+            // Starea reală vine din watch stream sau de la următorul poll (trezit imediat)
             restartServerBtn.setDisable(true);
+            logger.accept("ℹ " + describeStatusUpdates());
         });
 
         restartTask.setOnFailed(event -> {
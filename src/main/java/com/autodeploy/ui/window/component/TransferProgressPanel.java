@@ -0,0 +1,200 @@
+package com.autodeploy.ui.window.component;
+
+import com.autodeploy.infrastructure.sftp.TransferListener;
+import com.autodeploy.infrastructure.sftp.TransferProgress;
+import com.autodeploy.service.deploy.UploadProgressListener;
+import com.autodeploy.service.utility.FileSizeFormatter;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.HBox;
+import javafx.util.Duration;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Rândul de progres din fereastra de deployment: agregă transferurile SFTP active.
+ * <p>
+ * Arată și progresul batch-urilor în curs (ex: {@code JARs 3/10 · JSPs 40/120}) — la un
+ * "Upload All" ambele stream-uri concurente apar în aceeași vizualizare.
+ * <p>
+ * Afișează fracția totală, bytes transferați, viteza cumulată și ETA-ul. Un transfer fără
+ * progres de {@value #STALL_THRESHOLD_MS}ms e semnalat ca blocat — un JAR de 80 MB care
+ * stă pe loc nu mai arată la fel ca unul care merge repede.
+ * <p>
+ * Evenimentele vin de pe thread-urile de transfer; actualizările UI sunt coalescate într-un
+ * singur {@code Platform.runLater} în zbor. Un Timeline de 1s reîmprospătează rândul cât timp
+ * există transferuri active (pentru detecția blocajelor, când nu mai vine niciun eveniment).
+ */
+public class TransferProgressPanel implements TransferListener, UploadProgressListener {
+
+    private static final long STALL_THRESHOLD_MS = 5_000;
+    private static final String STALLED_STYLE_CLASS = "transfer-stalled";
+
+    private final HBox row;
+    private final ProgressBar progressBar;
+    private final Label label;
+
+    private final Set<TransferProgress> active = ConcurrentHashMap.newKeySet();
+    /** Batch → {terminate, total}; sortat ca ordinea afișării să fie stabilă. */
+    private final Map<String, int[]> batches = new ConcurrentSkipListMap<>();
+    private final AtomicBoolean refreshPending = new AtomicBoolean(false);
+    private final Timeline ticker;
+
+    public TransferProgressPanel(HBox row, ProgressBar progressBar, Label label) {
+        this.row = row;
+        this.progressBar = progressBar;
+        this.label = label;
+
+        this.ticker = new Timeline(new KeyFrame(Duration.seconds(1), e -> refresh()));
+        this.ticker.setCycleCount(Timeline.INDEFINITE);
+        setRowVisible(false);
+    }
+
+    @Override
+    public void onTransferStarted(TransferProgress transfer) {
+        active.add(transfer);
+        scheduleRefresh();
+    }
+
+    @Override
+    public void onTransferProgress(TransferProgress transfer) {
+        scheduleRefresh();
+    }
+
+    @Override
+    public void onTransferFinished(TransferProgress transfer, boolean completed) {
+        active.remove(transfer);
+        scheduleRefresh();
+    }
+
+    @Override
+    public void onBatchProgress(String batch, int finishedFiles, int totalFiles) {
+        batches.put(batch, new int[]{finishedFiles, totalFiles});
+        scheduleRefresh();
+    }
+
+    @Override
+    public void onBatchFinished(String batch) {
+        batches.remove(batch);
+        scheduleRefresh();
+    }
+
+    /** Oprește Timeline-ul (la închiderea ferestrei). */
+    public void shutdown() {
+        Platform.runLater(ticker::stop);
+    }
+
+    private void scheduleRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                refreshPending.set(false);
+                refresh();
+            });
+        }
+    }
+
+    private void refresh() {
+        List<TransferProgress> transfers = List.copyOf(active);
+        String batchSummary = describeBatches();
+        if (transfers.isEmpty() && batchSummary.isEmpty()) {
+            ticker.stop();
+            setRowVisible(false);
+            return;
+        }
+        if (ticker.getStatus() != Timeline.Status.RUNNING) {
+            ticker.play();
+        }
+        if (transfers.isEmpty()) {
+            progressBar.setProgress(batchFraction());
+            label.setText(batchSummary);
+            label.getStyleClass().remove(STALLED_STYLE_CLASS);
+            setRowVisible(true);
+            return;
+        }
+
+        long total = 0;
+        long transferred = 0;
+        double bytesPerSecond = 0;
+        long maxIdle = 0;
+        for (TransferProgress transfer : transfers) {
+            total += transfer.getTotalBytes();
+            transferred += transfer.getTransferredBytes();
+            bytesPerSecond += transfer.getBytesPerSecond();
+            maxIdle = Math.max(maxIdle, transfer.getIdleMillis());
+        }
+
+        progressBar.setProgress(total > 0 ? (double) transferred / total : ProgressBar.INDETERMINATE_PROGRESS);
+        String transferSummary = describe(transfers, total, transferred, bytesPerSecond, maxIdle);
+        label.setText(batchSummary.isEmpty() ? transferSummary : batchSummary + " · " + transferSummary);
+
+        boolean stalled = maxIdle >= STALL_THRESHOLD_MS;
+        if (stalled && !label.getStyleClass().contains(STALLED_STYLE_CLASS)) {
+            label.getStyleClass().add(STALLED_STYLE_CLASS);
+        } else if (!stalled) {
+            label.getStyleClass().remove(STALLED_STYLE_CLASS);
+        }
+        setRowVisible(true);
+    }
+
+    /** {@code ↗ app.jar · 12.00 / 80.00 MB · 4.20 MB/s · ETA 0:16 [· ⚠ stalled 7s]} */
+    private String describe(List<TransferProgress> transfers, long total, long transferred,
+                            double bytesPerSecond, long maxIdle) {
+        TransferProgress first = transfers.get(0);
+        String arrow = first.getDirection() == TransferProgress.Direction.UPLOAD ? "↗ " : "↘ ";
+        String subject = transfers.size() == 1 ? first.getFileName() : transfers.size() + " files";
+
+        StringBuilder text = new StringBuilder(arrow).append(subject)
+                .append(" · ").append(FileSizeFormatter.format(transferred))
+                .append(" / ").append(FileSizeFormatter.format(total));
+
+        if (bytesPerSecond > 0) {
+            text.append(" · ").append(FileSizeFormatter.format(Math.round(bytesPerSecond))).append("/s");
+            text.append(" · ETA ").append(formatDuration(Math.round((total - transferred) * 1000.0 / bytesPerSecond)));
+        } else if (transfers.size() == 1 && first.getEtaMillis() >= 0) {
+            text.append(" · ETA ~").append(formatDuration(first.getEtaMillis()));
+        }
+
+        if (maxIdle >= STALL_THRESHOLD_MS) {
+            text.append(" · ⚠ stalled ").append(maxIdle / 1000).append("s");
+        }
+        return text.toString();
+    }
+
+    /** {@code JARs 3/10 · JSPs 40/120}, sau "" dacă nu rulează niciun batch. */
+    private String describeBatches() {
+        StringBuilder text = new StringBuilder();
+        batches.forEach((batch, counts) -> {
+            if (!text.isEmpty()) text.append(" · ");
+            text.append(batch).append(' ').append(counts[0]).append('/').append(counts[1]);
+        });
+        return text.toString();
+    }
+
+    private double batchFraction() {
+        int finished = 0;
+        int total = 0;
+        for (int[] counts : batches.values()) {
+            finished += counts[0];
+            total += counts[1];
+        }
+        return total > 0 ? (double) finished / total : ProgressBar.INDETERMINATE_PROGRESS;
+    }
+
+    private static String formatDuration(long millis) {
+        long seconds = Math.max(millis, 0) / 1000;
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+
+    private void setRowVisible(boolean visible) {
+        row.setVisible(visible);
+        row.setManaged(visible);
+    }
+}
@@ -1,10 +1,20 @@
 package com.autodeploy.ui.window.component;
 
+import com.autodeploy.domain.manager.ServerManager;
+import com.autodeploy.domain.model.Server;
+import com.autodeploy.notification.NotificationController;
+import com.autodeploy.service.deploy.DeployChangeSet;
+import com.autodeploy.service.deploy.FanOutDeployService;
 import com.autodeploy.service.deploy.FileUploadService;
+import com.autodeploy.service.deploy.JspWarmupService;
+import com.autodeploy.service.deploy.UploadResult;
 import com.autodeploy.ui.dialog.CustomAlert;
+import com.autodeploy.ui.dialog.ServerPickerDialog;
 import javafx.application.Platform;
 import javafx.scene.control.CheckBox;
+import javafx.stage.Window;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
@@ -18,11 +28,29 @@ import static com.autodeploy.core.constants.Constants.MSG_NOT_CONNECTED;
  * <ul>
  *   <li>Validare pre-upload: fișiere selectate? conexiune activă?</li>
  *   <li>Disable butoane de upload în timpul operației (previne double-click)</li>
- *   <li>Upload secvențial pe thread daemon (JAR-uri, apoi JSP-uri)</li>
+ *   <li>Upload pe thread daemon</li>
  * </ul>
  * <p>
- * {@link #uploadAll()} uploadează JAR-urile primele. Dacă conexiunea se pierde
- * în timpul upload-ului JAR, skip-ează JSP-urile (nu are sens să încerce).
+ * {@link #uploadAll()} rulează JAR-urile și JSP-urile concurent, pe canale separate.
+ * Dacă conexiunea se pierde în oricare stream, ambele se opresc, iar restul fișierelor
+ * sunt reluate după reconectare.
+ * <p>
+ * Upload-urile întrerupte sunt reluate automat din {@link #resumePendingUploads()},
+ * apelat la fiecare conectare reușită.
+ * La închiderea ferestrei, upload-urile în curs sunt anulate ({@link #cancelUploads()}).
+ * <p>
+ * Fișierele fixate în panouri ({@link FileListPanel#getPinnedFiles()}) sunt trimise primele;
+ * când ajung pe server, utilizatorul e anunțat în log și printr-o notificare.
+ * <p>
+ * {@link #uploadToServers(Window)} trimite selecția pe mai multe servere deodată
+ * ({@link FanOutDeployService}), pe sesiuni proprii — nu depinde de conexiunea ferestrei.
+ * <p>
+ * După fiecare upload terminat (fără pierderea conexiunii) — inclusiv cele din build-ul
+ * pipelined ({@link #onUploadFinished}) și partea serverului curent dintr-un fan-out —
+ * fișierele ajunse pe serverul ferestrei sunt raportate ca {@link DeployChangeSet} la {@link #setOnFilesDeployed callback}
+ * — de acolo se decide dacă e nevoie de restart. Dacă deploy-ul nu are nevoie de restart,
+ * JSP-urile uploadate sunt cerute prin HTTP ({@link JspWarmupService}, opțional) ca să fie
+ * deja compilate când pagina e deschisă în browser.
  */
 public class UploadHandler {
 
@@ -33,6 +61,11 @@ public class UploadHandler {
     private final DeploymentActionBar actionBar;
     private final Consumer<String> logger;
 
+    private FanOutDeployService fanOutDeployService;
+    private Server currentServer;
+    private Consumer<DeployChangeSet> onFilesDeployed;
+    private JspWarmupService jspWarmupService;
+
     public UploadHandler(FileListPanel jarPanel, FileListPanel jspPanel,
                          FileUploadService fileUploadService,
                          ConnectionHandler connectionHandler,
@@ -44,6 +77,8 @@ public class UploadHandler {
         this.connectionHandler = connectionHandler;
         this.actionBar = actionBar;
         this.logger = logger;
+
+        fileUploadService.setOnCriticalSetUploaded(this::onCriticalSetUploaded);
     }
 
     public void uploadJars() {
@@ -53,8 +88,11 @@ public class UploadHandler {
 
         actionBar.setUploadDisabled(true);
         AsyncHelper.runDaemon(() -> {
-            fileUploadService.uploadJars(selectedJars);
-            Platform.runLater(() -> actionBar.setUploadDisabled(false));
+            UploadResult result = fileUploadService.uploadJars(selectedJars, jarPanel.getPinnedFiles());
+            Platform.runLater(() -> {
+                actionBar.setUploadDisabled(false);
+                reportDeployed(result);
+            });
         }, "JAR-Upload");
     }
 
@@ -65,58 +103,179 @@ public class UploadHandler {
 
         actionBar.setUploadDisabled(true);
         AsyncHelper.runDaemon(() -> {
-            fileUploadService.uploadJsps(selectedJsps);
-            Platform.runLater(() -> actionBar.setUploadDisabled(false));
+            UploadResult result = fileUploadService.uploadJsps(selectedJsps, jspPanel.getPinnedFiles());
+            Platform.runLater(() -> {
+                actionBar.setUploadDisabled(false);
+                reportDeployed(result);
+            });
         }, "JSP-Upload");
     }
 
     /**
-     * Uploadează toate fișierele selectate: JAR-uri primele, apoi JSP-uri.
-     * Dacă conexiunea se pierde în timpul JAR-urilor, skip-ează JSP-urile.
+     * Uploadează toate fișierele selectate: JAR-urile și JSP-urile în paralel,
+     * cu un rezultat consolidat la final.
      */
     public void uploadAll() {
         var jarMap = jarPanel.getCheckBoxMap();
         var jspMap = jspPanel.getCheckBoxMap();
 
-        long jarCount = countSelected(jarMap);
-        long jspCount = countSelected(jspMap);
-
-        if (jarCount == 0 && jspCount == 0) {
+        if (countSelected(jarMap) == 0 && countSelected(jspMap) == 0) {
             logger.accept("⚠ No files selected");
             CustomAlert.showWarning("No Files Selected", MSG_NO_FILES_SELECTED);
             return;
         }
         if (!checkConnection()) return;
 
-        logger.accept("📤 Starting upload of all selected files...");
+        logger.accept("📤 Starting upload of all selected files (JARs and JSPs in parallel)...");
         actionBar.setUploadDisabled(true);
 
         AsyncHelper.runDaemon(() -> {
-            if (jarCount > 0) {
-                Platform.runLater(() -> logger.accept("### Uploading JARs ###"));
-                var jarResult = fileUploadService.uploadJars(jarMap);
-                if (jarResult.isConnectionLost()) {
-                    Platform.runLater(() -> {
-                        logger.accept("⚠ Skipping JSP upload due to connection loss");
-                        actionBar.setUploadDisabled(false);
-                    });
-                    return;
-                }
-            }
-
-            if (jspCount > 0) {
-                Platform.runLater(() -> logger.accept("### Uploading JSPs ###"));
-                fileUploadService.uploadJsps(jspMap);
-            }
+            UploadResult result = fileUploadService.uploadAll(
+                    jarMap, jarPanel.getPinnedFiles(), jspMap, jspPanel.getPinnedFiles());
 
             Platform.runLater(() -> {
                 logger.accept("####################################");
-                logger.accept("✓ All uploads completed");
+                logger.accept((result.isConnectionLost() ? "⏸ " : "✓ ") + "All uploads: "
+                        + result.getSuccessCount() + " successful, " + result.getFailCount() + " failed"
+                        + (result.getUnchangedCount() > 0 ? ", " + result.getUnchangedCount() + " unchanged" : "")
+                        + (result.isConnectionLost() ? " — the rest continues after reconnect" : ""));
                 actionBar.setUploadDisabled(false);
+                reportDeployed(result);
             });
         }, "Upload-All");
     }
 
+    public void setFanOutDeployService(FanOutDeployService fanOutDeployService, Server currentServer) {
+        this.fanOutDeployService = fanOutDeployService;
+        this.currentServer = currentServer;
+        // fan-out-ul nu are reluare: ce a ajuns pe server se raportează chiar dacă legătura a căzut
+        fanOutDeployService.setOnServerDeployed(result -> {
+            if (result.getServer().equals(currentServer)) {
+                Platform.runLater(() -> reportChanges(result.getResult().getChangeSet()));
+            }
+        });
+    }
+
+    /**
+     * Rezultatul unui upload pornit în afara handler-ului (ex: build pipelined).
+     * Poate fi apelat de pe orice thread.
+     */
+    public void onUploadFinished(UploadResult result) {
+        Platform.runLater(() -> reportDeployed(result));
+    }
+
+    /**
+     * Deploy fan-out: utilizatorul alege serverele, iar fișierele selectate sunt citite o
+     * singură dată și trimise pe toate în paralel. Serverul curent e pre-selectat.
+     */
+    public void uploadToServers(Window owner) {
+        List<String> jarNames = selectedNames(jarPanel.getCheckBoxMap());
+        List<String> jspNames = selectedNames(jspPanel.getCheckBoxMap());
+
+        if (jarNames.isEmpty() && jspNames.isEmpty()) {
+            logger.accept("⚠ No files selected");
+            CustomAlert.showWarning("No Files Selected", MSG_NO_FILES_SELECTED);
+            return;
+        }
+
+        List<Server> targets = ServerPickerDialog.pick(
+                owner, ServerManager.getInstance().getServers(), currentServer);
+        if (targets.isEmpty()) return;
+
+        actionBar.setUploadDisabled(true);
+        AsyncHelper.runDaemon(() -> {
+            List<FanOutDeployService.ServerResult> results =
+                    fanOutDeployService.deploy(targets, jarNames, jspNames);
+
+            List<String> failed = results.stream()
+                    .filter(result -> !result.isSuccess())
+                    .map(result -> result.getServer().getName() + ": " + result.describe())
+                    .toList();
+
+            Platform.runLater(() -> {
+                actionBar.setUploadDisabled(false);
+                if (failed.isEmpty()) {
+                    new NotificationController().showSimpleNotification(
+                            "Fan-out deploy finished",
+                            (jarNames.size() + jspNames.size()) + " file(s) on " + targets.size() + " server(s)");
+                } else {
+                    CustomAlert.showError("Fan-out Deploy", String.join("\n", failed));
+                }
+            });
+        }, "FanOut-Deploy");
+    }
+
+    /**
+     * Reia upload-urile întrerupte de pierderea conexiunii. No-op dacă nu există.
+     * Apelat pe FX thread, după conectare/reconectare.
+     */
+    public void resumePendingUploads() {
+        if (!fileUploadService.hasPendingUploads()) return;
+
+        actionBar.setUploadDisabled(true);
+        AsyncHelper.runDaemon(() -> {
+            List<UploadResult> results = fileUploadService.resumePendingUploads();
+            Platform.runLater(() -> {
+                actionBar.setUploadDisabled(false);
+                results.stream().reduce(UploadResult::combine).ifPresent(this::reportDeployed);
+            });
+        }, "Upload-Resume");
+    }
+
+    /**
+     * Anulează upload-urile în curs (fereastra se închide). Fișierele în transfer se termină,
+     * restul nu mai sunt trimise și nici reluate la o conectare ulterioară.
+     */
+    public void cancelUploads() {
+        fileUploadService.cancelUploads();
+    }
+
+    /** Apelat pe FX thread cu fișierele ajunse pe server după fiecare upload terminat. */
+    public void setOnFilesDeployed(Consumer<DeployChangeSet> onFilesDeployed) {
+        this.onFilesDeployed = onFilesDeployed;
+    }
+
+    public void setJspWarmupService(JspWarmupService jspWarmupService) {
+        this.jspWarmupService = jspWarmupService;
+    }
+
+    /** Un upload întrerupt se raportează abia după ce reluarea lui se termină. */
+    private void reportDeployed(UploadResult result) {
+        if (!result.isConnectionLost()) {
+            reportChanges(result.getChangeSet());
+        }
+    }
+
+    private void reportChanges(DeployChangeSet changes) {
+        if (changes.isEmpty()) return;
+
+        if (onFilesDeployed != null) {
+            onFilesDeployed.accept(changes);
+        }
+        warmUpJsps(changes);
+    }
+
+    /**
+     * Cu JAR-uri noi, paginile s-ar compila pe clasele vechi — warm-up-ul are sens abia
+     * după restart, deci e sărit.
+     */
+    private void warmUpJsps(DeployChangeSet changes) {
+        if (jspWarmupService == null || !jspWarmupService.isEnabled() || changes.getHotFiles().isEmpty()) return;
+
+        if (changes.requiresRestart()) {
+            logger.accept("ℹ JSP warm-up skipped — JARs changed, pages compile after the restart");
+            return;
+        }
+        jspWarmupService.warmUpAsync(changes.getHotFiles());
+    }
+
+    /** Fișierele fixate sunt pe server — testarea poate începe cât restul batch-ului continuă. */
+    private void onCriticalSetUploaded(List<String> pinnedFiles) {
+        Platform.runLater(() -> new NotificationController().showSimpleNotification(
+                "Pinned files deployed",
+                String.join(", ", pinnedFiles) + " — ready for testing"));
+    }
+
     private boolean validateSelection(Map<String, CheckBox> selectionMap) {
         if (selectionMap.values().stream().noneMatch(CheckBox::isSelected)) {
             CustomAlert.showWarning("No Files Selected", MSG_NO_FILES_SELECTED);
@@ -133,6 +292,13 @@ public class UploadHandler {
         return true;
     }
 
+    private List<String> selectedNames(Map<String, CheckBox> map) {
+        return map.entrySet().stream()
+                .filter(entry -> entry.getValue().isSelected())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
     private long countSelected(Map<String, CheckBox> map) {
         return map.values().stream().filter(CheckBox::isSelected).count();
     }